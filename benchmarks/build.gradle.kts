@@ -0,0 +1,26 @@
+plugins {
+	id("me.champeau.jmh") version "0.7.2"
+}
+
+java {
+	sourceCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+	jmh(project(":main"))
+	jmh("dev.arbjerg:lavaplayer:2.0.4")
+	jmh("org.slf4j:slf4j-simple:2.0.7")
+}
+
+jmh {
+	warmupIterations = 2
+	iterations = 5
+	fork = 1
+	// run a subset with e.g. ./gradlew :benchmarks:jmh -Pjmh.includes=Deezer
+	findProperty("jmh.includes")?.let { includes = listOf(it.toString()) }
+	resultFormat = "JSON"
+}
+
+tasks.withType<PublishToMavenRepository> {
+	enabled = false
+}
@@ -0,0 +1,182 @@
+package com.github.topi314.lavasrc;
+
+import com.github.topi314.lavasrc.deezer.DeezerAudioSourceManager;
+import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.tools.DataFormatTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageInput;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageOutput;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes the extended fields of whole playlists through {@link ExtendedAudioSourceManager}, with and without a {@link StringTable},
+ * and decodes the same playlist in the legacy format, with and without the extended fields, for comparison.
+ * The setup checks that tracks encoded before the extended fields existed still decode through lavaplayer.
+ * The encoded sizes are logged once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExtendedTrackEncodingBenchmark {
+
+	private static final Logger log = LoggerFactory.getLogger(ExtendedTrackEncodingBenchmark.class);
+
+	@Param({"1000", "10000"})
+	public int tracks;
+
+	private DefaultAudioPlayerManager playerManager;
+	private DeezerAudioSourceManager sourceManager;
+	private AudioTrackInfo trackInfo;
+	private List<AudioTrack> audioTracks;
+	private byte[] encoded;
+	private byte[] encodedWithStringTable;
+	private byte[] encodedLegacy;
+	private byte[] encodedBaseline;
+
+	@Setup
+	public void setup() throws IOException {
+		this.playerManager = new DefaultAudioPlayerManager();
+		this.sourceManager = new DeezerAudioSourceManager(Fixtures.DEEZER_MASTER_KEY);
+		this.playerManager.registerSourceManager(this.sourceManager);
+		this.audioTracks = Fixtures.deezerAudioTracks(this.sourceManager, this.tracks);
+		this.trackInfo = this.audioTracks.get(0).getInfo();
+
+		this.encoded = this.encode();
+		try (var strings = StringTable.open()) {
+			this.encodedWithStringTable = this.encode();
+		}
+		this.encodedLegacy = this.encodeLegacy();
+		this.encodedBaseline = this.encodeBaseline();
+		this.verifyBaseline();
+
+		log.info("Encoded {} tracks: {} bytes, {} bytes with string table, {} bytes legacy", this.tracks, this.encoded.length, this.encodedWithStringTable.length, this.encodedLegacy.length);
+	}
+
+	@TearDown
+	public void tearDown() {
+		// also shuts down the source manager
+		this.playerManager.shutdown();
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		var out = new ByteArrayOutputStream();
+		var output = new DataOutputStream(out);
+		for (var track : this.audioTracks) {
+			this.sourceManager.encodeTrack(track, output);
+		}
+		output.flush();
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public byte[] encodeWithStringTable() throws IOException {
+		try (var strings = StringTable.open()) {
+			return this.encode();
+		}
+	}
+
+	@Benchmark
+	public void decode(Blackhole blackhole) throws IOException {
+		this.decode(this.encoded, blackhole);
+	}
+
+	@Benchmark
+	public void decodeWithStringTable(Blackhole blackhole) throws IOException {
+		try (var strings = StringTable.open()) {
+			this.decode(this.encodedWithStringTable, blackhole);
+		}
+	}
+
+	@Benchmark
+	public void decodeLegacy(Blackhole blackhole) throws IOException {
+		this.decode(this.encodedLegacy, blackhole);
+	}
+
+	/**
+	 * Decodes whole lavaplayer messages of tracks encoded before the extended fields existed, which carry only the track position after the source data.
+	 */
+	@Benchmark
+	public void decodeLegacyWithoutExtendedFields(Blackhole blackhole) throws IOException {
+		var input = new MessageInput(new ByteArrayInputStream(this.encodedBaseline));
+		for (var i = 0; i < this.tracks; i++) {
+			blackhole.consume(this.playerManager.decodeTrack(input));
+		}
+	}
+
+	private void decode(byte[] data, Blackhole blackhole) throws IOException {
+		var input = new DataInputStream(new ByteArrayInputStream(data));
+		for (var i = 0; i < this.tracks; i++) {
+			blackhole.consume(this.sourceManager.decodeTrack(this.trackInfo, input));
+		}
+	}
+
+	private byte[] encodeLegacy() throws IOException {
+		var out = new ByteArrayOutputStream();
+		var output = new DataOutputStream(out);
+		for (var track : this.audioTracks) {
+			var extendedTrack = (ExtendedAudioTrack) track;
+			DataFormatTools.writeNullableText(output, extendedTrack.getAlbumName());
+			DataFormatTools.writeNullableText(output, extendedTrack.getAlbumUrl());
+			DataFormatTools.writeNullableText(output, extendedTrack.getArtistUrl());
+			DataFormatTools.writeNullableText(output, extendedTrack.getArtistArtworkUrl());
+			DataFormatTools.writeNullableText(output, extendedTrack.getPreviewUrl());
+			output.writeBoolean(extendedTrack.isPreview());
+		}
+		output.flush();
+		return out.toByteArray();
+	}
+
+	/**
+	 * Encodes the tracks as lavaplayer messages without the extended fields, like tracks saved before they were added.
+	 */
+	private byte[] encodeBaseline() throws IOException {
+		var out = new ByteArrayOutputStream();
+		var messages = new MessageOutput(out);
+		for (var track : this.audioTracks) {
+			var encodedTrack = new ByteArrayOutputStream();
+			this.playerManager.encodeTrack(new MessageOutput(encodedTrack), track);
+
+			var extendedFields = new ByteArrayOutputStream();
+			this.sourceManager.encodeTrack(track, new DataOutputStream(extendedFields));
+
+			// the message body follows the 4 byte header and ends with the extended fields and the 8 byte position
+			var message = new MessageInput(new ByteArrayInputStream(encodedTrack.toByteArray()));
+			var body = new byte[encodedTrack.size() - Integer.BYTES];
+			message.nextMessage().readFully(body);
+
+			var output = messages.startMessage();
+			output.write(body, 0, body.length - extendedFields.size() - Long.BYTES);
+			output.write(body, body.length - Long.BYTES, Long.BYTES);
+			messages.commitMessage(message.getMessageFlags());
+		}
+		return out.toByteArray();
+	}
+
+	private void verifyBaseline() throws IOException {
+		var input = new MessageInput(new ByteArrayInputStream(this.encodedBaseline));
+		for (var expected : this.audioTracks) {
+			var holder = this.playerManager.decodeTrack(input);
+			if (holder == null || !(holder.decodedTrack instanceof ExtendedAudioTrack)) {
+				throw new IllegalStateException("Failed to decode track " + expected.getIdentifier() + " without extended fields");
+			}
+			var track = (ExtendedAudioTrack) holder.decodedTrack;
+			if (!track.getIdentifier().equals(expected.getIdentifier()) || track.getAlbumName() != null || track.isPreview()) {
+				throw new IllegalStateException("Decoded track " + track.getIdentifier() + " without extended fields does not match " + expected.getIdentifier());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,637 @@
+package com.github.topi314.lavasrc;
+
+import com.github.topi314.lavasrc.deezer.DeezerAudioSourceManager;
+import com.github.topi314.lavasrc.deezer.DeezerAudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates synthetic api payloads shaped like the real responses of the sources.
+ * Tracks are grouped into albums of {@link #ALBUM_SIZE} tracks, like they are in most playlists.
+ */
+public class Fixtures {
+
+	public static final int ALBUM_SIZE = 12;
+	// the key is only used for playback, so any non empty key works
+	public static final String DEEZER_MASTER_KEY = "0123456789abcdef";
+
+	public static String deezerTracks(int count) {
+		var json = new StringBuilder(count * 900).append("{\"data\":[");
+		for (var i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendDeezerTrack(json, i);
+		}
+		return json.append("],\"total\":").append(count).append('}').toString();
+	}
+
+	public static String deezerTrack(int i) {
+		var json = new StringBuilder(900);
+		appendDeezerTrack(json, i);
+		return json.toString();
+	}
+
+	/**
+	 * The playlist info, its tracks are fetched separately with {@link #deezerTracks}.
+	 */
+	public static String deezerPlaylist(int id, int count) {
+		return "{\"id\":" + id + ",\"title\":\"Playlist " + id + "\",\"link\":\"https://www.deezer.com/playlist/" + id + "\""
+			+ ",\"picture_xl\":\"https://e-cdns-images.dzcdn.net/images/playlist/" + String.format("%032x", id) + "/1000x1000-000000-80-0-0.jpg\""
+			+ ",\"creator\":{\"id\":1,\"name\":\"Creator\"},\"nb_tracks\":" + count
+			+ ",\"tracks\":" + deezerTracks(Math.min(count, 25)) + ",\"type\":\"playlist\"}";
+	}
+
+	private static void appendDeezerTrack(StringBuilder json, int i) {
+		var album = i / ALBUM_SIZE;
+		var artist = album / 3;
+		json.append("{\"id\":").append(100000000 + i)
+			.append(",\"readable\":true,\"title\":\"Track ").append(i).append(" (Radio Edit)\"")
+			.append(",\"title_short\":\"Track ").append(i).append('"')
+			.append(",\"link\":\"https://www.deezer.com/track/").append(100000000 + i).append('"')
+			.append(",\"duration\":").append(120 + i % 240)
+			.append(",\"rank\":").append(500000 + i)
+			.append(",\"explicit_lyrics\":false")
+			.append(",\"preview\":\"https://cdnt-preview.dzcdn.net/api/1/1/a/b/c/0/").append(Integer.toHexString(i)).append(".mp3?hdnea=exp=1700000000~acl=/api/1/1/a/b/c/0/").append(Integer.toHexString(i)).append(".mp3*~hmac=").append(Integer.toHexString(i * 31)).append('"')
+			.append(",\"md5_image\":\"").append(String.format("%032x", album)).append('"')
+			.append(",\"isrc\":\"USRC1").append(String.format("%07d", i)).append('"')
+			.append(",\"artist\":{\"id\":").append(1000 + artist)
+			.append(",\"name\":\"Artist ").append(artist).append('"')
+			.append(",\"link\":\"https://www.deezer.com/artist/").append(1000 + artist).append('"')
+			.append(",\"picture_xl\":\"https://e-cdns-images.dzcdn.net/images/artist/").append(String.format("%032x", artist)).append("/1000x1000-000000-80-0-0.jpg\"")
+			.append(",\"type\":\"artist\"}")
+			.append(",\"album\":{\"id\":").append(50000 + album)
+			.append(",\"title\":\"Album ").append(album).append('"')
+			.append(",\"cover_xl\":\"https://e-cdns-images.dzcdn.net/images/cover/").append(String.format("%032x", album)).append("/1000x1000-000000-80-0-0.jpg\"")
+			.append(",\"md5_image\":\"").append(String.format("%032x", album)).append('"')
+			.append(",\"type\":\"album\"}")
+			.append(",\"type\":\"track\"}");
+	}
+
+	public static String spotifyTracks(int count) {
+		var json = new StringBuilder(count * 1100).append("{\"tracks\":[");
+		for (var i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendSpotifyTrack(json, i);
+		}
+		return json.append("]}").toString();
+	}
+
+	public static String spotifyTrack(int i) {
+		var json = new StringBuilder(1100);
+		appendSpotifyTrack(json, i);
+		return json.toString();
+	}
+
+	public static String spotifySearch(int count) {
+		var json = new StringBuilder(count * 1100).append("{\"tracks\":{\"items\":[");
+		for (var i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendSpotifyTrack(json, i);
+		}
+		return json.append("],\"limit\":").append(count).append(",\"offset\":0,\"total\":").append(count).append("}}").toString();
+	}
+
+	public static String spotifyArtist(int artist) {
+		var id = spotifyId(2000000 + artist);
+		return "{\"id\":\"" + id + "\",\"name\":\"Artist " + artist + "\",\"external_urls\":{\"spotify\":\"https://open.spotify.com/artist/" + id + "\"}"
+			+ ",\"images\":[{\"height\":640,\"width\":640,\"url\":\"https://i.scdn.co/image/ab6761610000e5eb" + String.format("%024x", artist) + "\"}],\"type\":\"artist\"}";
+	}
+
+	private static void appendSpotifyTrack(StringBuilder json, int i) {
+		var album = i / ALBUM_SIZE;
+		var artist = album / 3;
+		var id = spotifyId(i);
+		var albumId = spotifyId(1000000 + album);
+		var artistId = spotifyId(2000000 + artist);
+		json.append("{\"id\":\"").append(id).append('"')
+			.append(",\"name\":\"Track ").append(i).append('"')
+			.append(",\"duration_ms\":").append(120000 + i % 240000)
+			.append(",\"explicit\":false,\"is_local\":false,\"popularity\":").append(i % 100)
+			.append(",\"preview_url\":\"https://p.scdn.co/mp3-preview/").append(String.format("%040x", i)).append('"')
+			.append(",\"uri\":\"spotify:track:").append(id).append('"')
+			.append(",\"external_ids\":{\"isrc\":\"USRC1").append(String.format("%07d", i)).append("\"}")
+			.append(",\"external_urls\":{\"spotify\":\"https://open.spotify.com/track/").append(id).append("\"}")
+			.append(",\"artists\":[{\"id\":\"").append(artistId).append('"')
+			.append(",\"name\":\"Artist ").append(artist).append('"')
+			.append(",\"external_urls\":{\"spotify\":\"https://open.spotify.com/artist/").append(artistId).append("\"}")
+			.append(",\"type\":\"artist\"}]")
+			.append(",\"album\":{\"id\":\"").append(albumId).append('"')
+			.append(",\"name\":\"Album ").append(album).append('"')
+			.append(",\"album_type\":\"album\",\"release_date\":\"2020-01-01\",\"total_tracks\":").append(ALBUM_SIZE)
+			.append(",\"external_urls\":{\"spotify\":\"https://open.spotify.com/album/").append(albumId).append("\"}")
+			.append(",\"images\":[");
+		for (var size : new int[]{640, 300, 64}) {
+			if (size != 640) {
+				json.append(',');
+			}
+			json.append("{\"height\":").append(size).append(",\"width\":").append(size)
+				.append(",\"url\":\"https://i.scdn.co/image/ab67616d0000b273").append(String.format("%024x", album * 3 + size)).append("\"}");
+		}
+		json.append("]},\"type\":\"track\"}");
+	}
+
+	/**
+	 * A {@code searchDesktop} response of the partner api. Like the real one it has no ISRCs, they are looked up from spclient.
+	 */
+	public static String spotifyPartnerSearch(int count) {
+		var json = new StringBuilder(count * 900).append("{\"data\":{\"searchV2\":{\"tracksV2\":{\"items\":[");
+		for (var i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"item\":{\"data\":");
+			appendSpotifyPartnerTrack(json, i);
+			json.append("}}");
+		}
+		return json.append("],\"totalCount\":").append(count).append("}}}}").toString();
+	}
+
+	/**
+	 * A {@code fetchPlaylist} response of the partner api.
+	 */
+	public static String spotifyPartnerPlaylist(int playlist, int count) {
+		var json = new StringBuilder(count * 950).append("{\"data\":{\"playlistV2\":{\"__typename\":\"Playlist\"")
+			.append(",\"uri\":\"spotify:playlist:").append(spotifyId(3000000 + playlist)).append('"')
+			.append(",\"name\":\"Playlist ").append(playlist).append('"')
+			.append(",\"images\":{\"items\":[{\"sources\":[{\"height\":640,\"width\":640,\"url\":\"https://mosaic.scdn.co/640/").append(String.format("%040x", playlist)).append("\"}]}]}")
+			.append(",\"ownerV2\":{\"data\":{\"__typename\":\"User\",\"name\":\"Owner ").append(playlist).append("\"}}")
+			.append(",\"content\":{\"totalCount\":").append(count).append(",\"items\":[");
+		for (var i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"itemV2\":{\"data\":");
+			appendSpotifyPartnerTrack(json, playlist * count + i);
+			json.append("}}");
+		}
+		return json.append("]}}}}").toString();
+	}
+
+	/**
+	 * A spclient track metadata response, which is where the partner api tracks get their ISRC from.
+	 */
+	public static String spotifySpClientTrack(String gid) {
+		return "{\"gid\":\"" + gid + "\",\"name\":\"Track\",\"external_id\":[{\"type\":\"isrc\",\"id\":\"USRC2" + gid.substring(gid.length() - 7) + "\"}]}";
+	}
+
+	private static void appendSpotifyPartnerTrack(StringBuilder json, int i) {
+		var album = i / ALBUM_SIZE;
+		var artist = album / 3;
+		var artistId = spotifyId(2000000 + artist);
+		json.append("{\"__typename\":\"Track\"")
+			.append(",\"uri\":\"spotify:track:").append(spotifyId(i)).append('"')
+			.append(",\"name\":\"Track ").append(i).append('"')
+			.append(",\"duration\":{\"totalMilliseconds\":").append(120000 + i % 240000).append('}')
+			.append(",\"trackDuration\":{\"totalMilliseconds\":").append(120000 + i % 240000).append('}')
+			.append(",\"contentRating\":{\"label\":\"NONE\"},\"playability\":{\"playable\":true}")
+			.append(",\"artists\":{\"items\":[{\"uri\":\"spotify:artist:").append(artistId).append('"')
+			.append(",\"profile\":{\"name\":\"Artist ").append(artist).append("\"}}]}")
+			.append(",\"albumOfTrack\":{\"uri\":\"spotify:album:").append(spotifyId(1000000 + album)).append('"')
+			.append(",\"name\":\"Album ").append(album).append('"')
+			.append(",\"coverArt\":{\"sources\":[");
+		for (var size : new int[]{64, 300, 640}) {
+			if (size != 64) {
+				json.append(',');
+			}
+			json.append("{\"height\":").append(size).append(",\"width\":").append(size)
+				.append(",\"url\":\"https://i.scdn.co/image/ab67616d0000b273").append(String.format("%024x", album * 3 + size)).append("\"}");
+		}
+		json.append("]}}}");
+	}
+
+	/**
+	 * A media api token shaped like the one of the Apple Music web player, only its payload is read.
+	 */
+	public static String appleMusicToken() {
+		var payload = "{\"root_https_origin\":[\"apple.com\"],\"exp\":" + (System.currentTimeMillis() / 1000 + TimeUnit.DAYS.toSeconds(1)) + "}";
+		return "header." + Base64.getEncoder().encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".signature";
+	}
+
+	public static String appleMusicSong(int i) {
+		var json = new StringBuilder(1200).append("{\"data\":[");
+		appendAppleMusicSong(json, i);
+		return json.append("]}").toString();
+	}
+
+	/**
+	 * One page of playlist tracks, without a {@code next} link so it is the last one.
+	 */
+	public static String appleMusicSongs(int offset, int count) {
+		var json = new StringBuilder(count * 1200).append("{\"data\":[");
+		for (var i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendAppleMusicSong(json, offset + i);
+		}
+		return json.append("]}").toString();
+	}
+
+	public static String appleMusicSearch(int count) {
+		return "{\"results\":{\"songs\":" + appleMusicSongs(0, count) + "}}";
+	}
+
+	/**
+	 * The playlist info, its tracks are fetched separately with {@link #appleMusicSongs}.
+	 */
+	public static String appleMusicPlaylist(String id, int count) {
+		return "{\"data\":[{\"id\":\"" + id + "\",\"type\":\"playlists\",\"attributes\":{\"name\":\"Playlist " + id + "\",\"curatorName\":\"Curator\",\"trackCount\":" + count
+			+ ",\"url\":\"https://music.apple.com/us/playlist/playlist/" + id + "\""
+			+ ",\"artwork\":{\"width\":1080,\"height\":1080,\"url\":\"https://is1-ssl.mzstatic.com/image/thumb/Features/" + String.format("%032x", id.hashCode()) + "/{w}x{h}cc.jpg\"}}}]}";
+	}
+
+	public static String appleMusicArtists(String ids) {
+		var json = new StringBuilder(ids.length() * 20).append("{\"data\":[");
+		var first = true;
+		for (var id : ids.split(",")) {
+			if (!first) {
+				json.append(',');
+			}
+			first = false;
+			json.append("{\"id\":\"").append(id).append("\",\"type\":\"artists\",\"attributes\":{\"name\":\"Artist\"")
+				.append(",\"artwork\":{\"width\":2400,\"height\":2400,\"url\":\"https://is1-ssl.mzstatic.com/image/thumb/AMCArtistImages/").append(String.format("%032x", id.hashCode())).append("/{w}x{h}bb.jpg\"}}}");
+		}
+		return json.append("]}").toString();
+	}
+
+	private static void appendAppleMusicSong(StringBuilder json, int i) {
+		var album = i / ALBUM_SIZE;
+		var artist = album / 3;
+		var id = 1000000000L + i;
+		json.append("{\"id\":\"").append(id).append("\",\"type\":\"songs\",\"attributes\":{")
+			.append("\"name\":\"Track ").append(i).append('"')
+			.append(",\"artistName\":\"Artist ").append(artist).append('"')
+			.append(",\"albumName\":\"Album ").append(album).append('"')
+			.append(",\"durationInMillis\":").append(120000 + i % 240000)
+			.append(",\"isrc\":\"USRC1").append(String.format("%07d", i)).append('"')
+			.append(",\"url\":\"https://music.apple.com/us/album/album-").append(album).append('/').append(1500000000L + album).append("?i=").append(id).append('"')
+			.append(",\"artistUrl\":\"https://music.apple.com/us/artist/artist-").append(artist).append('/').append(1600000000L + artist).append('"')
+			.append(",\"artwork\":{\"width\":3000,\"height\":3000,\"url\":\"https://is1-ssl.mzstatic.com/image/thumb/Music/").append(String.format("%032x", album)).append("/{w}x{h}bb.jpg\"}")
+			.append(",\"previews\":[{\"url\":\"https://audio-ssl.itunes.apple.com/itunes-assets/AudioPreview/").append(String.format("%032x", i)).append(".m4a\"")
+			.append(",\"hlsUrl\":\"https://aod-ssl.itunes.apple.com/itunes-assets/HLSMusic/").append(String.format("%032x", i)).append("/P.m3u8\"}]}}");
+	}
+
+	public static String tidalTrack(int i) {
+		var json = new StringBuilder(700);
+		appendTidalTrack(json, i);
+		return json.toString();
+	}
+
+	public static String tidalSearch(int count) {
+		var json = new StringBuilder(count * 700).append("{\"tracks\":{\"items\":[");
+		for (var i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendTidalTrack(json, i);
+		}
+		return json.append("],\"totalNumberOfItems\":").append(count).append("}}").toString();
+	}
+
+	public static String tidalPlaylistTracks(int count) {
+		var json = new StringBuilder(count * 720).append("{\"items\":[");
+		for (var i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"item\":");
+			appendTidalTrack(json, i);
+			json.append(",\"type\":\"track\"}");
+		}
+		return json.append("],\"totalNumberOfItems\":").append(count).append('}').toString();
+	}
+
+	/**
+	 * The playlist info, its tracks are fetched separately with {@link #tidalPlaylistTracks}.
+	 */
+	public static String tidalPlaylist(String uuid, int count) {
+		return "{\"uuid\":\"" + uuid + "\",\"title\":\"Playlist " + uuid + "\",\"url\":\"http://www.tidal.com/playlist/" + uuid + "\",\"numberOfTracks\":" + count
+			+ ",\"squareImage\":\"" + tidalUuid(uuid.hashCode()) + "\",\"promotedArtists\":[{\"id\":1,\"name\":\"Creator\"}]}";
+	}
+
+	public static String tidalUuid(int value) {
+		return String.format("%08x-%04x-4000-8000-%012x", value, value & 0xffff, value * 31L & 0xffffffffffffL);
+	}
+
+	private static void appendTidalTrack(StringBuilder json, int i) {
+		var album = i / ALBUM_SIZE;
+		var artist = album / 3;
+		var id = 200000000 + i;
+		json.append("{\"id\":").append(id)
+			.append(",\"title\":\"Track ").append(i).append('"')
+			.append(",\"duration\":").append(120 + i % 240)
+			.append(",\"url\":\"http://www.tidal.com/track/").append(id).append('"')
+			.append(",\"isrc\":\"USRC1").append(String.format("%07d", i)).append('"')
+			.append(",\"artists\":[{\"id\":").append(3000 + artist).append(",\"name\":\"Artist ").append(artist).append("\",\"type\":\"MAIN\"}]")
+			.append(",\"album\":{\"id\":").append(60000 + album)
+			.append(",\"title\":\"Album ").append(album).append('"')
+			.append(",\"cover\":\"").append(tidalUuid(album)).append("\"}}");
+	}
+
+	public static String qobuzTrack(int i) {
+		var json = new StringBuilder(700);
+		appendQobuzTrack(json, i);
+		return json.toString();
+	}
+
+	public static String qobuzSearch(int count) {
+		return "{\"tracks\":" + qobuzTracks(0, count) + "}";
+	}
+
+	/**
+	 * A playlist including its tracks, like it is returned with {@code extra=tracks}.
+	 */
+	public static String qobuzPlaylist(int playlist, int count) {
+		return "{\"id\":" + playlist + ",\"name\":\"Playlist " + playlist + "\",\"url\":\"https://play.qobuz.com/playlist/" + playlist + "\""
+			+ ",\"owner\":{\"id\":1,\"name\":\"Owner\"},\"tracks_count\":" + count
+			+ ",\"images300\":[\"https://static.qobuz.com/images/covers/" + String.format("%032x", playlist) + "_300.jpg\"]"
+			+ ",\"tracks\":" + qobuzTracks(playlist * count, count) + "}";
+	}
+
+	private static String qobuzTracks(int offset, int count) {
+		var json = new StringBuilder(count * 700).append("{\"items\":[");
+		for (var i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendQobuzTrack(json, offset + i);
+		}
+		return json.append("],\"total\":").append(count).append(",\"offset\":0,\"limit\":").append(count).append('}').toString();
+	}
+
+	private static void appendQobuzTrack(StringBuilder json, int i) {
+		var album = i / ALBUM_SIZE;
+		var artist = album / 3;
+		json.append("{\"id\":").append(300000000 + i)
+			.append(",\"title\":\"Track ").append(i).append('"')
+			.append(",\"duration\":").append(120 + i % 240)
+			.append(",\"isrc\":\"USRC1").append(String.format("%07d", i)).append('"')
+			.append(",\"performer\":{\"id\":").append(4000 + artist).append(",\"name\":\"Artist ").append(artist).append("\"}")
+			.append(",\"album\":{\"id\":\"").append(String.format("q%011d", album)).append('"')
+			.append(",\"title\":\"Album ").append(album).append('"')
+			.append(",\"image\":{\"large\":\"https://static.qobuz.com/images/covers/").append(String.format("%032x", album)).append("_600.jpg\"}")
+			.append(",\"artist\":{\"id\":").append(4000 + artist).append(",\"name\":\"Artist ").append(artist).append("\"}}}");
+	}
+
+	public static String vkTrack(int i) {
+		var json = new StringBuilder(800).append("{\"response\":[");
+		appendVkTrack(json, i);
+		return json.append("]}").toString();
+	}
+
+	/**
+	 * A response of {@code audio.search} or {@code audio.get}.
+	 */
+	public static String vkTracks(int offset, int count) {
+		var json = new StringBuilder(count * 800).append("{\"response\":{\"count\":").append(count).append(",\"items\":[");
+		for (var i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendVkTrack(json, offset + i);
+		}
+		return json.append("]}}").toString();
+	}
+
+	/**
+	 * The playlist info, its tracks are fetched separately with {@link #vkTracks}.
+	 */
+	public static String vkPlaylist(int playlist) {
+		return "{\"response\":{\"id\":" + playlist + ",\"owner_id\":-2000000,\"type\":0,\"title\":\"Playlist " + playlist + "\",\"access_key\":\"" + String.format("%018x", playlist) + "\""
+			+ ",\"photo\":{\"photo_600\":\"https://sun9-1.userapi.com/impf/" + String.format("%032x", playlist) + ".jpg\"},\"main_artists\":[{\"name\":\"Creator\"}]}}";
+	}
+
+	private static void appendVkTrack(StringBuilder json, int i) {
+		var album = i / ALBUM_SIZE;
+		var artist = album / 3;
+		json.append("{\"id\":").append(456239000 + i)
+			.append(",\"owner_id\":-2000000")
+			.append(",\"artist\":\"Artist ").append(artist).append('"')
+			.append(",\"title\":\"Track ").append(i).append('"')
+			.append(",\"duration\":").append(120 + i % 240)
+			.append(",\"url\":\"https://cs1-23v4.vkuseraudio.net/s/v1/ac/").append(String.format("%032x", i)).append("/index.m3u8\"")
+			.append(",\"album\":{\"id\":").append(70000 + album).append(",\"owner_id\":-2000000")
+			.append(",\"title\":\"Album ").append(album).append('"')
+			.append(",\"thumb\":{\"photo_600\":\"https://sun9-1.userapi.com/impf/").append(String.format("%032x", album)).append(".jpg\"}}")
+			.append(",\"main_artists\":[{\"id\":\"").append(5000 + artist).append("\",\"name\":\"Artist ").append(artist).append("\",\"domain\":\"artist").append(artist).append("\"}]}");
+	}
+
+	public static String yandexTrack(int i) {
+		var json = new StringBuilder(750).append("{\"result\":[");
+		appendYandexTrack(json, i);
+		return json.append("]}").toString();
+	}
+
+	public static String yandexSearch(int count) {
+		var json = new StringBuilder(count * 750).append("{\"result\":{\"tracks\":{\"total\":").append(count).append(",\"results\":[");
+		for (var i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendYandexTrack(json, i);
+		}
+		return json.append("]}}}").toString();
+	}
+
+	/**
+	 * A playlist including its tracks, like it is returned with {@code rich-tracks=true}.
+	 */
+	public static String yandexPlaylist(int playlist, int count) {
+		var json = new StringBuilder(count * 780).append("{\"result\":{\"kind\":").append(playlist)
+			.append(",\"title\":\"Playlist ").append(playlist).append('"')
+			.append(",\"owner\":{\"uid\":1,\"login\":\"owner\",\"name\":\"Owner\"}")
+			.append(",\"ogImage\":\"avatars.yandex.net/get-music-user-playlist/").append(String.format("%032x", playlist)).append("/%%\"")
+			.append(",\"trackCount\":").append(count)
+			.append(",\"tracks\":[");
+		for (var i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"id\":").append(400000 + playlist * count + i).append(",\"track\":");
+			appendYandexTrack(json, playlist * count + i);
+			json.append('}');
+		}
+		return json.append("]}}").toString();
+	}
+
+	private static void appendYandexTrack(StringBuilder json, int i) {
+		var album = i / ALBUM_SIZE;
+		var artist = album / 3;
+		json.append("{\"id\":\"").append(400000 + i).append('"')
+			.append(",\"available\":true")
+			.append(",\"title\":\"Track ").append(i).append('"')
+			.append(",\"durationMs\":").append(120000 + i % 240000)
+			.append(",\"coverUri\":\"avatars.yandex.net/get-music-content/").append(String.format("%032x", album)).append("/%%\"")
+			.append(",\"artists\":[{\"id\":").append(6000 + artist).append(",\"name\":\"Artist ").append(artist).append('"')
+			.append(",\"cover\":{\"uri\":\"avatars.yandex.net/get-music-content/").append(String.format("%032x", artist)).append("/%%\"}}]")
+			.append(",\"albums\":[{\"id\":").append(80000 + album).append(",\"title\":\"Album ").append(album).append("\"}]}");
+	}
+
+	/**
+	 * A {@code search.getResults} response, which uses the flat track format.
+	 */
+	public static String jioSaavnSearch(int count) {
+		var json = new StringBuilder(count * 700).append("{\"total\":").append(count).append(",\"start\":1,\"results\":[");
+		for (var i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			var album = i / ALBUM_SIZE;
+			var artist = album / 3;
+			var id = jioSaavnId(i);
+			json.append("{\"id\":\"").append(id).append('"')
+				.append(",\"song\":\"Track ").append(i).append('"')
+				.append(",\"primary_artists\":\"Artist ").append(artist).append('"')
+				.append(",\"singers\":\"Artist ").append(artist).append('"')
+				.append(",\"album\":\"Album ").append(album).append('"')
+				.append(",\"album_url\":\"https://www.jiosaavn.com/album/album-").append(album).append('/').append(jioSaavnId(1000000 + album)).append('"')
+				.append(",\"duration\":\"").append(120 + i % 240).append('"')
+				.append(",\"perma_url\":\"https://www.jiosaavn.com/song/track-").append(i).append('/').append(id).append('"')
+				.append(",\"image\":\"https://c.saavncdn.com/").append(String.format("%03x", album % 4096)).append("/Album-").append(album).append("-150x150.jpg\"")
+				.append(",\"media_preview_url\":\"https://preview.saavncdn.com/").append(String.format("%03x", album % 4096)).append('/').append(String.format("%032x", i)).append("_96_p.mp4\"}");
+		}
+		return json.append("]}").toString();
+	}
+
+	/**
+	 * A {@code webapi.get} response for a song, which uses the metadata track format.
+	 */
+	public static String jioSaavnSong(int i) {
+		var json = new StringBuilder(900).append("{\"songs\":[");
+		appendJioSaavnTrack(json, i);
+		return json.append("]}").toString();
+	}
+
+	/**
+	 * A {@code webapi.get} response for a playlist including its tracks.
+	 */
+	public static String jioSaavnPlaylist(String id, int count) {
+		var json = new StringBuilder(count * 900).append("{\"id\":\"").append(id).append('"')
+			.append(",\"title\":\"Playlist ").append(id).append('"')
+			.append(",\"perma_url\":\"https://www.jiosaavn.com/featured/playlist/").append(id).append('"')
+			.append(",\"image\":\"https://c.saavncdn.com/editorial/").append(id).append("-150x150.jpg\"")
+			.append(",\"more_info\":{\"firstname\":\"Owner\",\"username\":\"owner\"}")
+			.append(",\"list_count\":\"").append(count).append('"')
+			.append(",\"list\":[");
+		var offset = Math.floorMod(id.hashCode(), 1000) * count;
+		for (var i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendJioSaavnTrack(json, offset + i);
+		}
+		return json.append("]}").toString();
+	}
+
+	public static String jioSaavnId(int value) {
+		return spotifyId(value).substring(0, 8);
+	}
+
+	private static void appendJioSaavnTrack(StringBuilder json, int i) {
+		var album = i / ALBUM_SIZE;
+		var artist = album / 3;
+		var id = jioSaavnId(i);
+		json.append("{\"id\":\"").append(id).append('"')
+			.append(",\"title\":\"Track ").append(i).append('"')
+			.append(",\"type\":\"song\"")
+			.append(",\"perma_url\":\"https://www.jiosaavn.com/song/track-").append(i).append('/').append(id).append('"')
+			.append(",\"image\":\"https://c.saavncdn.com/").append(String.format("%03x", album % 4096)).append("/Album-").append(album).append("-150x150.jpg\"")
+			.append(",\"more_info\":{\"duration\":\"").append(120 + i % 240).append('"')
+			.append(",\"album\":\"Album ").append(album).append('"')
+			.append(",\"album_url\":\"https://www.jiosaavn.com/album/album-").append(album).append('/').append(jioSaavnId(1000000 + album)).append('"')
+			.append(",\"vlink\":\"https://jiotunepreview.jio.com/content/Converted/").append(String.format("%032x", i)).append(".mp3\"")
+			.append(",\"artistMap\":{\"primary_artists\":[{\"id\":\"").append(7000 + artist).append('"')
+			.append(",\"name\":\"Artist ").append(artist).append('"')
+			.append(",\"perma_url\":\"https://www.jiosaavn.com/artist/artist-").append(artist).append('/').append(jioSaavnId(2000000 + artist)).append('"')
+			.append(",\"image\":\"https://c.saavncdn.com/artists/Artist_").append(artist).append("_150x150.jpg\"}]}}}");
+	}
+
+	/**
+	 * A LRCLIB search response with a single match, synced at one line every 4 seconds.
+	 */
+	public static String lrcLibSearch(int lines) {
+		var plain = new StringBuilder(lines * 24);
+		var synced = new StringBuilder(lines * 36);
+		for (var i = 0; i < lines; i++) {
+			plain.append("Line ").append(i).append(" of the lyrics\\n");
+			synced.append(String.format(Locale.ROOT, "[%02d:%05.2f] Line %d of the lyrics\\n", i * 4 / 60, i * 4 % 60 + 0.25, i));
+		}
+		return "[{\"id\":1,\"trackName\":\"Track\",\"artistName\":\"Artist\",\"albumName\":\"Album\",\"duration\":" + lines * 4 + ",\"instrumental\":false"
+			+ ",\"plainLyrics\":\"" + plain + "\",\"syncedLyrics\":\"" + synced + "\"}]";
+	}
+
+	/**
+	 * The {@code deezer.getUserData} response a session is created from, its sid cookie has to be set separately.
+	 */
+	public static String deezerUserData() {
+		return "{\"error\":[],\"results\":{\"checkForm\":\"" + String.format("%032x", 1) + "\",\"USER\":{\"USER_ID\":1,\"OPTIONS\":{\"license_token\":\"" + String.format("%064x", 2) + "\"}}}}";
+	}
+
+	/**
+	 * The {@code song.getData} response holding the track token a media url is requested with.
+	 */
+	public static String deezerSongData(String id, long fileSize) {
+		return "{\"error\":[],\"results\":{\"SNG_ID\":\"" + id + "\",\"TRACK_TOKEN\":\"" + String.format("%0128x", id.hashCode()) + "\""
+			+ ",\"RIGHTS\":{\"STREAM_ADS_AVAILABLE\":true,\"STREAM_SUB_AVAILABLE\":true},\"FILESIZE_MP3_128\":\"" + fileSize + "\"}}";
+	}
+
+	public static String deezerMediaUrl(String url) {
+		return "{\"data\":[{\"media\":[{\"media_type\":\"FULL\",\"cipher\":{\"type\":\"BF_CBC_STRIPE\"},\"format\":\"MP3_128\",\"sources\":[{\"url\":\"" + url + "\",\"provider\":\"ak\"}]}]}]}";
+	}
+
+	/**
+	 * Builds tracks with all extended fields set, without going through json.
+	 */
+	public static List<AudioTrack> deezerAudioTracks(DeezerAudioSourceManager sourceManager, int count) {
+		var tracks = new ArrayList<AudioTrack>(count);
+		for (var i = 0; i < count; i++) {
+			var album = i / ALBUM_SIZE;
+			var artist = album / 3;
+			var id = String.valueOf(100000000 + i);
+			tracks.add(new DeezerAudioTrack(
+				new AudioTrackInfo(
+					"Track " + i,
+					"Artist " + artist,
+					(120 + i % 240) * 1000L,
+					id,
+					false,
+					"https://deezer.com/track/" + id,
+					"https://e-cdns-images.dzcdn.net/images/cover/" + String.format("%032x", album) + "/1000x1000-000000-80-0-0.jpg",
+					"USRC1" + String.format("%07d", i)
+				),
+				"Album " + album,
+				"https://www.deezer.com/album/" + (50000 + album),
+				"https://www.deezer.com/artist/" + (1000 + artist),
+				"https://e-cdns-images.dzcdn.net/images/artist/" + String.format("%032x", artist) + "/1000x1000-000000-80-0-0.jpg",
+				"https://cdnt-preview.dzcdn.net/api/1/1/a/b/c/0/" + Integer.toHexString(i) + ".mp3",
+				false,
+				sourceManager
+			));
+		}
+		return tracks;
+	}
+
+	public static String spotifyId(int value) {
+		var alphabet = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+		var id = new char[22];
+		var n = Integer.toUnsignedLong(value * 0x9E3779B1) * 7919 + value;
+		for (var i = id.length - 1; i >= 0; i--) {
+			id[i] = alphabet.charAt((int) (n % 62));
+			n = n / 62 + i * 31L;
+		}
+		return new String(id);
+	}
+
+}
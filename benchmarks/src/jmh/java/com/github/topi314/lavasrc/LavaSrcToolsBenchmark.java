@@ -0,0 +1,54 @@
+package com.github.topi314.lavasrc;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses large api responses like {@link LavaSrcTools#fetchResponseAsJson} does once the response arrived.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LavaSrcToolsBenchmark {
+
+	@Param({"1000", "10000"})
+	public int tracks;
+
+	private HttpGet request;
+	private byte[] payload;
+
+	@Setup
+	public void setup() {
+		this.request = new HttpGet("https://api.deezer.com/playlist/1/tracks");
+		this.payload = Fixtures.deezerTracks(this.tracks).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public Object readResponseAsJson() throws IOException {
+		return LavaSrcTools.readResponseAsJson(this.request, new RecordedResponse(this.payload));
+	}
+
+	private static class RecordedResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+		private RecordedResponse(byte[] payload) {
+			super(new BasicStatusLine(HttpVersion.HTTP_1_1, 200, "OK"));
+			this.setEntity(new ByteArrayEntity(payload, ContentType.APPLICATION_JSON));
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+}
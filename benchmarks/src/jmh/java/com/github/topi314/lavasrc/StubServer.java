@@ -0,0 +1,116 @@
+package com.github.topi314.lavasrc;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Local http server which answers the requests of the sources with fixtures, so they can be load tested without network access.
+ * Point a source at it with {@link ExtendedAudioSourceManager#setBaseUrl}. The latency and error rate of every response can be configured.
+ */
+public class StubServer implements Closeable {
+
+	// sorted in reverse, so longer prefixes come before the prefixes they start with
+	private final Map<String, BiFunction<URI, String, String>> routes = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+	private final Map<String, Map<String, String>> headers = new ConcurrentHashMap<>();
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private volatile long latencyMillis;
+	private volatile double errorRate;
+
+	public StubServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.executor = Executors.newCachedThreadPool();
+		this.server.setExecutor(this.executor);
+		this.server.createContext("/", this::handle);
+		this.server.start();
+	}
+
+	/**
+	 * Answers all requests whose path starts with the prefix, the longest matching prefix wins.
+	 */
+	public StubServer route(String pathPrefix, Function<URI, String> handler) {
+		return this.route(pathPrefix, (uri, body) -> handler.apply(uri));
+	}
+
+	/**
+	 * Like {@link #route(String, Function)} for apis which select what to return by the request body, like graphql endpoints.
+	 */
+	public StubServer route(String pathPrefix, BiFunction<URI, String, String> handler) {
+		this.routes.put(pathPrefix, handler);
+		return this;
+	}
+
+	/**
+	 * Adds a header to all responses of the route registered with the prefix, like the cookies a session endpoint sets.
+	 */
+	public StubServer header(String pathPrefix, String name, String value) {
+		this.headers.computeIfAbsent(pathPrefix, prefix -> new ConcurrentHashMap<>()).put(name, value);
+		return this;
+	}
+
+	public String getBaseUrl() {
+		return "http://127.0.0.1:" + this.server.getAddress().getPort();
+	}
+
+	public void setLatency(Duration latency) {
+		this.latencyMillis = latency.toMillis();
+	}
+
+	/**
+	 * @param errorRate the share of requests between 0 and 1 which are answered with a 503
+	 */
+	public void setErrorRate(double errorRate) {
+		this.errorRate = errorRate;
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			if (this.latencyMillis > 0) {
+				Thread.sleep(this.latencyMillis);
+			}
+			if (this.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < this.errorRate) {
+				exchange.sendResponseHeaders(503, -1);
+				return;
+			}
+
+			var uri = exchange.getRequestURI();
+			var requestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+			for (var route : this.routes.entrySet()) {
+				if (uri.getPath().startsWith(route.getKey())) {
+					var body = route.getValue().apply(uri, requestBody).getBytes(StandardCharsets.UTF_8);
+					exchange.getResponseHeaders().set("Content-Type", "application/json");
+					this.headers.getOrDefault(route.getKey(), Map.of()).forEach(exchange.getResponseHeaders()::add);
+					exchange.sendResponseHeaders(200, body.length);
+					exchange.getResponseBody().write(body);
+					return;
+				}
+			}
+			exchange.sendResponseHeaders(404, -1);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void close() {
+		this.server.stop(0);
+		this.executor.shutdownNow();
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.github.topi314.lavasrc.applemusic;
+
+import com.github.topi314.lavasrc.AdaptiveRateLimiter;
+import com.github.topi314.lavasrc.Fixtures;
+import com.github.topi314.lavasrc.StubServer;
+import com.github.topi314.lavasrc.mirror.DefaultMirroringAudioTrackResolver;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads songs, playlists & searches from a {@link StubServer} standing in for the Apple Music api,
+ * measuring the throughput and latency distribution of {@link AppleMusicSourceManager#loadItem} under concurrent load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class AppleMusicLoadBenchmark {
+
+	private static final int PLAYLIST_SIZE = 300;
+
+	@Param({"0", "50"})
+	public int latencyMillis;
+
+	@Param({"0", "0.05"})
+	public double errorRate;
+
+	private StubServer server;
+	private AppleMusicSourceManager sourceManager;
+
+	@Setup
+	public void setup() throws IOException {
+		this.server = new StubServer()
+			.route("/apple/catalog/", AppleMusicLoadBenchmark::catalog);
+		this.server.setLatency(Duration.ofMillis(this.latencyMillis));
+		this.server.setErrorRate(this.errorRate);
+
+		// all stubs share one host, which would otherwise be throttled like a single upstream
+		AdaptiveRateLimiter.setEnabled(false);
+		this.sourceManager = new AppleMusicSourceManager(Fixtures.appleMusicToken(), "US", unused -> null, new DefaultMirroringAudioTrackResolver(new String[0]));
+		this.sourceManager.setBaseUrl(AppleMusicSourceManager.API_BASE, this.server.getBaseUrl() + "/apple/");
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.sourceManager.shutdown();
+		this.server.close();
+		AdaptiveRateLimiter.setEnabled(true);
+	}
+
+	@Benchmark
+	public AudioItem loadSong() {
+		return this.load("https://music.apple.com/us/song/track/" + (1000000000L + ThreadLocalRandom.current().nextInt(100000)));
+	}
+
+	@Benchmark
+	public AudioItem loadPlaylist() {
+		return this.load("https://music.apple.com/us/playlist/playlist/pl." + Integer.toHexString(ThreadLocalRandom.current().nextInt(100000)));
+	}
+
+	@Benchmark
+	public AudioItem search() {
+		return this.load("amsearch:query " + ThreadLocalRandom.current().nextInt(100000));
+	}
+
+	private AudioItem load(String identifier) {
+		try {
+			return this.sourceManager.loadItem(null, new AudioReference(identifier, null));
+		} catch (RuntimeException e) {
+			// injected errors surface as exceptions, they count as completed loads
+			return null;
+		}
+	}
+
+	private static String catalog(URI uri) {
+		// paths look like /apple/catalog/{countryCode}/{type}/...
+		var path = uri.getPath().split("/");
+		switch (path[4]) {
+			case "songs":
+				return Fixtures.appleMusicSong((int) (Long.parseLong(path[5]) - 1000000000L));
+			case "playlists":
+				return path.length > 6 ? Fixtures.appleMusicSongs(0, PLAYLIST_SIZE) : Fixtures.appleMusicPlaylist(path[5], PLAYLIST_SIZE);
+			case "artists":
+				return Fixtures.appleMusicArtists(uri.getQuery().substring("ids=".length()));
+			default:
+				return Fixtures.appleMusicSearch(25);
+		}
+	}
+
+}
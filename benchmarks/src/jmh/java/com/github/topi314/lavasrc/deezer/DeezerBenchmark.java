@@ -0,0 +1,71 @@
+package com.github.topi314.lavasrc.deezer;
+
+import com.github.topi314.lavasrc.Fixtures;
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DeezerBenchmark {
+
+	// about 4 minutes of 128kbps mp3
+	private static final int STREAM_SIZE = 4 * 1024 * 1024;
+
+	@Param({"1000", "10000"})
+	public int tracks;
+
+	private DeezerAudioSourceManager sourceManager;
+	private JsonBrowser json;
+	private byte[] stream;
+	private Cipher cipher;
+
+	@Setup
+	public void setup() throws IOException, GeneralSecurityException {
+		this.sourceManager = new DeezerAudioSourceManager(Fixtures.DEEZER_MASTER_KEY);
+		this.json = JsonBrowser.parse(Fixtures.deezerTracks(this.tracks));
+
+		this.stream = new byte[STREAM_SIZE];
+		new Random(0).nextBytes(this.stream);
+		this.cipher = Cipher.getInstance("Blowfish/CBC/NoPadding");
+		this.cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec("0123456789abcdef".getBytes(), "Blowfish"), new IvParameterSpec(new byte[]{0, 1, 2, 3, 4, 5, 6, 7}));
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.sourceManager.shutdown();
+	}
+
+	@Benchmark
+	public List<AudioTrack> parseTracks() {
+		return this.sourceManager.parseTracks(this.json, false);
+	}
+
+	/**
+	 * Reads a whole stream through {@link DeezerPersistentHttpStream.DecryptingInputStream} with the buffer size lavaplayer uses.
+	 */
+	@Benchmark
+	public long decrypt() throws IOException {
+		var buffer = new byte[4096];
+		var total = 0L;
+		try (var in = new DeezerPersistentHttpStream.DecryptingInputStream(new ByteArrayInputStream(this.stream), this.cipher, 0, 0)) {
+			int read;
+			while ((read = in.read(buffer, 0, buffer.length)) != -1) {
+				total += read;
+			}
+		}
+		return total;
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.github.topi314.lavasrc.deezer;
+
+import com.github.topi314.lavasrc.AdaptiveRateLimiter;
+import com.github.topi314.lavasrc.Fixtures;
+import com.github.topi314.lavasrc.StubServer;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads tracks, playlists & searches from a {@link StubServer} standing in for the Deezer public api,
+ * measuring the throughput and latency distribution of {@link DeezerAudioSourceManager#loadItem} under concurrent load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class DeezerLoadBenchmark {
+
+	private static final int PLAYLIST_SIZE = 1000;
+
+	@Param({"0", "50"})
+	public int latencyMillis;
+
+	@Param({"0", "0.05"})
+	public double errorRate;
+
+	private StubServer server;
+	private DeezerAudioSourceManager sourceManager;
+
+	@Setup
+	public void setup() throws IOException {
+		this.server = new StubServer()
+			.route("/deezer/track/", uri -> Fixtures.deezerTrack(lastSegment(uri.getPath())))
+			.route("/deezer/playlist/", uri -> uri.getPath().endsWith("/tracks") ? Fixtures.deezerTracks(PLAYLIST_SIZE) : Fixtures.deezerPlaylist(lastSegment(uri.getPath()), PLAYLIST_SIZE))
+			.route("/deezer/search", uri -> Fixtures.deezerTracks(25));
+		this.server.setLatency(Duration.ofMillis(this.latencyMillis));
+		this.server.setErrorRate(this.errorRate);
+
+		// all stubs share one host, which would otherwise be throttled like a single upstream
+		AdaptiveRateLimiter.setEnabled(false);
+		this.sourceManager = new DeezerAudioSourceManager(Fixtures.DEEZER_MASTER_KEY);
+		this.sourceManager.setBaseUrl(DeezerAudioSourceManager.PUBLIC_API_BASE, this.server.getBaseUrl() + "/deezer");
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.sourceManager.shutdown();
+		this.server.close();
+		AdaptiveRateLimiter.setEnabled(true);
+	}
+
+	@Benchmark
+	public AudioItem loadTrack() {
+		return this.load("https://www.deezer.com/track/" + ThreadLocalRandom.current().nextInt(100000));
+	}
+
+	@Benchmark
+	public AudioItem loadPlaylist() {
+		return this.load("https://www.deezer.com/playlist/" + ThreadLocalRandom.current().nextInt(100000));
+	}
+
+	@Benchmark
+	public AudioItem search() {
+		return this.load("dzsearch:query " + ThreadLocalRandom.current().nextInt(100000));
+	}
+
+	private AudioItem load(String identifier) {
+		try {
+			return this.sourceManager.loadItem(null, new AudioReference(identifier, null));
+		} catch (RuntimeException e) {
+			// injected errors surface as exceptions, they count as completed loads
+			return null;
+		}
+	}
+
+	private static int lastSegment(String path) {
+		return Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+	}
+
+}
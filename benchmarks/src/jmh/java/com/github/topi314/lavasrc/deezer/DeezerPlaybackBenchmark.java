@@ -0,0 +1,86 @@
+package com.github.topi314.lavasrc.deezer;
+
+import com.github.topi314.lavasrc.AdaptiveRateLimiter;
+import com.github.topi314.lavasrc.Fixtures;
+import com.github.topi314.lavasrc.StubServer;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sets up the playback of tracks against a {@link StubServer} standing in for the Deezer gateway, media & cdn servers.
+ * Every iteration does what a track start does: look up the session, fetch the track token & media url and connect to it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class DeezerPlaybackBenchmark {
+
+	private static final String ARL = "stub";
+	private static final int FILE_SIZE = 64 * 1024;
+
+	@Param({"0", "50"})
+	public int latencyMillis;
+
+	@Param({"0", "0.05"})
+	public double errorRate;
+
+	private StubServer server;
+	private DeezerAudioSourceManager sourceManager;
+	private List<AudioTrack> tracks;
+
+	@Setup
+	public void setup() throws IOException {
+		var media = "x".repeat(FILE_SIZE);
+		this.server = new StubServer()
+			.route("/deezer/gw-light.php", uri -> {
+				if (uri.getQuery().contains("method=deezer.getUserData")) {
+					return Fixtures.deezerUserData();
+				}
+				return Fixtures.deezerSongData(String.valueOf(100000000 + ThreadLocalRandom.current().nextInt(100000)), FILE_SIZE);
+			})
+			.header("/deezer/gw-light.php", "Set-Cookie", "sid=" + "f".repeat(32) + "; Path=/")
+			.route("/deezer/media/get_url", uri -> Fixtures.deezerMediaUrl(this.server.getBaseUrl() + "/deezer/cdn/" + ThreadLocalRandom.current().nextInt(100000)))
+			.route("/deezer/cdn/", uri -> media);
+		this.server.setLatency(Duration.ofMillis(this.latencyMillis));
+		this.server.setErrorRate(this.errorRate);
+
+		// all stubs share one host, which would otherwise be throttled like a single upstream
+		AdaptiveRateLimiter.setEnabled(false);
+		this.sourceManager = new DeezerAudioSourceManager(Fixtures.DEEZER_MASTER_KEY, ARL);
+		this.sourceManager.setBaseUrl(DeezerAudioSourceManager.PRIVATE_API_BASE, this.server.getBaseUrl() + "/deezer/gw-light.php");
+		this.sourceManager.setBaseUrl(DeezerAudioSourceManager.MEDIA_BASE, this.server.getBaseUrl() + "/deezer/media");
+		this.tracks = Fixtures.deezerAudioTracks(this.sourceManager, 1000);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.sourceManager.shutdown();
+		this.server.close();
+		AdaptiveRateLimiter.setEnabled(true);
+	}
+
+	@Benchmark
+	public int setupPlayback() {
+		var track = (DeezerAudioTrack) this.tracks.get(ThreadLocalRandom.current().nextInt(this.tracks.size()));
+		try (var httpInterface = this.sourceManager.getHttpInterface()) {
+			var tokens = this.sourceManager.getTokenTracker().getUserTokens(ARL);
+			var source = track.getSource(httpInterface, tokens.api, tokens.license);
+			try (var stream = new DeezerPersistentHttpStream(httpInterface, source.getUrl(), source.getContentLength(), track.getTrackDecryptionKey())) {
+				return stream.checkStatusCode();
+			}
+		} catch (IOException | URISyntaxException | NoSuchAlgorithmException | RuntimeException e) {
+			// injected errors surface as exceptions, they count as completed setups
+			return -1;
+		}
+	}
+
+}
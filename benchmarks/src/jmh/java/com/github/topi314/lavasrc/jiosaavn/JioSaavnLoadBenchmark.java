@@ -0,0 +1,96 @@
+package com.github.topi314.lavasrc.jiosaavn;
+
+import com.github.topi314.lavasrc.AdaptiveRateLimiter;
+import com.github.topi314.lavasrc.Fixtures;
+import com.github.topi314.lavasrc.StubServer;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads songs, playlists & searches from a {@link StubServer} standing in for the JioSaavn api,
+ * measuring the throughput and latency distribution of {@link JioSaavnAudioSourceManager#loadItem} under concurrent load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class JioSaavnLoadBenchmark {
+
+	private static final int PLAYLIST_SIZE = 500;
+	private static final String API_BASE = "https://www.jiosaavn.com/api.php";
+
+	@Param({"0", "50"})
+	public int latencyMillis;
+
+	@Param({"0", "0.05"})
+	public double errorRate;
+
+	private StubServer server;
+	private JioSaavnAudioSourceManager sourceManager;
+
+	@Setup
+	public void setup() throws IOException {
+		this.server = new StubServer()
+			.route("/jiosaavn/api.php", JioSaavnLoadBenchmark::api);
+		this.server.setLatency(Duration.ofMillis(this.latencyMillis));
+		this.server.setErrorRate(this.errorRate);
+
+		// all stubs share one host, which would otherwise be throttled like a single upstream
+		AdaptiveRateLimiter.setEnabled(false);
+		// the secret key is only used to decrypt media urls for playback
+		this.sourceManager = new JioSaavnAudioSourceManager(new JioSaavnAudioSourceManager.JioSaavnConfig("stub"));
+		this.sourceManager.setBaseUrl(API_BASE, this.server.getBaseUrl() + "/jiosaavn/api.php");
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.sourceManager.shutdown();
+		this.server.close();
+		AdaptiveRateLimiter.setEnabled(true);
+	}
+
+	@Benchmark
+	public AudioItem loadSong() {
+		return this.load("https://www.jiosaavn.com/song/track/" + Fixtures.jioSaavnId(ThreadLocalRandom.current().nextInt(100000)));
+	}
+
+	@Benchmark
+	public AudioItem loadPlaylist() {
+		return this.load("https://www.jiosaavn.com/featured/playlist/" + Fixtures.jioSaavnId(3000000 + ThreadLocalRandom.current().nextInt(100000)));
+	}
+
+	@Benchmark
+	public AudioItem search() {
+		return this.load("jssearch:query " + ThreadLocalRandom.current().nextInt(100000));
+	}
+
+	private AudioItem load(String identifier) {
+		try {
+			return this.sourceManager.loadItem(null, new AudioReference(identifier, null));
+		} catch (RuntimeException e) {
+			// injected errors surface as exceptions, they count as completed loads
+			return null;
+		}
+	}
+
+	private static String api(URI uri) {
+		// all endpoints share one path and are selected by the __call & type parameters
+		var query = uri.getQuery();
+		if (query.contains("__call=search.getResults")) {
+			return Fixtures.jioSaavnSearch(20);
+		}
+		var token = query.substring(query.indexOf("token=") + "token=".length(), query.indexOf("&type="));
+		if (query.contains("type=playlist")) {
+			return Fixtures.jioSaavnPlaylist(token, PLAYLIST_SIZE);
+		}
+		return Fixtures.jioSaavnSong(Math.floorMod(token.hashCode(), 100000));
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.github.topi314.lavasrc.lrclib;
+
+import com.github.topi314.lavalyrics.lyrics.AudioLyrics;
+import com.github.topi314.lavasrc.AdaptiveRateLimiter;
+import com.github.topi314.lavasrc.Fixtures;
+import com.github.topi314.lavasrc.StubServer;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads lyrics from a {@link StubServer} standing in for the LRCLIB api,
+ * measuring the throughput and latency distribution of {@link LrcLibLyricsManager#loadLyrics} under concurrent load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class LrcLibLyricsBenchmark {
+
+	private static final int LYRICS_LINES = 60;
+
+	@Param({"0", "50"})
+	public int latencyMillis;
+
+	@Param({"0", "0.05"})
+	public double errorRate;
+
+	private StubServer server;
+	private LrcLibLyricsManager lyricsManager;
+	private List<AudioTrack> tracks;
+
+	@Setup
+	public void setup() throws IOException {
+		var lyrics = Fixtures.lrcLibSearch(LYRICS_LINES);
+		this.server = new StubServer()
+			.route("/lrclib/search", uri -> lyrics);
+		this.server.setLatency(Duration.ofMillis(this.latencyMillis));
+		this.server.setErrorRate(this.errorRate);
+
+		// all stubs share one host, which would otherwise be throttled like a single upstream
+		AdaptiveRateLimiter.setEnabled(false);
+		this.lyricsManager = new LrcLibLyricsManager();
+		this.lyricsManager.setBaseUrl(LrcLibLyricsManager.API_BASE, this.server.getBaseUrl() + "/lrclib/");
+		// only the title & author of the tracks are used
+		this.tracks = Fixtures.deezerAudioTracks(null, 1000);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.lyricsManager.shutdown();
+		this.server.close();
+		AdaptiveRateLimiter.setEnabled(true);
+	}
+
+	@Benchmark
+	public AudioLyrics loadLyrics() {
+		try {
+			return this.lyricsManager.loadLyrics(this.tracks.get(ThreadLocalRandom.current().nextInt(this.tracks.size())));
+		} catch (RuntimeException e) {
+			// injected errors surface as exceptions, they count as completed loads
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.github.topi314.lavasrc.qobuz;
+
+import com.github.topi314.lavasrc.AdaptiveRateLimiter;
+import com.github.topi314.lavasrc.Fixtures;
+import com.github.topi314.lavasrc.StubServer;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads tracks, playlists & searches from a {@link StubServer} standing in for the Qobuz api,
+ * measuring the throughput and latency distribution of {@link QobuzAudioSourceManager#loadItem} under concurrent load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class QobuzLoadBenchmark {
+
+	private static final int PLAYLIST_SIZE = 500;
+
+	@Param({"0", "50"})
+	public int latencyMillis;
+
+	@Param({"0", "0.05"})
+	public double errorRate;
+
+	private StubServer server;
+	private QobuzAudioSourceManager sourceManager;
+
+	@Setup
+	public void setup() throws IOException {
+		this.server = new StubServer()
+			.route("/qobuz/track/get", uri -> Fixtures.qobuzTrack(queryId(uri) - 300000000))
+			.route("/qobuz/playlist/get", uri -> Fixtures.qobuzPlaylist(queryId(uri), PLAYLIST_SIZE))
+			.route("/qobuz/catalog/search", uri -> Fixtures.qobuzSearch(15));
+		this.server.setLatency(Duration.ofMillis(this.latencyMillis));
+		this.server.setErrorRate(this.errorRate);
+
+		// all stubs share one host, which would otherwise be throttled like a single upstream
+		AdaptiveRateLimiter.setEnabled(false);
+		// passing the app id & secret skips scraping them from the web player
+		this.sourceManager = new QobuzAudioSourceManager("stub", "100000000", "stub");
+		this.sourceManager.setBaseUrl(QobuzAudioSourceManager.API_URL, this.server.getBaseUrl() + "/qobuz/");
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.sourceManager.shutdown();
+		this.server.close();
+		AdaptiveRateLimiter.setEnabled(true);
+	}
+
+	@Benchmark
+	public AudioItem loadTrack() {
+		return this.load("https://open.qobuz.com/track/" + (300000000 + ThreadLocalRandom.current().nextInt(100000)));
+	}
+
+	@Benchmark
+	public AudioItem loadPlaylist() {
+		return this.load("https://open.qobuz.com/playlist/" + ThreadLocalRandom.current().nextInt(1000));
+	}
+
+	@Benchmark
+	public AudioItem search() {
+		return this.load("qbsearch:query " + ThreadLocalRandom.current().nextInt(100000));
+	}
+
+	private AudioItem load(String identifier) {
+		try {
+			return this.sourceManager.loadItem(null, new AudioReference(identifier, null));
+		} catch (RuntimeException e) {
+			// injected errors surface as exceptions, they count as completed loads
+			return null;
+		}
+	}
+
+	private static int queryId(URI uri) {
+		// the id is always the first query parameter, like track_id=1 or playlist_id=1
+		var query = uri.getQuery();
+		var end = query.indexOf('&');
+		return Integer.parseInt(query.substring(query.indexOf('=') + 1, end == -1 ? query.length() : end));
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.github.topi314.lavasrc.spotify;
+
+import com.github.topi314.lavasrc.Fixtures;
+import com.github.topi314.lavasrc.mirror.DefaultMirroringAudioTrackResolver;
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpotifyBenchmark {
+
+	// hex encoded, like the secrets extracted from the web player
+	private static final String TOTP_SECRET = "3536313336333837353338343539393338383333313233313039313139393238343731313234343839343130323130353131323937313038";
+
+	@Param({"1000", "10000"})
+	public int tracks;
+
+	private SpotifySourceManager sourceManager;
+	private JsonBrowser json;
+
+	@Setup
+	public void setup() throws IOException {
+		// without the partner api no isrc backfill requests are made while parsing
+		this.sourceManager = new SpotifySourceManager(null, null, false, null, null, "US", null, new DefaultMirroringAudioTrackResolver(new String[0]));
+		this.json = JsonBrowser.parse(Fixtures.spotifyTracks(this.tracks));
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.sourceManager.shutdown();
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public List<AudioTrack> parseTracks() {
+		return this.sourceManager.parseTracks(this.json, false);
+	}
+
+	@Benchmark
+	public String generateTOTP() {
+		return SpotifyTokenTracker.generateTOTP(TOTP_SECRET, 30, 6);
+	}
+
+	@Benchmark
+	public String spotifyIdToHex() {
+		return SpotifyPartnerApiClient.spotifyIdToHex("4uLU6hMCjMI75M1A2tKUQC");
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.github.topi314.lavasrc.spotify;
+
+import com.github.topi314.lavasrc.AdaptiveRateLimiter;
+import com.github.topi314.lavasrc.Fixtures;
+import com.github.topi314.lavasrc.StubServer;
+import com.github.topi314.lavasrc.mirror.DefaultMirroringAudioTrackResolver;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads tracks & searches from a {@link StubServer} standing in for the Spotify v1 api and token endpoint,
+ * measuring the throughput and latency distribution of {@link SpotifySourceManager#loadItem} under concurrent load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class SpotifyLoadBenchmark {
+
+	@Param({"0", "50"})
+	public int latencyMillis;
+
+	@Param({"0", "0.05"})
+	public double errorRate;
+
+	private StubServer server;
+	private SpotifySourceManager sourceManager;
+
+	@Setup
+	public void setup() throws IOException {
+		this.server = new StubServer()
+			.route("/spotify/token", uri -> "{\"accessToken\":\"stub\",\"accessTokenExpirationTimestampMs\":" + (System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)) + "}")
+			.route("/spotify/v1/tracks/", uri -> Fixtures.spotifyTrack(Math.floorMod(uri.getPath().hashCode(), 100000)))
+			.route("/spotify/v1/artists", uri -> uri.getPath().endsWith("/artists") ? "{\"artists\":[" + Fixtures.spotifyArtist(0) + "]}" : Fixtures.spotifyArtist(0))
+			.route("/spotify/v1/search", uri -> Fixtures.spotifySearch(10));
+		this.server.setLatency(Duration.ofMillis(this.latencyMillis));
+		this.server.setErrorRate(this.errorRate);
+
+		// all stubs share one host, which would otherwise be throttled like a single upstream
+		AdaptiveRateLimiter.setEnabled(false);
+		this.sourceManager = new SpotifySourceManager(null, null, false, this.server.getBaseUrl() + "/spotify/token", null, "US", null, new DefaultMirroringAudioTrackResolver(new String[0]));
+		this.sourceManager.setBaseUrl(SpotifySourceManager.API_BASE, this.server.getBaseUrl() + "/spotify/v1/");
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.sourceManager.shutdown();
+		this.server.close();
+		AdaptiveRateLimiter.setEnabled(true);
+	}
+
+	@Benchmark
+	public AudioItem loadTrack() {
+		return this.load("https://open.spotify.com/track/" + Fixtures.spotifyId(ThreadLocalRandom.current().nextInt(100000)));
+	}
+
+	@Benchmark
+	public AudioItem search() {
+		return this.load("spsearch:query " + ThreadLocalRandom.current().nextInt(100000));
+	}
+
+	private AudioItem load(String identifier) {
+		try {
+			return this.sourceManager.loadItem(null, new AudioReference(identifier, null));
+		} catch (RuntimeException e) {
+			// injected errors surface as exceptions, they count as completed loads
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,117 @@
+package com.github.topi314.lavasrc.spotify;
+
+import com.github.topi314.lavasrc.AdaptiveRateLimiter;
+import com.github.topi314.lavasrc.Fixtures;
+import com.github.topi314.lavasrc.StubServer;
+import com.github.topi314.lavasrc.mirror.DefaultMirroringAudioTrackResolver;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads searches & playlists from a {@link StubServer} standing in for the Spotify partner (pathfinder) api and spclient,
+ * including the ISRC backfill of the partner tracks. The same loads run with 1, 4 and 16 threads,
+ * with added latency the throughput should grow with the thread count as long as nothing serializes the loads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SpotifyPartnerLoadBenchmark {
+
+	private static final int PLAYLIST_SIZE = 100;
+
+	@Param({"0", "50"})
+	public int latencyMillis;
+
+	private StubServer server;
+	private SpotifySourceManager sourceManager;
+
+	@Setup
+	public void setup() throws IOException {
+		this.server = new StubServer()
+			.route("/spotify/token", uri -> "{\"accessToken\":\"stub\",\"accessTokenExpirationTimestampMs\":" + (System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)) + "}")
+			.route("/spotify/pathfinder", (uri, body) -> {
+				if (body.contains("\"fetchPlaylist\"")) {
+					return Fixtures.spotifyPartnerPlaylist(Math.floorMod(body.hashCode(), 1000), PLAYLIST_SIZE);
+				}
+				return Fixtures.spotifyPartnerSearch(10);
+			})
+			.route("/spotify/spclient/metadata/4/track/", uri -> {
+				var path = uri.getPath();
+				return Fixtures.spotifySpClientTrack(path.substring(path.lastIndexOf('/') + 1));
+			});
+		this.server.setLatency(Duration.ofMillis(this.latencyMillis));
+
+		// all stubs share one host, which would otherwise be throttled like a single upstream
+		AdaptiveRateLimiter.setEnabled(false);
+		this.sourceManager = new SpotifySourceManager(null, null, true, this.server.getBaseUrl() + "/spotify/token", null, "US", null, new DefaultMirroringAudioTrackResolver(new String[0]));
+		this.sourceManager.setBaseUrl(SpotifyPartnerApiClient.PARTNER_API_BASE, this.server.getBaseUrl() + "/spotify/pathfinder");
+		this.sourceManager.setBaseUrl(SpotifyPartnerApiClient.CLIENT_API_BASE, this.server.getBaseUrl() + "/spotify/spclient/");
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.sourceManager.shutdown();
+		this.server.close();
+		AdaptiveRateLimiter.setEnabled(true);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public AudioItem search1() {
+		return this.search();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public AudioItem search4() {
+		return this.search();
+	}
+
+	@Benchmark
+	@Threads(16)
+	public AudioItem search16() {
+		return this.search();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public AudioItem loadPlaylist1() {
+		return this.loadPlaylist();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public AudioItem loadPlaylist4() {
+		return this.loadPlaylist();
+	}
+
+	@Benchmark
+	@Threads(16)
+	public AudioItem loadPlaylist16() {
+		return this.loadPlaylist();
+	}
+
+	private AudioItem search() {
+		// distinct queries so neither the item cache nor request coalescing answers them
+		return this.load("spsearch:query " + ThreadLocalRandom.current().nextLong());
+	}
+
+	private AudioItem loadPlaylist() {
+		return this.load("https://open.spotify.com/playlist/" + Fixtures.spotifyId(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE)));
+	}
+
+	private AudioItem load(String identifier) {
+		try {
+			return this.sourceManager.loadItem(null, new AudioReference(identifier, null));
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+}
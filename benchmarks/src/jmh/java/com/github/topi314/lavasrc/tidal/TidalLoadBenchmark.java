@@ -0,0 +1,93 @@
+package com.github.topi314.lavasrc.tidal;
+
+import com.github.topi314.lavasrc.AdaptiveRateLimiter;
+import com.github.topi314.lavasrc.Fixtures;
+import com.github.topi314.lavasrc.StubServer;
+import com.github.topi314.lavasrc.mirror.DefaultMirroringAudioTrackResolver;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads tracks, playlists & searches from a {@link StubServer} standing in for the Tidal api,
+ * measuring the throughput and latency distribution of {@link TidalSourceManager#loadItem} under concurrent load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class TidalLoadBenchmark {
+
+	private static final int PLAYLIST_SIZE = 750;
+
+	@Param({"0", "50"})
+	public int latencyMillis;
+
+	@Param({"0", "0.05"})
+	public double errorRate;
+
+	private StubServer server;
+	private TidalSourceManager sourceManager;
+
+	@Setup
+	public void setup() throws IOException {
+		this.server = new StubServer()
+			.route("/tidal/tracks/", uri -> Fixtures.tidalTrack(lastSegment(uri.getPath()) - 200000000))
+			.route("/tidal/playlists/", uri -> {
+				var path = uri.getPath();
+				if (path.endsWith("/tracks")) {
+					return Fixtures.tidalPlaylistTracks(PLAYLIST_SIZE);
+				}
+				return Fixtures.tidalPlaylist(path.substring(path.lastIndexOf('/') + 1), PLAYLIST_SIZE);
+			})
+			.route("/tidal/search", uri -> Fixtures.tidalSearch(6));
+		this.server.setLatency(Duration.ofMillis(this.latencyMillis));
+		this.server.setErrorRate(this.errorRate);
+
+		// all stubs share one host, which would otherwise be throttled like a single upstream
+		AdaptiveRateLimiter.setEnabled(false);
+		this.sourceManager = new TidalSourceManager("US", unused -> null, new DefaultMirroringAudioTrackResolver(new String[0]), "stub");
+		this.sourceManager.setBaseUrl(TidalSourceManager.PUBLIC_API_BASE, this.server.getBaseUrl() + "/tidal/");
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.sourceManager.shutdown();
+		this.server.close();
+		AdaptiveRateLimiter.setEnabled(true);
+	}
+
+	@Benchmark
+	public AudioItem loadTrack() {
+		return this.load("https://tidal.com/browse/track/" + (200000000 + ThreadLocalRandom.current().nextInt(100000)));
+	}
+
+	@Benchmark
+	public AudioItem loadPlaylist() {
+		return this.load("https://tidal.com/browse/playlist/" + Fixtures.tidalUuid(ThreadLocalRandom.current().nextInt(100000)));
+	}
+
+	@Benchmark
+	public AudioItem search() {
+		return this.load("tdsearch:query " + ThreadLocalRandom.current().nextInt(100000));
+	}
+
+	private AudioItem load(String identifier) {
+		try {
+			return this.sourceManager.loadItem(null, new AudioReference(identifier, null));
+		} catch (RuntimeException e) {
+			// injected errors surface as exceptions, they count as completed loads
+			return null;
+		}
+	}
+
+	private static int lastSegment(String path) {
+		return Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.github.topi314.lavasrc.vkmusic;
+
+import com.github.topi314.lavasrc.AdaptiveRateLimiter;
+import com.github.topi314.lavasrc.Fixtures;
+import com.github.topi314.lavasrc.StubServer;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads tracks, playlists & searches from a {@link StubServer} standing in for the VK api,
+ * measuring the throughput and latency distribution of {@link VkMusicSourceManager#loadItem} under concurrent load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class VkMusicLoadBenchmark {
+
+	private static final int PLAYLIST_SIZE = 500;
+
+	@Param({"0", "50"})
+	public int latencyMillis;
+
+	@Param({"0", "0.05"})
+	public double errorRate;
+
+	private StubServer server;
+	private VkMusicSourceManager sourceManager;
+
+	@Setup
+	public void setup() throws IOException {
+		// every api method is its own path, the longest matching one is picked so audio.get does not shadow the others
+		this.server = new StubServer()
+			.route("/vk/audio.getById", uri -> Fixtures.vkTrack(ThreadLocalRandom.current().nextInt(100000)))
+			.route("/vk/audio.getPlaylistById", uri -> Fixtures.vkPlaylist(ThreadLocalRandom.current().nextInt(1000)))
+			.route("/vk/audio.get", uri -> Fixtures.vkTracks(0, PLAYLIST_SIZE))
+			.route("/vk/audio.search", uri -> Fixtures.vkTracks(0, 30));
+		this.server.setLatency(Duration.ofMillis(this.latencyMillis));
+		this.server.setErrorRate(this.errorRate);
+
+		// all stubs share one host, which would otherwise be throttled like a single upstream
+		AdaptiveRateLimiter.setEnabled(false);
+		this.sourceManager = new VkMusicSourceManager("stub");
+		this.sourceManager.setPlaylistLoadLimit(PLAYLIST_SIZE / 50);
+		this.sourceManager.setBaseUrl(VkMusicSourceManager.PUBLIC_API_BASE, this.server.getBaseUrl() + "/vk/");
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.sourceManager.shutdown();
+		this.server.close();
+		AdaptiveRateLimiter.setEnabled(true);
+	}
+
+	@Benchmark
+	public AudioItem loadTrack() {
+		return this.load("https://vk.com/audio-2000000_" + (456239000 + ThreadLocalRandom.current().nextInt(100000)));
+	}
+
+	@Benchmark
+	public AudioItem loadPlaylist() {
+		return this.load("https://vk.com/music/playlist/-2000000_" + ThreadLocalRandom.current().nextInt(100000));
+	}
+
+	@Benchmark
+	public AudioItem search() {
+		return this.load("vksearch:query " + ThreadLocalRandom.current().nextInt(100000));
+	}
+
+	private AudioItem load(String identifier) {
+		try {
+			return this.sourceManager.loadItem(null, new AudioReference(identifier, null));
+		} catch (RuntimeException e) {
+			// injected errors surface as exceptions, they count as completed loads
+			return null;
+		}
+	}
+
+}
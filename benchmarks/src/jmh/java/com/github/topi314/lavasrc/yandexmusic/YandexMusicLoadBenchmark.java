@@ -0,0 +1,87 @@
+package com.github.topi314.lavasrc.yandexmusic;
+
+import com.github.topi314.lavasrc.AdaptiveRateLimiter;
+import com.github.topi314.lavasrc.Fixtures;
+import com.github.topi314.lavasrc.StubServer;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads tracks, playlists & searches from a {@link StubServer} standing in for the Yandex Music api,
+ * measuring the throughput and latency distribution of {@link YandexMusicSourceManager#loadItem} under concurrent load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class YandexMusicLoadBenchmark {
+
+	private static final int PLAYLIST_SIZE = 500;
+
+	@Param({"0", "50"})
+	public int latencyMillis;
+
+	@Param({"0", "0.05"})
+	public double errorRate;
+
+	private StubServer server;
+	private YandexMusicSourceManager sourceManager;
+
+	@Setup
+	public void setup() throws IOException {
+		this.server = new StubServer()
+			.route("/yandex/tracks/", uri -> Fixtures.yandexTrack(lastSegment(uri.getPath()) - 400000))
+			.route("/yandex/users/", uri -> Fixtures.yandexPlaylist(lastSegment(uri.getPath()), PLAYLIST_SIZE))
+			.route("/yandex/search", uri -> Fixtures.yandexSearch(20));
+		this.server.setLatency(Duration.ofMillis(this.latencyMillis));
+		this.server.setErrorRate(this.errorRate);
+
+		// all stubs share one host, which would otherwise be throttled like a single upstream
+		AdaptiveRateLimiter.setEnabled(false);
+		this.sourceManager = new YandexMusicSourceManager("stub");
+		this.sourceManager.setPlaylistLoadLimit(PLAYLIST_SIZE / YandexMusicSourceManager.PLAYLIST_MAX_PAGE_ITEMS);
+		this.sourceManager.setBaseUrl(YandexMusicSourceManager.PUBLIC_API_BASE, this.server.getBaseUrl() + "/yandex");
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.sourceManager.shutdown();
+		this.server.close();
+		AdaptiveRateLimiter.setEnabled(true);
+	}
+
+	@Benchmark
+	public AudioItem loadTrack() {
+		return this.load("https://music.yandex.ru/track/" + (400000 + ThreadLocalRandom.current().nextInt(100000)));
+	}
+
+	@Benchmark
+	public AudioItem loadPlaylist() {
+		return this.load("https://music.yandex.ru/users/owner/playlists/" + (1000 + ThreadLocalRandom.current().nextInt(1000)));
+	}
+
+	@Benchmark
+	public AudioItem search() {
+		return this.load("ymsearch:query " + ThreadLocalRandom.current().nextInt(100000));
+	}
+
+	private AudioItem load(String identifier) {
+		try {
+			return this.sourceManager.loadItem(null, new AudioReference(identifier, null));
+		} catch (RuntimeException e) {
+			// injected errors surface as exceptions, they count as completed loads
+			return null;
+		}
+	}
+
+	private static int lastSegment(String path) {
+		return Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+	}
+
+}
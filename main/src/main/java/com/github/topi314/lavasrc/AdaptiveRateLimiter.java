@@ -0,0 +1,260 @@
+package com.github.topi314.lavasrc;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.utils.DateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A token bucket rate limiter for a single host which adapts its rate to the server (AIMD).
+ * The rate is halved and requests are paused for the announced time whenever the server responds with 429 or reports an exhausted quota,
+ * and it slowly grows back to the maximum rate with every successful request.
+ * <p>
+ * Limiters are shared per host via {@link #forHost(String)} and used by {@link LavaSrcTools#fetchResponseAsJson}.
+ */
+public class AdaptiveRateLimiter {
+
+	public static final double DEFAULT_MAX_REQUESTS_PER_SECOND = 50;
+	public static final double DEFAULT_MIN_REQUESTS_PER_SECOND = 0.5;
+	public static final long DEFAULT_MAX_WAIT_MS = TimeUnit.SECONDS.toMillis(10);
+
+	// rate added per successful request
+	private static final double ADDITIVE_INCREASE = 0.1;
+	private static final double MULTIPLICATIVE_DECREASE = 0.5;
+	// used when a 429 response has no usable Retry-After header
+	private static final long DEFAULT_RETRY_AFTER_MS = TimeUnit.SECONDS.toMillis(1);
+	private static final long MAX_BLOCK_MS = TimeUnit.MINUTES.toMillis(5);
+
+	private static final Logger log = LoggerFactory.getLogger(AdaptiveRateLimiter.class);
+	private static final Map<String, AdaptiveRateLimiter> limiters = new ConcurrentHashMap<>();
+
+	private static volatile boolean enabled = true;
+	private static volatile double maxRequestsPerSecond = DEFAULT_MAX_REQUESTS_PER_SECOND;
+	private static volatile double minRequestsPerSecond = DEFAULT_MIN_REQUESTS_PER_SECOND;
+	private static volatile long maxWaitMs = DEFAULT_MAX_WAIT_MS;
+
+	private final String host;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final AtomicLong rateLimited = new AtomicLong();
+	private double rate;
+	private double storedPermits;
+	private long nextFreeNanos;
+	private long blockedUntilNanos;
+
+	private AdaptiveRateLimiter(String host) {
+		this.host = host;
+		this.rate = maxRequestsPerSecond;
+		this.storedPermits = maxRequestsPerSecond;
+		this.nextFreeNanos = System.nanoTime();
+		this.blockedUntilNanos = this.nextFreeNanos;
+	}
+
+	public static AdaptiveRateLimiter forHost(String host) {
+		return limiters.computeIfAbsent(host, AdaptiveRateLimiter::new);
+	}
+
+	public static Map<String, AdaptiveRateLimiter> getLimiters() {
+		return Map.copyOf(limiters);
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void setEnabled(boolean enabled) {
+		AdaptiveRateLimiter.enabled = enabled;
+	}
+
+	/**
+	 * Sets the rate every limiter starts with and recovers to, in requests per second and host.
+	 */
+	public static void setMaxRequestsPerSecond(double maxRequestsPerSecond) {
+		AdaptiveRateLimiter.maxRequestsPerSecond = maxRequestsPerSecond;
+	}
+
+	/**
+	 * Sets the rate limiters never go below, no matter how often the server rate limits.
+	 */
+	public static void setMinRequestsPerSecond(double minRequestsPerSecond) {
+		AdaptiveRateLimiter.minRequestsPerSecond = minRequestsPerSecond;
+	}
+
+	/**
+	 * Sets how long a request may be queued at most before it fails instead.
+	 */
+	public static void setMaxWait(long maxWaitMs) {
+		AdaptiveRateLimiter.maxWaitMs = maxWaitMs;
+	}
+
+	public static long getMaxWait() {
+		return maxWaitMs;
+	}
+
+	/**
+	 * Waits for a permit.
+	 *
+	 * @return false if no permit would be available within the max wait time, nothing is reserved in that case
+	 */
+	public boolean acquire() throws InterruptedException {
+		if (!enabled) {
+			return true;
+		}
+		long waitNanos;
+		this.lock.lock();
+		try {
+			var now = System.nanoTime();
+			this.resync(now);
+			var start = Math.max(this.nextFreeNanos, this.blockedUntilNanos);
+			waitNanos = Math.max(0, start - now);
+			if (waitNanos > TimeUnit.MILLISECONDS.toNanos(maxWaitMs)) {
+				return false;
+			}
+			var spent = Math.min(1, this.storedPermits);
+			this.storedPermits -= spent;
+			this.nextFreeNanos = start + (long) ((1 - spent) * TimeUnit.SECONDS.toNanos(1) / this.rate);
+		} finally {
+			this.lock.unlock();
+		}
+		if (waitNanos > 0) {
+			TimeUnit.NANOSECONDS.sleep(waitNanos);
+		}
+		return true;
+	}
+
+	/**
+	 * Updates the limiter from a response, reading the {@code Retry-After} and {@code X-RateLimit-*} headers.
+	 *
+	 * @return the time in milliseconds after which a rate limited request may be retried, or -1 if the request was not rate limited
+	 */
+	public long onResponse(HttpResponse response) {
+		var statusCode = response.getStatusLine().getStatusCode();
+		if (statusCode == 429) {
+			var retryAfter = parseRetryAfter(response);
+			this.onRateLimited(retryAfter < 0 ? DEFAULT_RETRY_AFTER_MS : retryAfter);
+			return retryAfter < 0 ? DEFAULT_RETRY_AFTER_MS : retryAfter;
+		}
+
+		var remaining = response.getFirstHeader("X-RateLimit-Remaining");
+		if (remaining != null && remaining.getValue().trim().equals("0")) {
+			var reset = parseRateLimitReset(response);
+			if (reset > 0) {
+				this.block(reset);
+			}
+		}
+
+		this.lock.lock();
+		try {
+			this.rate = Math.min(maxRequestsPerSecond, this.rate + ADDITIVE_INCREASE);
+		} finally {
+			this.lock.unlock();
+		}
+		return -1;
+	}
+
+	private void onRateLimited(long retryAfterMs) {
+		this.rateLimited.incrementAndGet();
+		this.lock.lock();
+		try {
+			this.rate = Math.max(minRequestsPerSecond, this.rate * MULTIPLICATIVE_DECREASE);
+			this.storedPermits = 0;
+		} finally {
+			this.lock.unlock();
+		}
+		this.block(retryAfterMs);
+		log.warn("Rate limited by {}, pausing requests for {}ms and lowering rate to {} requests per second", this.host, retryAfterMs, String.format("%.2f", this.getRate()));
+	}
+
+	private void block(long ms) {
+		var until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.min(ms, MAX_BLOCK_MS));
+		this.lock.lock();
+		try {
+			this.blockedUntilNanos = Math.max(this.blockedUntilNanos, until);
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void resync(long now) {
+		if (now > this.nextFreeNanos) {
+			var newPermits = (now - this.nextFreeNanos) * this.rate / TimeUnit.SECONDS.toNanos(1);
+			this.storedPermits = Math.min(maxRequestsPerSecond, this.storedPermits + newPermits);
+			this.nextFreeNanos = now;
+		}
+	}
+
+	private static long parseRetryAfter(HttpResponse response) {
+		var header = response.getFirstHeader("Retry-After");
+		if (header == null) {
+			return -1;
+		}
+		var value = header.getValue().trim();
+		try {
+			return TimeUnit.SECONDS.toMillis(Long.parseLong(value));
+		} catch (NumberFormatException ignored) {
+		}
+		var date = DateUtils.parseDate(value);
+		if (date == null) {
+			return -1;
+		}
+		return Math.max(0, date.getTime() - System.currentTimeMillis());
+	}
+
+	private static long parseRateLimitReset(HttpResponse response) {
+		var header = response.getFirstHeader("X-RateLimit-Reset");
+		if (header == null) {
+			return -1;
+		}
+		try {
+			var value = Double.parseDouble(header.getValue().trim());
+			// some apis send an epoch timestamp, others the seconds until the reset
+			if (value > 1_000_000_000) {
+				return Math.max(0, (long) (value * 1000) - System.currentTimeMillis());
+			}
+			return (long) (value * 1000);
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	public String getHost() {
+		return this.host;
+	}
+
+	/**
+	 * The current rate in requests per second.
+	 */
+	public double getRate() {
+		this.lock.lock();
+		try {
+			return this.rate;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * The time in milliseconds requests are still paused for after the server rate limited them.
+	 */
+	public long getBlockedFor() {
+		this.lock.lock();
+		try {
+			return Math.max(0, TimeUnit.NANOSECONDS.toMillis(this.blockedUntilNanos - System.nanoTime()));
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * The number of responses which were rate limited by the server.
+	 */
+	public long getRateLimited() {
+		return this.rateLimited.get();
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.github.topi314.lavasrc;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redirects the requests of a source from one of its base urls, like {@code DeezerAudioSourceManager.PUBLIC_API_BASE}, to another one.
+ * This allows running sources against a local stub server, e.g. for load tests.
+ */
+public class BaseUrls {
+
+	private final Map<String, String> overrides = new ConcurrentHashMap<>();
+
+	public void set(String baseUrl, @Nullable String override) {
+		if (override == null || override.equals(baseUrl)) {
+			this.overrides.remove(baseUrl);
+		} else {
+			this.overrides.put(baseUrl, override);
+		}
+	}
+
+	public Map<String, String> get() {
+		return Map.copyOf(this.overrides);
+	}
+
+	/**
+	 * @return the url with its base url replaced if it starts with an overridden one, otherwise the url itself.
+	 * If several overridden base urls match, like {@code https://api.example.com/} and {@code https://api.example.com/v2/}, the longest one is used
+	 */
+	public String resolve(String url) {
+		if (this.overrides.isEmpty()) {
+			return url;
+		}
+		Map.Entry<String, String> match = null;
+		for (var override : this.overrides.entrySet()) {
+			if (url.startsWith(override.getKey()) && (match == null || override.getKey().length() > match.getKey().length())) {
+				match = override;
+			}
+		}
+		return match == null ? url : match.getValue() + url.substring(match.getKey().length());
+	}
+
+}
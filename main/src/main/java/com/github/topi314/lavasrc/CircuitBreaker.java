@@ -0,0 +1,142 @@
+package com.github.topi314.lavasrc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stops calling an endpoint which keeps failing so callers can go straight to their fallback.
+ * The breaker opens after {@code failureThreshold} consecutive failures. While it is open one call per {@code retryDelay}
+ * is let through as a probe, the breaker closes again once a call succeeds.
+ * <pre>{@code
+ * if (breaker.tryAcquire()) {
+ *     try {
+ *         var result = load();
+ *         breaker.onSuccess();
+ *         return result;
+ *     } catch (IOException e) {
+ *         breaker.onFailure();
+ *     }
+ * }
+ * return fallback();
+ * }</pre>
+ */
+public class CircuitBreaker {
+
+	public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+	public static final Duration DEFAULT_RETRY_DELAY = Duration.ofSeconds(30);
+
+	private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+	private final String name;
+	private final ReentrantLock lock = new ReentrantLock();
+	private volatile int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+	private volatile long retryDelay = DEFAULT_RETRY_DELAY.toMillis();
+	private volatile State state = State.CLOSED;
+	private volatile int failures;
+	private long nextProbeAt;
+
+	public CircuitBreaker(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return whether the call should be made, {@code false} if the breaker is open and it is not time for a probe yet
+	 */
+	public boolean tryAcquire() {
+		if (this.state == State.CLOSED) {
+			return true;
+		}
+		this.lock.lock();
+		try {
+			if (this.state == State.CLOSED) {
+				return true;
+			}
+			var now = System.currentTimeMillis();
+			// a probe which never reported back does not keep the breaker half open forever
+			if (now < this.nextProbeAt) {
+				LavaSrcMetrics.circuitBreakerRejected(this.name);
+				return false;
+			}
+			this.nextProbeAt = now + this.retryDelay;
+			this.setState(State.HALF_OPEN);
+			return true;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	public void onSuccess() {
+		if (this.state == State.CLOSED && this.failures == 0) {
+			return;
+		}
+		this.lock.lock();
+		try {
+			this.failures = 0;
+			if (this.state != State.CLOSED) {
+				log.info("{} recovered, closing circuit breaker", this.name);
+				this.setState(State.CLOSED);
+			}
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * @return whether the breaker was closed when the call failed. Failed probes return {@code false},
+	 * so callers can skip logging failures they already know about
+	 */
+	public boolean onFailure() {
+		this.lock.lock();
+		try {
+			if (this.state != State.CLOSED) {
+				this.nextProbeAt = System.currentTimeMillis() + this.retryDelay;
+				this.setState(State.OPEN);
+				return false;
+			}
+			if (++this.failures >= this.failureThreshold) {
+				log.warn("{} failed {} times in a row, opening circuit breaker for {}ms", this.name, this.failures, this.retryDelay);
+				this.nextProbeAt = System.currentTimeMillis() + this.retryDelay;
+				this.setState(State.OPEN);
+			}
+			return true;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	public void setFailureThreshold(int failureThreshold) {
+		if (failureThreshold <= 0) {
+			throw new IllegalArgumentException("failureThreshold must be greater than 0");
+		}
+		this.failureThreshold = failureThreshold;
+	}
+
+	public void setRetryDelay(Duration retryDelay) {
+		this.retryDelay = retryDelay.toMillis();
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public State getState() {
+		return this.state;
+	}
+
+	private void setState(State state) {
+		if (this.state != state) {
+			this.state = state;
+			LavaSrcMetrics.circuitBreakerState(this.name, state);
+		}
+	}
+
+	public enum State {
+		CLOSED,
+		OPEN,
+		HALF_OPEN
+	}
+
+}
@@ -0,0 +1,161 @@
+package com.github.topi314.lavasrc;
+
+import com.sedmelluq.discord.lavaplayer.tools.DaemonThreadFactory;
+import com.sedmelluq.discord.lavaplayer.tools.ExecutorTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fetches the pages of a paginated API concurrently once their offsets are known and returns them in order.
+ * The concurrency is shared by all loads of the fetcher, so concurrent playlist loads don't multiply the number of requests in flight.
+ * Once a page is rate limited the remaining pages of the load are fetched one after another on the calling thread,
+ * pages which failed while fetched concurrently are retried there as well.
+ */
+public class ConcurrentPageFetcher {
+
+	public static final int DEFAULT_CONCURRENCY = 4;
+
+	private static final Logger log = LoggerFactory.getLogger(ConcurrentPageFetcher.class);
+
+	private final ExecutorService executor;
+	private final ResizableSemaphore permits;
+	private final ReentrantLock concurrencyLock = new ReentrantLock();
+	private volatile int concurrency;
+
+	public ConcurrentPageFetcher(String name) {
+		this(name, DEFAULT_CONCURRENCY);
+	}
+
+	public ConcurrentPageFetcher(String name, int concurrency) {
+		this.concurrency = Math.max(1, concurrency);
+		this.permits = new ResizableSemaphore(this.concurrency);
+		// the permits bound the number of running pages, so the executor itself doesn't need a limit
+		if (LavaSrcExecutors.isVirtualThreads()) {
+			this.executor = LavaSrcExecutors.newBlockingExecutor("lavasrc-" + name + "-pages", this.concurrency);
+		} else {
+			this.executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+				new DaemonThreadFactory("lavasrc-" + name + "-pages"));
+		}
+	}
+
+	public void setConcurrency(int concurrency) {
+		concurrency = Math.max(1, concurrency);
+		this.concurrencyLock.lock();
+		try {
+			var difference = concurrency - this.concurrency;
+			if (difference > 0) {
+				this.permits.release(difference);
+			} else if (difference < 0) {
+				this.permits.reducePermits(-difference);
+			}
+			this.concurrency = concurrency;
+		} finally {
+			this.concurrencyLock.unlock();
+		}
+	}
+
+	/**
+	 * Loads the pages at the given offsets, at most {@code concurrency} at a time across all loads of this fetcher.
+	 *
+	 * @return the loaded pages in the order of the given offsets
+	 */
+	public <T> List<T> fetch(List<Integer> offsets, PageLoader<T> loader) throws IOException {
+		var pages = new ArrayList<T>(offsets.size());
+		if (offsets.size() <= 1 || this.concurrency == 1) {
+			for (var offset : offsets) {
+				pages.add(loader.load(offset));
+			}
+			return pages;
+		}
+
+		var rateLimited = new AtomicBoolean();
+		var futures = new ArrayList<CompletableFuture<T>>(offsets.size());
+		try {
+			for (var offset : offsets) {
+				this.permits.acquire();
+				if (rateLimited.get()) {
+					this.permits.release();
+					break;
+				}
+				var future = new CompletableFuture<T>();
+				futures.add(future);
+				this.executor.execute(() -> {
+					try {
+						future.complete(loader.load(offset));
+					} catch (Throwable e) {
+						if (e instanceof RateLimitedException) {
+							rateLimited.set(true);
+						}
+						future.completeExceptionally(e);
+					} finally {
+						this.permits.release();
+					}
+				});
+			}
+
+			for (var i = 0; i < offsets.size(); i++) {
+				if (i >= futures.size()) {
+					// not started because a page was rate limited
+					pages.add(loader.load(offsets.get(i)));
+					continue;
+				}
+				try {
+					pages.add(futures.get(i).get());
+				} catch (ExecutionException e) {
+					log.debug("Concurrent fetch of page at offset {} failed, retrying sequentially", offsets.get(i), e.getCause());
+					pages.add(loader.load(offsets.get(i)));
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			for (var future : futures) {
+				future.cancel(true);
+			}
+			throw new IOException("Interrupted while fetching pages", e);
+		}
+		return pages;
+	}
+
+	/**
+	 * Returns the offsets of all pages after the first one, limited to {@code pageLimit} pages in total.
+	 */
+	public static List<Integer> remainingOffsets(long total, int pageSize, int pageLimit) {
+		var offsets = new ArrayList<Integer>();
+		for (var offset = pageSize; offset < total && offsets.size() + 1 < pageLimit; offset += pageSize) {
+			offsets.add(offset);
+		}
+		return offsets;
+	}
+
+	public void shutdown() {
+		ExecutorTools.shutdownExecutor(this.executor, "page fetcher");
+	}
+
+	@FunctionalInterface
+	public interface PageLoader<T> {
+		T load(int offset) throws IOException;
+	}
+
+	private static class ResizableSemaphore extends Semaphore {
+
+		private static final long serialVersionUID = 1L;
+
+		private ResizableSemaphore(int permits) {
+			super(permits, true);
+		}
+
+		@Override
+		protected void reducePermits(int reduction) {
+			super.reducePermits(reduction);
+		}
+
+	}
+
+}
@@ -1,25 +1,183 @@
 package com.github.topi314.lavasrc;
 
+import com.github.topi314.lavasrc.cache.AudioItemCache;
+import com.github.topi314.lavasrc.cache.AudioItemCodec;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.source.AudioSourceManager;
 import com.sedmelluq.discord.lavaplayer.tools.DataFormatTools;
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
 
 public abstract class ExtendedAudioSourceManager implements AudioSourceManager {
 
+	// Legacy tracks start with a boolean (0 or 1), so the version doubles as the format marker
+	private static final int ENCODING_VERSION = 2;
+	// bits 0-4 mark the presence of the album name, album url, artist url, artist artwork url & preview url
+	private static final int FLAG_PREVIEW = 1 << 5;
+	private static final int FLAG_STRING_TABLE = 1 << 6;
+
+	// query parameters which only track where a link was shared from
+	private static final Pattern TRACKING_PARAMETERS = Pattern.compile("(?<=[?&])(si|utm_[a-z]+)=[^&#]*&?");
+	private static final Logger log = LoggerFactory.getLogger(ExtendedAudioSourceManager.class);
+
+	protected final BaseUrls baseUrls = new BaseUrls();
+	@Nullable
+	protected volatile AudioItemCache itemCache;
+
+	/**
+	 * Sends all requests to urls starting with the base url to the override instead, see {@link BaseUrls}.
+	 *
+	 * @param baseUrl  one of the {@code *_BASE} constants of the source
+	 * @param override the url to use instead or {@code null} to reset it
+	 */
+	public void setBaseUrl(String baseUrl, @Nullable String override) {
+		this.baseUrls.set(baseUrl, override);
+	}
+
+	public String resolveUrl(String url) {
+		return this.baseUrls.resolve(url);
+	}
+
+	public void setItemCache(@Nullable AudioItemCache itemCache) {
+		this.itemCache = itemCache;
+	}
+
+	@Nullable
+	public AudioItemCache getItemCache() {
+		return this.itemCache;
+	}
+
+	/**
+	 * Looks up the item for the identifier in the {@link #setItemCache item cache} and calls the loader on a miss.
+	 * Loaded tracks and playlists are added to the cache, nothing else is.
+	 * Sources only call this once the identifier matched one of their url patterns or prefixes,
+	 * so identifiers meant for other sources never cost a cache lookup.
+	 */
+	protected AudioItem loadItemCached(@Nullable AudioPlayerManager manager, String identifier, ItemLoader loader) throws IOException {
+		var cache = this.itemCache;
+		// tracks can only be encoded through a player manager
+		if (cache == null || manager == null) {
+			return loader.load();
+		}
+
+		var key = this.getSourceName() + ":" + normalizeIdentifier(identifier);
+		var entry = cache.get(key);
+		if (entry != null) {
+			try {
+				var item = AudioItemCodec.decode(manager, entry);
+				if (item != null) {
+					return item;
+				}
+			} catch (Exception e) {
+				log.debug("Failed to decode cached item for {}", key, e);
+			}
+			cache.invalidate(key);
+		}
+
+		var item = loader.load();
+		if (item instanceof AudioTrack || item instanceof AudioPlaylist) {
+			try {
+				var encoded = AudioItemCodec.encode(manager, item);
+				if (encoded != null) {
+					cache.put(key, encoded);
+				}
+			} catch (Exception e) {
+				log.debug("Failed to encode item for {}, not caching it", key, e);
+			}
+		}
+		return item;
+	}
+
+	/**
+	 * Convenience wrapper which runs the blocking {@link #loadItem} on the shared loader pool of {@link LavaSrcExecutors} instead of the calling thread.
+	 * The load still blocks a pool thread until it is done: with platform threads at most {@link LavaSrcExecutors#getLoadThreads()} loads run at once
+	 * and up to {@link LavaSrcExecutors#LOAD_QUEUE_SIZE} wait, further loads fail right away. Cancelling the future interrupts the load.
+	 */
+	public CompletableFuture<AudioItem> loadItemAsync(AudioPlayerManager manager, AudioReference reference) {
+		var future = new CompletableFuture<AudioItem>();
+		Future<?> task;
+		try {
+			task = LavaSrcExecutors.getLoadExecutor().submit(() -> {
+				try {
+					future.complete(this.loadItem(manager, reference));
+				} catch (Throwable e) {
+					future.completeExceptionally(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(new FriendlyException("Too many items are being loaded, try again later.", FriendlyException.Severity.COMMON, e));
+			return future;
+		}
+		future.whenComplete((item, throwable) -> {
+			if (future.isCancelled()) {
+				task.cancel(true);
+			}
+		});
+		return future;
+	}
+
+	private static String normalizeIdentifier(String identifier) {
+		identifier = identifier.trim();
+		if (!identifier.startsWith("http://") && !identifier.startsWith("https://")) {
+			return identifier.replaceAll("\\s+", " ");
+		}
+		var fragment = identifier.indexOf('#');
+		if (fragment != -1) {
+			identifier = identifier.substring(0, fragment);
+		}
+		identifier = TRACKING_PARAMETERS.matcher(identifier).replaceAll("");
+		if (identifier.endsWith("?") || identifier.endsWith("&")) {
+			identifier = identifier.substring(0, identifier.length() - 1);
+		}
+		return identifier;
+	}
+
 	@Override
 	public void encodeTrack(AudioTrack track, DataOutput output) throws IOException {
 		var extendedTrack = (ExtendedAudioTrack) track;
-		DataFormatTools.writeNullableText(output, extendedTrack.getAlbumName());
-		DataFormatTools.writeNullableText(output, extendedTrack.getAlbumUrl());
-		DataFormatTools.writeNullableText(output, extendedTrack.getArtistUrl());
-		DataFormatTools.writeNullableText(output, extendedTrack.getArtistArtworkUrl());
-		DataFormatTools.writeNullableText(output, extendedTrack.getPreviewUrl());
-		output.writeBoolean(extendedTrack.isPreview());
+		var fields = new String[]{extendedTrack.getAlbumName(), extendedTrack.getAlbumUrl(), extendedTrack.getArtistUrl(), extendedTrack.getArtistArtworkUrl(), extendedTrack.getPreviewUrl()};
+		var strings = StringTable.current();
+
+		var flags = 0;
+		for (var i = 0; i < fields.length; i++) {
+			if (fields[i] != null) {
+				flags |= 1 << i;
+			}
+		}
+		if (extendedTrack.isPreview()) {
+			flags |= FLAG_PREVIEW;
+		}
+		if (strings != null) {
+			flags |= FLAG_STRING_TABLE;
+		}
+
+		output.writeByte(ENCODING_VERSION);
+		output.writeByte(flags);
+		for (var field : fields) {
+			if (field == null) {
+				continue;
+			}
+			if (strings != null) {
+				strings.write(output, field);
+			} else {
+				output.writeUTF(field);
+			}
+		}
 	}
 
 	@Override
@@ -28,25 +186,48 @@ public abstract class ExtendedAudioSourceManager implements AudioSourceManager {
 	}
 
 	protected ExtendedAudioTrackInfo decodeTrack(DataInput input) throws IOException {
-		String albumName = null;
-		String albumUrl = null;
-		String artistUrl = null;
-		String artistArtworkUrl = null;
-		String previewUrl = null;
-		boolean isPreview = false;
-		// Check if the input has more than 8 bytes available, which would indicate that the preview field is present.
-		// This is done to avoid breaking backwards compatibility with tracks that were saved before the preview field was added.
-		if (((DataInputStream) input).available() > Long.BYTES) {
-			albumName = DataFormatTools.readNullableText(input);
-			albumUrl = DataFormatTools.readNullableText(input);
-			artistUrl = DataFormatTools.readNullableText(input);
-			artistArtworkUrl = DataFormatTools.readNullableText(input);
-			previewUrl = DataFormatTools.readNullableText(input);
-			isPreview = input.readBoolean();
+		// Tracks encoded before the extended fields were added directly continue with the 8 byte track position written by lavaplayer.
+		// This has to be checked before reading anything, otherwise lavaplayer can't read the position anymore.
+		if (input instanceof DataInputStream && ((DataInputStream) input).available() <= Long.BYTES) {
+			return new ExtendedAudioTrackInfo(null, null, null, null, null, false);
+		}
+		var version = input.readUnsignedByte();
+		if (version == ENCODING_VERSION) {
+			var flags = input.readUnsignedByte();
+			var strings = StringTable.current();
+			if ((flags & FLAG_STRING_TABLE) != 0 && strings == null) {
+				throw new IOException("Track was encoded with a string table, but none is open");
+			}
+			var fields = new String[5];
+			for (var i = 0; i < fields.length; i++) {
+				if ((flags & (1 << i)) == 0) {
+					continue;
+				}
+				fields[i] = (flags & FLAG_STRING_TABLE) != 0 ? strings.read(input) : input.readUTF();
+			}
+			return new ExtendedAudioTrackInfo(fields[0], fields[1], fields[3], fields[4], fields[2], (flags & FLAG_PREVIEW) != 0);
 		}
+		return decodeLegacyTrack(input, version);
+	}
+
+	/**
+	 * Decodes tracks encoded before the versioned format, which start with the nullable album name (0 or 1).
+	 */
+	private static ExtendedAudioTrackInfo decodeLegacyTrack(DataInput input, int albumNamePresent) throws IOException {
+		var albumName = albumNamePresent != 0 ? input.readUTF() : null;
+		var albumUrl = DataFormatTools.readNullableText(input);
+		var artistUrl = DataFormatTools.readNullableText(input);
+		var artistArtworkUrl = DataFormatTools.readNullableText(input);
+		var previewUrl = DataFormatTools.readNullableText(input);
+		var isPreview = input.readBoolean();
 		return new ExtendedAudioTrackInfo(albumName, albumUrl, artistArtworkUrl, previewUrl, artistUrl, isPreview);
 	}
 
+	@FunctionalInterface
+	protected interface ItemLoader {
+		AudioItem load() throws IOException;
+	}
+
 	protected static class ExtendedAudioTrackInfo {
 		public final String albumName;
 		public final String albumUrl;
@@ -2,6 +2,9 @@ package com.github.topi314.lavasrc;
 
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
 import com.sedmelluq.discord.lavaplayer.track.DelegatedAudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.InternalAudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.playback.AudioTrackExecutor;
+import com.sedmelluq.discord.lavaplayer.track.playback.LocalAudioTrackExecutor;
 import org.jetbrains.annotations.Nullable;
 
 public abstract class ExtendedAudioTrack extends DelegatedAudioTrack {
@@ -17,6 +20,8 @@ public abstract class ExtendedAudioTrack extends DelegatedAudioTrack {
 	@Nullable
 	protected final String previewUrl;
 	protected final boolean isPreview;
+	// when the track was started, reset once its playback setup has been reported
+	private volatile long playbackStart;
 
 	public ExtendedAudioTrack(AudioTrackInfo trackInfo, @Nullable String albumName, @Nullable String albumUrl, @Nullable String artistUrl, @Nullable String artistArtworkUrl, @Nullable String previewUrl, boolean isPreview) {
 		super(trackInfo);
@@ -57,4 +62,20 @@ public abstract class ExtendedAudioTrack extends DelegatedAudioTrack {
 		return this.isPreview;
 	}
 
+	@Override
+	public void assignExecutor(AudioTrackExecutor executor, boolean applyPrimitives) {
+		this.playbackStart = System.nanoTime();
+		super.assignExecutor(executor, applyPrimitives);
+	}
+
+	@Override
+	protected void processDelegate(InternalAudioTrack delegate, LocalAudioTrackExecutor localExecutor) throws Exception {
+		var start = this.playbackStart;
+		if (start != 0 && this.getSourceManager() != null) {
+			this.playbackStart = 0;
+			LavaSrcMetrics.playbackSetup(this.getSourceManager().getSourceName(), start);
+		}
+		super.processDelegate(delegate, localExecutor);
+	}
+
 }
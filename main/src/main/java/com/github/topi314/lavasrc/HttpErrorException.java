@@ -0,0 +1,33 @@
+package com.github.topi314.lavasrc;
+
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Thrown when a server responded with an error status, carries the status code and the start of the response body
+ * so callers can tell apart errors which need special handling.
+ */
+public class HttpErrorException extends FriendlyException {
+
+	private static final long serialVersionUID = 5329711804392640613L;
+
+	private final int statusCode;
+	@Nullable
+	private final String body;
+
+	public HttpErrorException(String message, int statusCode, @Nullable String body, Throwable cause) {
+		super(message, Severity.SUSPICIOUS, cause);
+		this.statusCode = statusCode;
+		this.body = body;
+	}
+
+	public int getStatusCode() {
+		return this.statusCode;
+	}
+
+	@Nullable
+	public String getBody() {
+		return this.body;
+	}
+
+}
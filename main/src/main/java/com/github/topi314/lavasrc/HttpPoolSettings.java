@@ -0,0 +1,159 @@
+package com.github.topi314.lavasrc;
+
+import com.sedmelluq.discord.lavaplayer.tools.http.ExtendedHttpClientBuilder;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpConfigurable;
+import org.apache.http.HttpConnection;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpCoreContext;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connection pool settings applied to the http clients of sources via {@link HttpConfigurable#configureBuilder}.
+ * Every configured source keeps its own pool, statistics about it are collected per source name.
+ */
+public class HttpPoolSettings {
+
+	// the limits lavaplayer uses for its own pools
+	public static final int DEFAULT_MAX_CONNECTIONS_TOTAL = 3000;
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 1500;
+
+	private int maxConnectionsTotal = DEFAULT_MAX_CONNECTIONS_TOTAL;
+	private int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+	@Nullable
+	private Duration keepAlive;
+	@Nullable
+	private Duration idleTimeout;
+	@Nullable
+	private Duration connectionTimeToLive;
+
+	private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+	public void setMaxConnectionsTotal(int maxConnectionsTotal) {
+		this.maxConnectionsTotal = maxConnectionsTotal;
+	}
+
+	public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+		this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+	}
+
+	/**
+	 * Sets how long idle connections are kept alive at most, servers asking for a shorter time are honored.
+	 */
+	public void setKeepAlive(@Nullable Duration keepAlive) {
+		this.keepAlive = keepAlive;
+	}
+
+	/**
+	 * Sets after how long idle connections are closed by a background evictor. {@code null} disables eviction.
+	 */
+	public void setIdleTimeout(@Nullable Duration idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Sets the maximum lifetime of a pooled connection. {@code null} keeps connections as long as they are reusable.
+	 */
+	public void setConnectionTimeToLive(@Nullable Duration connectionTimeToLive) {
+		this.connectionTimeToLive = connectionTimeToLive;
+	}
+
+	/**
+	 * Applies these settings to the http client of the given source. The client is rebuilt with the new pool on its next use.
+	 */
+	public void configure(String name, HttpConfigurable httpConfigurable) {
+		var stats = this.stats.computeIfAbsent(name, k -> new Stats());
+		var maxTotal = this.maxConnectionsTotal;
+		var maxPerRoute = this.maxConnectionsPerRoute;
+		var timeToLive = this.connectionTimeToLive;
+		var keepAlive = this.keepAlive;
+		var idleTimeout = this.idleTimeout;
+
+		httpConfigurable.configureBuilder(builder -> {
+			if (builder instanceof ExtendedHttpClientBuilder) {
+				((ExtendedHttpClientBuilder) builder).setConnectionManagerFactory((operator, connectionFactory) -> {
+					var manager = new PoolingHttpClientConnectionManager(operator, connectionFactory, timeToLive == null ? -1 : timeToLive.toMillis(), TimeUnit.MILLISECONDS);
+					manager.setMaxTotal(maxTotal);
+					manager.setDefaultMaxPerRoute(maxPerRoute);
+					stats.pool = manager;
+					return manager;
+				});
+			} else {
+				builder.setMaxConnTotal(maxTotal);
+				builder.setMaxConnPerRoute(maxPerRoute);
+				if (timeToLive != null) {
+					builder.setConnectionTimeToLive(timeToLive.toMillis(), TimeUnit.MILLISECONDS);
+				}
+			}
+
+			if (keepAlive != null) {
+				builder.setKeepAliveStrategy((response, context) -> {
+					var serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+					return serverKeepAlive < 0 ? keepAlive.toMillis() : Math.min(serverKeepAlive, keepAlive.toMillis());
+				});
+			}
+			if (idleTimeout != null) {
+				builder.evictExpiredConnections();
+				builder.evictIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+			}
+
+			builder.addInterceptorLast((HttpResponseInterceptor) (response, context) -> {
+				stats.requests.incrementAndGet();
+				var connection = context.getAttribute(HttpCoreContext.HTTP_CONNECTION);
+				if (connection instanceof HttpConnection && ((HttpConnection) connection).getMetrics().getRequestCount() > 1) {
+					stats.reusedConnections.incrementAndGet();
+				}
+			});
+		});
+	}
+
+	public Map<String, Stats> getStats() {
+		return Map.copyOf(this.stats);
+	}
+
+	public static class Stats {
+		private final AtomicLong requests = new AtomicLong();
+		private final AtomicLong reusedConnections = new AtomicLong();
+		@Nullable
+		private volatile PoolingHttpClientConnectionManager pool;
+
+		public long getRequests() {
+			return this.requests.get();
+		}
+
+		/**
+		 * The number of requests which were sent over an already used connection.
+		 */
+		public long getReusedConnections() {
+			return this.reusedConnections.get();
+		}
+
+		public int getLeasedConnections() {
+			var pool = this.pool;
+			return pool == null ? 0 : pool.getTotalStats().getLeased();
+		}
+
+		public int getAvailableConnections() {
+			var pool = this.pool;
+			return pool == null ? 0 : pool.getTotalStats().getAvailable();
+		}
+
+		public int getPendingConnections() {
+			var pool = this.pool;
+			return pool == null ? 0 : pool.getTotalStats().getPending();
+		}
+
+		public int getMaxConnections() {
+			var pool = this.pool;
+			return pool == null ? 0 : pool.getTotalStats().getMax();
+		}
+	}
+
+}
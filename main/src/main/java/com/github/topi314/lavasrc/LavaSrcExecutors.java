@@ -0,0 +1,223 @@
+package com.github.topi314.lavasrc;
+
+import com.sedmelluq.discord.lavaplayer.tools.DaemonThreadFactory;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared executors for blocking work of the sources which should not run on lavaplayer's thread pools.
+ * <p>
+ * With {@link #setVirtualThreads(boolean)} enabled (JDK 21+) the executors start a virtual thread per task instead of using a bounded pool,
+ * and the pools created with {@link #newThreadFactory(String)} run on virtual threads. This covers {@link ExtendedAudioSourceManager#loadItemAsync},
+ * page fetches, the Spotify ISRC backfill, mirror pre-resolution & the mirror lookups of tracks starting playback and background token refreshes.
+ * A track's {@code process()} itself runs on lavaplayer's playback thread, which waits for the mirror lookup and runs yt-dlp for yt-dlp tracks,
+ * as it needs their result to start streaming.
+ * The virtual thread api is looked up at runtime, on older JDKs the platform pools are used.
+ */
+public class LavaSrcExecutors {
+
+	private static final Logger log = LoggerFactory.getLogger(LavaSrcExecutors.class);
+
+	public static final int DEFAULT_LOAD_THREADS = 32;
+	// loads waiting for a free platform thread, further loads are rejected instead of piling up without limit
+	public static final int LOAD_QUEUE_SIZE = 1024;
+
+	@Nullable
+	private static final Method ofVirtual = findMethod(Thread.class, "ofVirtual");
+	@Nullable
+	private static final Method isVirtual = findMethod(Thread.class, "isVirtual");
+	@Nullable
+	private static final Method newThreadPerTaskExecutor = findMethod(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+
+	private static final ReentrantLock lock = new ReentrantLock();
+	private static volatile ExecutorService loadExecutor;
+	private static volatile boolean virtualThreads;
+	private static int loadThreads = DEFAULT_LOAD_THREADS;
+
+	/**
+	 * The executor {@link ExtendedAudioSourceManager#loadItemAsync} runs its loads on. Its threads time out when idle.
+	 * With platform threads up to {@link #LOAD_QUEUE_SIZE} loads wait for a free thread, further loads are rejected with a {@link java.util.concurrent.RejectedExecutionException}.
+	 */
+	public static ExecutorService getLoadExecutor() {
+		var executor = loadExecutor;
+		if (executor != null) {
+			return executor;
+		}
+		lock.lock();
+		try {
+			if (loadExecutor == null) {
+				loadExecutor = newBlockingExecutor("lavasrc-loader", loadThreads, LOAD_QUEUE_SIZE);
+			}
+			return loadExecutor;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Creates an executor for blocking tasks. In virtual thread mode every task gets its own virtual thread,
+	 * otherwise a pool of up to {@code threads} daemon threads which time out when idle is used.
+	 */
+	public static ExecutorService newBlockingExecutor(String name, int threads) {
+		return newBlockingExecutor(name, threads, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Like {@link #newBlockingExecutor(String, int)}, but the platform pool rejects tasks with a {@link java.util.concurrent.RejectedExecutionException}
+	 * once {@code queueSize} tasks are waiting for a free thread. Virtual threads start every task right away, so nothing is queued.
+	 */
+	public static ExecutorService newBlockingExecutor(String name, int threads, int queueSize) {
+		if (virtualThreads) {
+			try {
+				return (ExecutorService) newThreadPerTaskExecutor.invoke(null, newVirtualThreadFactory(name));
+			} catch (ReflectiveOperationException e) {
+				log.warn("Failed to create virtual thread executor for {}, falling back to platform threads", name, e);
+			}
+		}
+		var executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueSize), new DaemonThreadFactory(name));
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Creates a thread factory for pools which need their own size & queue limits, like the mirror pre-resolver.
+	 * In virtual thread mode it creates virtual threads, so the pool keeps its limits while its threads don't block a carrier thread on I/O.
+	 */
+	public static ThreadFactory newThreadFactory(String name) {
+		if (virtualThreads) {
+			try {
+				return newVirtualThreadFactory(name);
+			} catch (ReflectiveOperationException e) {
+				log.warn("Failed to create virtual thread factory for {}, falling back to platform threads", name, e);
+			}
+		}
+		return new DaemonThreadFactory(name);
+	}
+
+	/**
+	 * Waits for the process to exit. Virtual threads wait on {@link Process#onExit()} so they unmount from their carrier thread
+	 * instead of blocking it in {@link Process#waitFor()}.
+	 */
+	public static int waitFor(Process process) throws IOException, InterruptedException {
+		if (!isVirtualThread()) {
+			return process.waitFor();
+		}
+		try {
+			return process.onExit().get().exitValue();
+		} catch (ExecutionException e) {
+			throw new IOException("Failed to wait for process", e.getCause());
+		}
+	}
+
+	public static boolean isVirtualThreadsSupported() {
+		return ofVirtual != null && isVirtual != null && newThreadPerTaskExecutor != null;
+	}
+
+	/**
+	 * Runs new loads on virtual threads. Has no effect if the JDK does not support them.
+	 * Loads already submitted to the previous load executor still complete on it.
+	 *
+	 * @return whether virtual threads are used
+	 */
+	public static boolean setVirtualThreads(boolean enabled) {
+		if (enabled && !isVirtualThreadsSupported()) {
+			log.warn("Virtual threads require JDK 21 or newer, running on {}. Continuing with platform threads", Runtime.version());
+			enabled = false;
+		}
+		lock.lock();
+		try {
+			if (virtualThreads == enabled) {
+				return enabled;
+			}
+			virtualThreads = enabled;
+			var executor = loadExecutor;
+			loadExecutor = null;
+			if (executor != null) {
+				executor.shutdown();
+			}
+			return enabled;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public static boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+
+	/**
+	 * Sets the number of platform threads loads run on. Virtual threads are not limited.
+	 */
+	public static void setLoadThreads(int threads) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("threads must be greater than 0");
+		}
+		lock.lock();
+		try {
+			loadThreads = threads;
+			if (!(loadExecutor instanceof ThreadPoolExecutor)) {
+				return;
+			}
+			var executor = (ThreadPoolExecutor) loadExecutor;
+			// the core size may never exceed the maximum size
+			if (threads > executor.getMaximumPoolSize()) {
+				executor.setMaximumPoolSize(threads);
+				executor.setCorePoolSize(threads);
+			} else {
+				executor.setCorePoolSize(threads);
+				executor.setMaximumPoolSize(threads);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public static int getLoadThreads() {
+		lock.lock();
+		try {
+			return loadThreads;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private static boolean isVirtualThread() {
+		if (isVirtual == null) {
+			return false;
+		}
+		try {
+			return (boolean) isVirtual.invoke(Thread.currentThread());
+		} catch (ReflectiveOperationException e) {
+			return false;
+		}
+	}
+
+	private static ThreadFactory newVirtualThreadFactory(String name) throws ReflectiveOperationException {
+		var builder = ofVirtual.invoke(null);
+		var builderClass = Class.forName("java.lang.Thread$Builder");
+		builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+		return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+	}
+
+	@Nullable
+	private static Method findMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+		try {
+			return clazz.getMethod(name, parameterTypes);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+}
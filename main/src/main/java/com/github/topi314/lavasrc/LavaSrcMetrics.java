@@ -0,0 +1,148 @@
+package com.github.topi314.lavasrc;
+
+import org.apache.http.client.methods.HttpUriRequest;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URI;
+import java.util.Set;
+
+/**
+ * Reports request, token refresh, mirror resolution & playback setup timings and circuit breaker states of the sources to a {@link Listener},
+ * e.g. one exporting them to Prometheus. Nothing is measured while no listener is set.
+ */
+public class LavaSrcMetrics {
+
+	// query parameters which select the endpoint of rpc style apis like Deezer's gw-light.php or JioSaavn's api.php
+	private static final Set<String> ENDPOINT_PARAMETERS = Set.of("method", "__call");
+	// the literal path segments of the endpoints the sources call, every other segment is an id, login, country code or token
+	private static final Set<String> ENDPOINT_SEGMENTS = Set.of(
+		// versions & api roots
+		"2.0", "0.2", "v1", "v2", "4", "api", "api.json", "api.php", "ajax", "gw-light.php", "method", "pathfinder", "query",
+		// resources
+		"track", "tracks", "album", "albums", "artist", "artists", "playlist", "playlists", "song", "songs", "users", "mixes", "items",
+		"catalog", "search", "autocomplete", "suggestions", "suggest", "dynamic", "view", "top", "top-songs", "top-tracks", "recommendations",
+		"similar", "lyrics", "color-lyrics", "with-tracks", "metadata", "inspiredby-mix", "seed_to_playlist",
+		// actions
+		"get", "page", "getFileUrl", "get_url", "download-info", "token", "login", "tts",
+		// vk api methods
+		"audio.get", "audio.getById", "audio.getPlaylistById", "audio.getAudiosByArtist", "audio.getArtistById", "audio.getLyrics",
+		"audio.getRecommendations", "audio.search", "audio.searchAlbums", "audio.searchArtists", "audio.searchPlaylists"
+	);
+
+	@Nullable
+	private static volatile Listener listener;
+
+	public static void setListener(@Nullable Listener listener) {
+		LavaSrcMetrics.listener = listener;
+	}
+
+	@Nullable
+	public static Listener getListener() {
+		return listener;
+	}
+
+	/**
+	 * @param status the response status or -1 if the request failed without a response
+	 */
+	public static void request(HttpUriRequest request, int status, long startNanos) {
+		var listener = LavaSrcMetrics.listener;
+		if (listener == null) {
+			return;
+		}
+		var uri = request.getURI();
+		listener.onRequest(uri.getHost() == null ? "unknown" : uri.getHost(), getEndpoint(uri), status, System.nanoTime() - startNanos);
+	}
+
+	public static void tokenRefresh(String source, String token, boolean success, long startNanos) {
+		var listener = LavaSrcMetrics.listener;
+		if (listener != null) {
+			listener.onTokenRefresh(source, token, success, System.nanoTime() - startNanos);
+		}
+	}
+
+	public static void mirrorResolve(String provider, boolean found, long startNanos) {
+		var listener = LavaSrcMetrics.listener;
+		if (listener != null) {
+			listener.onMirrorResolve(provider, found, System.nanoTime() - startNanos);
+		}
+	}
+
+	/**
+	 * Reports the time from the start of {@code process()} until the audio stream of a track is handed to its decoder.
+	 */
+	public static void playbackSetup(String source, long startNanos) {
+		var listener = LavaSrcMetrics.listener;
+		if (listener != null) {
+			listener.onPlaybackSetup(source, System.nanoTime() - startNanos);
+		}
+	}
+
+	public static void circuitBreakerState(String name, CircuitBreaker.State state) {
+		var listener = LavaSrcMetrics.listener;
+		if (listener != null) {
+			listener.onCircuitBreakerState(name, state);
+		}
+	}
+
+	/**
+	 * Reports a call which was not made because the circuit breaker was open.
+	 */
+	public static void circuitBreakerRejected(String name) {
+		var listener = LavaSrcMetrics.listener;
+		if (listener != null) {
+			listener.onCircuitBreakerRejected(name);
+		}
+	}
+
+	/**
+	 * Turns the url into a low cardinality endpoint name by replacing all path segments which are not part of a known endpoint with {@code {id}}.
+	 * User supplied segments like Yandex logins or Apple Music {@code pl.u-} playlist ids can look like anything, so they are never matched by their shape.
+	 */
+	static String getEndpoint(URI uri) {
+		var endpoint = new StringBuilder();
+		var path = uri.getRawPath();
+		if (path != null) {
+			for (var segment : path.split("/")) {
+				if (segment.isEmpty()) {
+					continue;
+				}
+				endpoint.append('/').append(ENDPOINT_SEGMENTS.contains(segment) ? segment : "{id}");
+			}
+		}
+		if (endpoint.length() == 0) {
+			endpoint.append('/');
+		}
+
+		var query = uri.getRawQuery();
+		if (query != null) {
+			for (var parameter : query.split("&")) {
+				var separator = parameter.indexOf('=');
+				if (separator != -1 && ENDPOINT_PARAMETERS.contains(parameter.substring(0, separator))) {
+					endpoint.append('?').append(parameter);
+					break;
+				}
+			}
+		}
+		return endpoint.toString();
+	}
+
+	public interface Listener {
+
+		/**
+		 * @param status the response status or -1 if the request failed without a response
+		 */
+		void onRequest(String host, String endpoint, int status, long durationNanos);
+
+		void onTokenRefresh(String source, String token, boolean success, long durationNanos);
+
+		void onMirrorResolve(String provider, boolean found, long durationNanos);
+
+		void onPlaybackSetup(String source, long durationNanos);
+
+		void onCircuitBreakerState(String name, CircuitBreaker.State state);
+
+		void onCircuitBreakerRejected(String name);
+
+	}
+
+}
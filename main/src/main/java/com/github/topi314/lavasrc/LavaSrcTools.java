@@ -1,6 +1,5 @@
 package com.github.topi314.lavasrc;
 
-import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
@@ -13,36 +12,104 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 
-import static com.sedmelluq.discord.lavaplayer.tools.FriendlyException.Severity.SUSPICIOUS;
-
 public class LavaSrcTools {
 
 	private static final Logger log = LoggerFactory.getLogger(LavaSrcTools.class);
+	// Maximum amount of characters of a response body that is written to the log
+	private static final int MAX_LOGGED_BODY_LENGTH = 4096;
+	// How often a request is retried after the server responded with 429
+	private static final int MAX_RATE_LIMIT_RETRIES = 2;
 
 	@Nullable
 	public static JsonBrowser fetchResponseAsJson(HttpInterface httpInterface, HttpUriRequest request) throws IOException {
-		try (CloseableHttpResponse response = httpInterface.execute(request)) {
-			int statusCode = response.getStatusLine().getStatusCode();
-
-			if (statusCode == HttpStatus.SC_NOT_FOUND) {
-				var data = IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8);
-				log.error("Server responded with not found to '{}': {}", request.getURI(), data);
-				return null;
-			} else if (statusCode == HttpStatus.SC_NO_CONTENT) {
-				log.error("Server responded with not content to '{}'", request.getURI());
-				return null;
-			} else if (!HttpClientTools.isSuccessWithContent(statusCode)) {
-				var data = IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8);
-				log.error("Server responded with an error to '{}': {}", request.getURI(), data);
-				throw new FriendlyException("Server responded with an error.", SUSPICIOUS,
-					new IllegalStateException("Response code from channel info is " + statusCode));
+		var host = request.getURI().getHost();
+		var rateLimiter = host == null ? null : AdaptiveRateLimiter.forHost(host);
+		for (var attempt = 0; ; attempt++) {
+			acquire(rateLimiter, request);
+			var start = System.nanoTime();
+			var status = -1;
+			try (CloseableHttpResponse response = httpInterface.execute(request)) {
+				status = response.getStatusLine().getStatusCode();
+				var retryAfter = rateLimiter == null ? -1 : rateLimiter.onResponse(response);
+				if (retryAfter >= 0 && attempt < MAX_RATE_LIMIT_RETRIES && retryAfter <= AdaptiveRateLimiter.getMaxWait()) {
+					// the rate limiter holds back this retry until the server accepts requests again
+					continue;
+				}
+				return readResponseAsJson(request, response);
+			} finally {
+				LavaSrcMetrics.request(request, status, start);
 			}
+		}
+	}
 
+	private static void acquire(@Nullable AdaptiveRateLimiter rateLimiter, HttpUriRequest request) throws IOException {
+		if (rateLimiter == null) {
+			return;
+		}
+		try {
+			if (!rateLimiter.acquire()) {
+				throw new RateLimitedException("Too many requests, try again later.",
+					new IllegalStateException("Rate limit wait for " + rateLimiter.getHost() + " exceeded while requesting '" + request.getURI() + "'"));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for rate limit", e);
+		}
+	}
+
+	@Nullable
+	static JsonBrowser readResponseAsJson(HttpUriRequest request, CloseableHttpResponse response) throws IOException {
+		int statusCode = response.getStatusLine().getStatusCode();
+
+		if (statusCode == HttpStatus.SC_NOT_FOUND) {
+			log.error("Server responded with not found to '{}': {}", request.getURI(), readLoggableBody(response));
+			return null;
+		} else if (statusCode == HttpStatus.SC_NO_CONTENT) {
+			log.error("Server responded with not content to '{}'", request.getURI());
+			return null;
+		} else if (statusCode == 429) {
+			log.error("Server responded with too many requests to '{}'", request.getURI());
+			throw new RateLimitedException("Too many requests, try again later.",
+				new IllegalStateException("Response code from channel info is " + statusCode));
+		} else if (!HttpClientTools.isSuccessWithContent(statusCode)) {
+			var body = readLoggableBody(response);
+			log.error("Server responded with an error to '{}': {}", request.getURI(), body);
+			throw new HttpErrorException("Server responded with an error.", statusCode, body,
+				new IllegalStateException("Response code from channel info is " + statusCode));
+		}
+
+		if (log.isDebugEnabled()) {
 			var data = IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8);
-			log.debug("Response from '{}' was successful: {}", request.getURI(), data);
+			log.debug("Response from '{}' was successful: {}", request.getURI(), truncate(data));
 			return JsonBrowser.parse(data);
 		}
+
+		// Parse directly from the entity stream so large payloads are never buffered as a String
+		try (var stream = response.getEntity().getContent()) {
+			return JsonBrowser.parse(stream);
+		}
+	}
+
+	private static String readLoggableBody(CloseableHttpResponse response) throws IOException {
+		var entity = response.getEntity();
+		if (entity == null) {
+			return null;
+		}
+		try (var reader = new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8)) {
+			var buffer = new char[MAX_LOGGED_BODY_LENGTH];
+			var read = IOUtils.read(reader, buffer);
+			var data = new String(buffer, 0, read);
+			return reader.read() == -1 ? data : data + "...";
+		}
+	}
+
+	private static String truncate(String data) {
+		if (data.length() <= MAX_LOGGED_BODY_LENGTH) {
+			return data;
+		}
+		return data.substring(0, MAX_LOGGED_BODY_LENGTH) + "... (" + data.length() + " chars)";
 	}
 }
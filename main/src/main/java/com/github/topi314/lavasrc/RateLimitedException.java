@@ -0,0 +1,16 @@
+package com.github.topi314.lavasrc;
+
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+
+/**
+ * Thrown when a server kept responding with 429 or the wait for its rate limit would have been too long.
+ */
+public class RateLimitedException extends FriendlyException {
+
+	private static final long serialVersionUID = -2816253019383374014L;
+
+	public RateLimitedException(String message, Throwable cause) {
+		super(message, Severity.COMMON, cause);
+	}
+
+}
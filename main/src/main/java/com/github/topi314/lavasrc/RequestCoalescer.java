@@ -0,0 +1,124 @@
+package com.github.topi314.lavasrc;
+
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deduplicates identical concurrent GET requests (single-flight): while a request is in flight, every identical request waits for it
+ * instead of being sent again. Requests are identical if their url and headers match, so requests with different credentials are never shared.
+ * <p>
+ * {@link JsonBrowser} is mutable and callers modify the json they get, so only the caller which sent the request gets the parsed response.
+ * Waiting callers parse their own copy from a snapshot of it, which is only taken if someone is waiting.
+ */
+public class RequestCoalescer {
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Map<String, Call> calls = new HashMap<>();
+	private final AtomicLong coalesced = new AtomicLong();
+
+	@Nullable
+	public JsonBrowser fetchResponseAsJson(HttpInterface httpInterface, HttpUriRequest request) throws IOException {
+		if (!"GET".equals(request.getMethod())) {
+			return LavaSrcTools.fetchResponseAsJson(httpInterface, request);
+		}
+
+		var key = getKey(request);
+		Call call;
+		var leader = false;
+		this.lock.lock();
+		try {
+			call = this.calls.get(key);
+			if (call == null) {
+				call = new Call();
+				this.calls.put(key, call);
+				leader = true;
+			} else {
+				call.waiters++;
+			}
+		} finally {
+			this.lock.unlock();
+		}
+
+		if (!leader) {
+			this.coalesced.incrementAndGet();
+			var snapshot = await(call.result);
+			return snapshot == null ? null : JsonBrowser.parse(snapshot);
+		}
+
+		JsonBrowser json;
+		try {
+			json = LavaSrcTools.fetchResponseAsJson(httpInterface, request);
+		} catch (Throwable e) {
+			this.complete(key).completeExceptionally(e);
+			throw e;
+		}
+		var waiters = this.complete(key);
+		// no one can join anymore once the call is removed, so the snapshot is only needed if someone already did
+		if (call.waiters > 0 && json != null) {
+			waiters.complete(json.format());
+		} else {
+			waiters.complete(null);
+		}
+		return json;
+	}
+
+	/**
+	 * The number of requests which were answered by an identical request already in flight.
+	 */
+	public long getCoalesced() {
+		return this.coalesced.get();
+	}
+
+	private CompletableFuture<String> complete(String key) {
+		this.lock.lock();
+		try {
+			return this.calls.remove(key).result;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Nullable
+	private static String await(CompletableFuture<String> result) throws IOException {
+		try {
+			return result.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for an identical request", e);
+		} catch (ExecutionException e) {
+			var cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause.getMessage(), cause);
+		}
+	}
+
+	private static String getKey(HttpUriRequest request) {
+		var key = new StringBuilder(request.getURI().toString());
+		for (var header : request.getAllHeaders()) {
+			key.append('\n').append(header.getName()).append(':').append(header.getValue());
+		}
+		return key.toString();
+	}
+
+	private static class Call {
+		private final CompletableFuture<String> result = new CompletableFuture<>();
+		// guarded by the coalescer lock
+		private int waiters;
+	}
+
+}
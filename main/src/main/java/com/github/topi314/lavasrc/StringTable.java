@@ -0,0 +1,104 @@
+package com.github.topi314.lavasrc;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shares repeating strings like album names and urls between the tracks encoded or decoded by the current thread while it is open.
+ * The first occurrence of a string is written inline, every further occurrence only as its index in the table.
+ * Tracks encoded with a table can only be decoded with a table, in the same order they were encoded in, so this is meant for encoding whole playlists:
+ * <pre>{@code
+ * try (var strings = StringTable.open()) {
+ *     for (var track : playlist.getTracks()) {
+ *         manager.encodeTrack(output, track);
+ *     }
+ * }
+ * }</pre>
+ */
+public class StringTable implements AutoCloseable {
+
+	private static final ThreadLocal<StringTable> current = new ThreadLocal<>();
+
+	private final Map<String, Integer> indices = new HashMap<>();
+	private final List<String> strings = new ArrayList<>();
+	@Nullable
+	private final StringTable previous;
+
+	private StringTable(@Nullable StringTable previous) {
+		this.previous = previous;
+	}
+
+	public static StringTable open() {
+		var table = new StringTable(current.get());
+		current.set(table);
+		return table;
+	}
+
+	@Nullable
+	public static StringTable current() {
+		return current.get();
+	}
+
+	public void write(DataOutput output, String value) throws IOException {
+		var index = this.indices.get(value);
+		if (index != null) {
+			writeVarInt(output, index);
+			return;
+		}
+		writeVarInt(output, this.strings.size());
+		output.writeUTF(value);
+		this.indices.put(value, this.strings.size());
+		this.strings.add(value);
+	}
+
+	public String read(DataInput input) throws IOException {
+		var index = readVarInt(input);
+		if (index < this.strings.size()) {
+			return this.strings.get(index);
+		}
+		if (index != this.strings.size()) {
+			throw new IOException("Invalid string table index " + index + ", table has " + this.strings.size() + " entries");
+		}
+		var value = input.readUTF();
+		this.indices.put(value, index);
+		this.strings.add(value);
+		return value;
+	}
+
+	@Override
+	public void close() {
+		if (this.previous == null) {
+			current.remove();
+		} else {
+			current.set(this.previous);
+		}
+	}
+
+	private static void writeVarInt(DataOutput output, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			output.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		output.writeByte(value);
+	}
+
+	private static int readVarInt(DataInput input) throws IOException {
+		var value = 0;
+		for (var shift = 0; shift < 32; shift += 7) {
+			var b = input.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed string table index");
+	}
+
+}
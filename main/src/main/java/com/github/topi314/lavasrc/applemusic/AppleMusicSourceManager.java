@@ -8,7 +8,7 @@ import com.github.topi314.lavasearch.result.AudioText;
 import com.github.topi314.lavasearch.result.BasicAudioSearchResult;
 import com.github.topi314.lavasearch.result.BasicAudioText;
 import com.github.topi314.lavasrc.ExtendedAudioPlaylist;
-import com.github.topi314.lavasrc.LavaSrcTools;
+import com.github.topi314.lavasrc.RequestCoalescer;
 import com.github.topi314.lavasrc.mirror.DefaultMirroringAudioTrackResolver;
 import com.github.topi314.lavasrc.mirror.MirroringAudioSourceManager;
 import com.github.topi314.lavasrc.mirror.MirroringAudioTrackResolver;
@@ -57,6 +57,7 @@ public class AppleMusicSourceManager extends MirroringAudioSourceManager impleme
 	private int playlistPageLimit;
 	private int albumPageLimit;
 	private final AppleMusicTokenManager tokenManager;
+	private final RequestCoalescer requestCoalescer = new RequestCoalescer();
 
 	public AppleMusicSourceManager(String[] providers, String mediaAPIToken, String countryCode, Function<Void, AudioPlayerManager> audioPlayerManager) {
 		this(mediaAPIToken, countryCode, audioPlayerManager, new DefaultMirroringAudioTrackResolver(providers));
@@ -71,7 +72,7 @@ public class AppleMusicSourceManager extends MirroringAudioSourceManager impleme
 		this.countryCode = (countryCode == null || countryCode.isEmpty()) ? "US" : countryCode;
 
 		try {
-			this.tokenManager = new AppleMusicTokenManager(mediaAPIToken);
+			this.tokenManager = new AppleMusicTokenManager(mediaAPIToken, this.httpInterfaceManager);
 		} catch (IOException e) {
 			throw new RuntimeException("Failed to initialize token manager", e);
 		}
@@ -130,13 +131,18 @@ public class AppleMusicSourceManager extends MirroringAudioSourceManager impleme
 		var identifier = reference.identifier;
 		var preview = reference.identifier.startsWith(PREVIEW_PREFIX);
 
-		return this.loadItem(preview ? identifier.substring(PREVIEW_PREFIX.length()) : identifier, preview);
+		return this.loadItem(manager, preview ? identifier.substring(PREVIEW_PREFIX.length()) : identifier, preview);
 	}
 
 	public AudioItem loadItem(String identifier, boolean preview) {
+		return this.loadItem(null, identifier, preview);
+	}
+
+	private AudioItem loadItem(@Nullable AudioPlayerManager manager, String identifier, boolean preview) {
+		var key = preview ? PREVIEW_PREFIX + identifier : identifier;
 		try {
 			if (identifier.startsWith(SEARCH_PREFIX)) {
-				return this.getSearch(identifier.substring(SEARCH_PREFIX.length()).trim(), preview);
+				return this.loadItemCached(manager, key, () -> this.getSearch(identifier.substring(SEARCH_PREFIX.length()).trim(), preview));
 			}
 
 			var matcher = URL_PATTERN.matcher(identifier);
@@ -144,27 +150,24 @@ public class AppleMusicSourceManager extends MirroringAudioSourceManager impleme
 				return null;
 			}
 
-			var countryCode = matcher.group("countrycode");
-			if (countryCode == null || countryCode.isEmpty()) {
-				countryCode = this.countryCode;
-			}
+			var countryCode = matcher.group("countrycode") == null || matcher.group("countrycode").isEmpty() ? this.countryCode : matcher.group("countrycode");
 			var id = matcher.group("identifier");
 			switch (matcher.group("type")) {
 				case "song":
-					return this.getSong(id, countryCode, preview);
+					return this.loadItemCached(manager, key, () -> this.getSong(id, countryCode, preview));
 
 				case "album":
 					var id2 = matcher.group("identifier2");
 					if (id2 == null || id2.isEmpty()) {
-						return this.getAlbum(id, countryCode, preview);
+						return this.loadItemCached(manager, key, () -> this.getAlbum(id, countryCode, preview));
 					}
-					return this.getSong(id2, countryCode, preview);
+					return this.loadItemCached(manager, key, () -> this.getSong(id2, countryCode, preview));
 
 				case "playlist":
-					return this.getPlaylist(id, countryCode, preview);
+					return this.loadItemCached(manager, key, () -> this.getPlaylist(id, countryCode, preview));
 
 				case "artist":
-					return this.getArtist(id, countryCode, preview);
+					return this.loadItemCached(manager, key, () -> this.getArtist(id, countryCode, preview));
 			}
 		} catch (IOException e) {
 			throw new RuntimeException(e);
@@ -273,12 +276,12 @@ public class AppleMusicSourceManager extends MirroringAudioSourceManager impleme
 	public JsonBrowser getJson(String uri) throws IOException {
 		var token = this.tokenManager.getToken();
 
-		var request = new HttpGet(uri);
+		var request = new HttpGet(this.resolveUrl(uri));
 		request.addHeader("Authorization", "Bearer " + token.apiToken);
 		if (token.origin != null && !token.origin.isEmpty()) {
 			request.addHeader("Origin", "https://" + token.origin);
 		}
-		return LavaSrcTools.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
+		return this.requestCoalescer.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
 	}
 
 	public Map<String, String> getArtistCover(List<String> ids) throws IOException {
@@ -356,6 +359,7 @@ public class AppleMusicSourceManager extends MirroringAudioSourceManager impleme
 
 		var artworkUrl = this.parseArtworkUrl(json.get("data").index(0).get("attributes").get("artwork"));
 		var author = json.get("data").index(0).get("attributes").get("curatorName").text();
+		this.preResolve(tracks);
 		return new AppleMusicAudioPlaylist(json.get("data").index(0).get("attributes").get("name").text(), tracks, ExtendedAudioPlaylist.Type.PLAYLIST, json.get("data").index(0).get("attributes").get("url").text(), artworkUrl, author, (int) json.get("data").index(0).get("attributes").get("trackCount").asLong(0));
 	}
 
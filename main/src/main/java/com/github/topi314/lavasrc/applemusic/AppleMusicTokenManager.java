@@ -1,25 +1,53 @@
 package com.github.topi314.lavasrc.applemusic;
 
+import com.github.topi314.lavasrc.LavaSrcExecutors;
+import com.github.topi314.lavasrc.LavaSrcMetrics;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.jsoup.Jsoup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 
 public class AppleMusicTokenManager {
 
+	private static final Logger log = LoggerFactory.getLogger(AppleMusicTokenManager.class);
+
+	// Tokens are scraped again in the background once they have less than this left
+	private static final Duration REFRESH_MARGIN = Duration.ofMinutes(10);
+	// How long to wait before retrying a failed background refresh
+	private static final long REFRESH_RETRY_DELAY_MS = 30_000;
+
 	private static final Pattern TOKEN_PATTERN = Pattern.compile("ey[\\w-]+\\.[\\w-]+\\.[\\w-]+");
 
-	private Token token;
+	private final HttpInterfaceManager httpInterfaceManager;
+	// a lock instead of synchronized so virtual threads waiting for the scrape don't pin their carrier thread
+	private final ReentrantLock tokenLock = new ReentrantLock();
+	private volatile Token token;
+	private final ExecutorService refreshExecutor = LavaSrcExecutors.newBlockingExecutor("lavasrc-applemusic-token", 1);
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+	private volatile long nextRefreshAttempt;
 
 	public AppleMusicTokenManager(String mediaAPIToken) throws IOException {
+		this(mediaAPIToken, HttpClientTools.createDefaultThreadLocalManager());
+	}
+
+	public AppleMusicTokenManager(String mediaAPIToken, HttpInterfaceManager httpInterfaceManager) throws IOException {
+		this.httpInterfaceManager = httpInterfaceManager;
 		if (mediaAPIToken == null || mediaAPIToken.isEmpty()) {
 			this.fetchNewToken();
 		} else {
@@ -28,10 +56,52 @@ public class AppleMusicTokenManager {
 	}
 
 	public Token getToken() throws IOException {
-		if (this.token.isExpired()) {
-			this.fetchNewToken();
+		var token = this.token;
+		if (!token.isExpired()) {
+			if (token.needsRefresh()) {
+				this.refreshInBackground();
+			}
+			return token;
+		}
+		this.tokenLock.lock();
+		try {
+			// another caller may have refreshed the token while we were waiting
+			if (this.token.isExpired()) {
+				this.fetchNewToken();
+			}
+			return this.token;
+		} finally {
+			this.tokenLock.unlock();
+		}
+	}
+
+	/**
+	 * Scrapes a new token on {@link LavaSrcExecutors} while the current one is still valid, so loads don't wait for the scrape.
+	 * In virtual thread mode the scrape runs on a virtual thread.
+	 */
+	private void refreshInBackground() {
+		if (System.currentTimeMillis() < this.nextRefreshAttempt || !this.refreshing.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			this.refreshExecutor.execute(() -> {
+				this.tokenLock.lock();
+				try {
+					if (this.token.needsRefresh()) {
+						log.debug("Refreshing Apple Music token ahead of expiry...");
+						this.fetchNewToken();
+					}
+				} catch (Exception e) {
+					this.nextRefreshAttempt = System.currentTimeMillis() + REFRESH_RETRY_DELAY_MS;
+					log.warn("Failed to refresh Apple Music token in the background", e);
+				} finally {
+					this.tokenLock.unlock();
+					this.refreshing.set(false);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			this.refreshing.set(false);
 		}
-		return this.token;
 	}
 
 	public void setToken(String mediaAPIToken) throws IOException {
@@ -55,15 +125,26 @@ public class AppleMusicTokenManager {
 	}
 
 	private void fetchNewToken() throws IOException {
-		try (var httpClient = HttpClients.createDefault()) {
-			var mainPageHtml = fetchHtml(httpClient, "https://music.apple.com");
+		var start = System.nanoTime();
+		var success = false;
+		try {
+			this.scrapeToken();
+			success = true;
+		} finally {
+			LavaSrcMetrics.tokenRefresh("applemusic", "media-api", success, start);
+		}
+	}
+
+	private void scrapeToken() throws IOException {
+		try (var httpInterface = this.httpInterfaceManager.getInterface()) {
+			var mainPageHtml = fetchHtml(httpInterface, "https://music.apple.com");
 			var tokenScriptUrl = extractTokenScriptUrl(mainPageHtml);
 
 			if (tokenScriptUrl == null) {
 				throw new IllegalStateException("Failed to locate token script URL.");
 			}
 
-			var tokenScriptContent = fetchHtml(httpClient, tokenScriptUrl);
+			var tokenScriptContent = fetchHtml(httpInterface, tokenScriptUrl);
 			var tokenMatcher = TOKEN_PATTERN.matcher(tokenScriptContent);
 
 			if (!tokenMatcher.find()) {
@@ -73,9 +154,9 @@ public class AppleMusicTokenManager {
 		}
 	}
 
-	private String fetchHtml(CloseableHttpClient httpClient, String url) throws IOException {
+	private String fetchHtml(HttpInterface httpInterface, String url) throws IOException {
 		var request = new HttpGet(url);
-		try (var response = httpClient.execute(request)) {
+		try (var response = httpInterface.execute(request)) {
 			if (response.getStatusLine().getStatusCode() != 200) {
 				throw new IOException("Failed to fetch URL: " + url + ". Status code: " + response.getStatusLine().getStatusCode());
 			}
@@ -109,5 +190,9 @@ public class AppleMusicTokenManager {
 			}
 			return expire.minusSeconds(5).isBefore(Instant.now());
 		}
+
+		private boolean needsRefresh() {
+			return this.expire == null || this.expire.minus(REFRESH_MARGIN).isBefore(Instant.now());
+		}
 	}
 }
@@ -0,0 +1,36 @@
+package com.github.topi314.lavasrc.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Stores the results of {@link com.github.topi314.lavasrc.ExtendedAudioSourceManager#loadItem} in their encoded form, see {@link AudioItemCodec}.
+ * Implementations decide how long entries are kept, usually based on their {@link Type}.
+ */
+public interface AudioItemCache {
+
+	@Nullable
+	Entry get(String key);
+
+	void put(String key, Entry entry);
+
+	void invalidate(String key);
+
+	void clear();
+
+	enum Type {
+		TRACK,
+		PLAYLIST,
+		SEARCH
+	}
+
+	final class Entry {
+		public final Type type;
+		public final byte[] data;
+
+		public Entry(Type type, byte[] data) {
+			this.type = type;
+			this.data = data;
+		}
+	}
+
+}
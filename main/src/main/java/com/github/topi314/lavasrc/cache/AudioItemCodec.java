@@ -0,0 +1,136 @@
+package com.github.topi314.lavasrc.cache;
+
+import com.github.topi314.lavasrc.ExtendedAudioPlaylist;
+import com.github.topi314.lavasrc.StringTable;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.tools.DataFormatTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageInput;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageOutput;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.BasicAudioPlaylist;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Encodes tracks and playlists for an {@link AudioItemCache}. Tracks are stored with the message format of the {@link AudioPlayerManager},
+ * so they are decoded by the source manager which created them, playlists additionally store their {@link ExtendedAudioPlaylist} fields.
+ * The tracks of a playlist share a {@link StringTable}.
+ */
+public class AudioItemCodec {
+
+	private static final int VERSION = 1;
+	private static final int KIND_TRACK = 0;
+	private static final int KIND_PLAYLIST = 1;
+
+	@Nullable
+	public static AudioItemCache.Entry encode(AudioPlayerManager manager, AudioItem item) throws IOException {
+		var out = new ByteArrayOutputStream();
+		var output = new DataOutputStream(out);
+		output.writeByte(VERSION);
+
+		AudioItemCache.Type type;
+		if (item instanceof AudioTrack) {
+			type = AudioItemCache.Type.TRACK;
+			output.writeByte(KIND_TRACK);
+			output.flush();
+			manager.encodeTrack(new MessageOutput(out), (AudioTrack) item);
+		} else if (item instanceof AudioPlaylist) {
+			var playlist = (AudioPlaylist) item;
+			type = playlist.isSearchResult() ? AudioItemCache.Type.SEARCH : AudioItemCache.Type.PLAYLIST;
+			output.writeByte(KIND_PLAYLIST);
+			DataFormatTools.writeNullableText(output, playlist.getName());
+			output.writeBoolean(playlist.isSearchResult());
+			output.writeInt(playlist.getSelectedTrack() == null ? -1 : playlist.getTracks().indexOf(playlist.getSelectedTrack()));
+
+			output.writeBoolean(playlist instanceof ExtendedAudioPlaylist);
+			if (playlist instanceof ExtendedAudioPlaylist) {
+				var extendedPlaylist = (ExtendedAudioPlaylist) playlist;
+				// recommendations change with every request, so they are kept as short as searches
+				if (extendedPlaylist.getType() == ExtendedAudioPlaylist.Type.RECOMMENDATIONS) {
+					type = AudioItemCache.Type.SEARCH;
+				}
+				output.writeUTF(extendedPlaylist.getType().name());
+				DataFormatTools.writeNullableText(output, extendedPlaylist.getUrl());
+				DataFormatTools.writeNullableText(output, extendedPlaylist.getArtworkURL());
+				DataFormatTools.writeNullableText(output, extendedPlaylist.getAuthor());
+				output.writeInt(extendedPlaylist.getTotalTracks() == null ? -1 : extendedPlaylist.getTotalTracks());
+			}
+
+			output.writeInt(playlist.getTracks().size());
+			output.flush();
+			var messageOutput = new MessageOutput(out);
+			// album names & urls usually repeat across the tracks of a playlist
+			try (var strings = StringTable.open()) {
+				for (var track : playlist.getTracks()) {
+					manager.encodeTrack(messageOutput, track);
+				}
+			}
+		} else {
+			return null;
+		}
+		return new AudioItemCache.Entry(type, out.toByteArray());
+	}
+
+	/**
+	 * @return the decoded item or {@code null} if it was written by another version or one of its tracks can't be decoded anymore
+	 */
+	@Nullable
+	public static AudioItem decode(AudioPlayerManager manager, AudioItemCache.Entry entry) throws IOException {
+		var in = new ByteArrayInputStream(entry.data);
+		var input = new DataInputStream(in);
+		if (input.readUnsignedByte() != VERSION) {
+			return null;
+		}
+
+		if (input.readUnsignedByte() == KIND_TRACK) {
+			var decoded = manager.decodeTrack(new MessageInput(in));
+			return decoded == null ? null : decoded.decodedTrack;
+		}
+
+		var name = DataFormatTools.readNullableText(input);
+		var searchResult = input.readBoolean();
+		var selectedIndex = input.readInt();
+
+		ExtendedAudioPlaylist.Type extendedType = null;
+		String url = null;
+		String artworkUrl = null;
+		String author = null;
+		Integer totalTracks = null;
+		var extended = input.readBoolean();
+		if (extended) {
+			extendedType = ExtendedAudioPlaylist.Type.valueOf(input.readUTF());
+			url = DataFormatTools.readNullableText(input);
+			artworkUrl = DataFormatTools.readNullableText(input);
+			author = DataFormatTools.readNullableText(input);
+			var total = input.readInt();
+			totalTracks = total < 0 ? null : total;
+		}
+
+		var count = input.readInt();
+		var tracks = new ArrayList<AudioTrack>(count);
+		var messageInput = new MessageInput(in);
+		try (var strings = StringTable.open()) {
+			for (var i = 0; i < count; i++) {
+				var decoded = manager.decodeTrack(messageInput);
+				if (decoded == null || decoded.decodedTrack == null) {
+					return null;
+				}
+				tracks.add(decoded.decodedTrack);
+			}
+		}
+
+		if (extended) {
+			return new ExtendedAudioPlaylist(name, tracks, extendedType, url, artworkUrl, author, totalTracks);
+		}
+		return new BasicAudioPlaylist(name, tracks, selectedIndex < 0 ? null : tracks.get(selectedIndex), searchResult);
+	}
+
+}
@@ -0,0 +1,665 @@
+package com.github.topi314.lavasrc.cache;
+
+import com.github.topi314.lavasrc.LavaSrcExecutors;
+import com.sedmelluq.discord.lavaplayer.tools.ExecutorTools;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Persistent {@link AudioItemCache} which survives restarts, meant as the second tier of a {@link MemoryAudioItemCache}.
+ * <p>
+ * Entries are appended to a log file ({@code items.log}), a record consists of its length, type, expiry, key and encoded item.
+ * Removals are appended as records without data, so the log can always be replayed.
+ * A memory-mapped open addressing hash table ({@code items.idx}) maps the hash of each key to the offset of its latest record,
+ * so a lookup only touches the mapped index and reads a single record. If the index does not match the log after a crash it is rebuilt from the log.
+ * Once the log reaches its maximum size it is compacted in the background, dropping expired, replaced and removed records.
+ * New entries are not written until the compaction made room.
+ * <p>
+ * Lookups may be interrupted when they are cancelled. The interrupt flag is cleared during the file io and restored afterwards,
+ * since an interrupted {@link FileChannel} closes itself. Should an interrupt still close a channel it is reopened.
+ */
+public class DiskAudioItemCache implements AudioItemCache, Closeable {
+
+	public static final long DEFAULT_MAX_SIZE = 1024L * 1024 * 1024;
+	public static final Duration DEFAULT_TRACK_TTL = Duration.ofDays(7);
+	public static final Duration DEFAULT_PLAYLIST_TTL = Duration.ofHours(1);
+	// searches change too often to be worth keeping across restarts
+	public static final Duration DEFAULT_SEARCH_TTL = Duration.ZERO;
+
+	private static final Logger log = LoggerFactory.getLogger(DiskAudioItemCache.class);
+
+	private static final int INDEX_MAGIC = 0x4C534944;
+	private static final int INDEX_VERSION = 1;
+	// magic, version, capacity, used slots, live entries, padding, log size
+	private static final int INDEX_HEADER_SIZE = 32;
+	// key hash, record offset
+	private static final int SLOT_SIZE = 16;
+	private static final int INITIAL_CAPACITY = 1 << 14;
+	private static final double MAX_LOAD_FACTOR = 0.7;
+	private static final long REMOVED = -1;
+	// a compacted log filling more than this of the maximum size would be compacted again right away
+	private static final double MAX_COMPACTED_FILL = 0.9;
+
+	// length, type, expiry, key length
+	private static final int RECORD_HEADER_SIZE = 4 + 1 + 8 + 4;
+	private static final byte REMOVAL_RECORD = -1;
+
+	private final Path logPath;
+	private final Path indexPath;
+	private final long maxSize;
+	private final Map<Type, Long> ttls = new EnumMap<>(Type.class);
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final ExecutorService compactionExecutor = LavaSrcExecutors.newBlockingExecutor("lavasrc-item-cache-compaction", 1);
+	private final AtomicBoolean compacting = new AtomicBoolean();
+
+	private volatile FileChannel logChannel;
+	private volatile FileChannel indexChannel;
+	private volatile boolean closed;
+	private MappedByteBuffer index;
+	private int capacity;
+	private int usedSlots;
+	private int liveEntries;
+	private long logSize;
+	// changes whenever the log is replaced or truncated, so a running compaction knows its copy is outdated
+	private long generation;
+
+	public DiskAudioItemCache(Path directory) throws IOException {
+		this(directory, DEFAULT_MAX_SIZE, DEFAULT_TRACK_TTL, DEFAULT_PLAYLIST_TTL, DEFAULT_SEARCH_TTL);
+	}
+
+	public DiskAudioItemCache(Path directory, long maxSize, Duration trackTtl, Duration playlistTtl, Duration searchTtl) throws IOException {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be greater than 0");
+		}
+		this.maxSize = maxSize;
+		this.ttls.put(Type.TRACK, trackTtl.toMillis());
+		this.ttls.put(Type.PLAYLIST, playlistTtl.toMillis());
+		this.ttls.put(Type.SEARCH, searchTtl.toMillis());
+
+		Files.createDirectories(directory);
+		this.logPath = directory.resolve("items.log");
+		this.indexPath = directory.resolve("items.idx");
+		this.logChannel = FileChannel.open(this.logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.indexChannel = FileChannel.open(this.indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		if (!this.loadIndex()) {
+			log.info("Rebuilding item cache index from {}", this.logPath);
+			this.rebuildIndex(INITIAL_CAPACITY);
+		}
+		log.info("Loaded {} cached items from {}", this.liveEntries, directory);
+	}
+
+	@Override
+	@Nullable
+	public Entry get(String key) {
+		if (this.closed) {
+			return null;
+		}
+		var keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		var hash = hash(keyBytes);
+		// cancelled lookups are interrupted, which would close the channel under every other user of the cache
+		var interrupted = Thread.interrupted();
+		try {
+			this.ensureOpen();
+			this.lock.readLock().lock();
+			try {
+				var slot = this.findSlot(hash, keyBytes);
+				if (slot < 0) {
+					return null;
+				}
+				var record = this.readRecord(this.index.getLong(slotPosition(slot) + 8));
+				if (record.expiresAt < System.currentTimeMillis()) {
+					return null;
+				}
+				return new Entry(Type.values()[record.type], record.data);
+			} finally {
+				this.lock.readLock().unlock();
+			}
+		} catch (IOException e) {
+			log.warn("Failed to read cached item {}", key, e);
+			return null;
+		} finally {
+			restoreInterrupt(interrupted);
+		}
+	}
+
+	@Override
+	public void put(String key, Entry entry) {
+		var ttl = this.ttls.get(entry.type);
+		if (ttl <= 0 || this.closed) {
+			return;
+		}
+		var interrupted = Thread.interrupted();
+		try {
+			this.ensureOpen();
+			this.lock.writeLock().lock();
+			try {
+				this.append(key.getBytes(StandardCharsets.UTF_8), (byte) entry.type.ordinal(), System.currentTimeMillis() + ttl, entry.data);
+			} finally {
+				this.lock.writeLock().unlock();
+			}
+		} catch (IOException e) {
+			log.warn("Failed to write cached item {}", key, e);
+		} finally {
+			restoreInterrupt(interrupted);
+		}
+	}
+
+	@Override
+	public void invalidate(String key) {
+		if (this.closed) {
+			return;
+		}
+		var keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		var interrupted = Thread.interrupted();
+		try {
+			this.ensureOpen();
+			this.lock.writeLock().lock();
+			try {
+				if (this.findSlot(hash(keyBytes), keyBytes) >= 0) {
+					this.append(keyBytes, REMOVAL_RECORD, 0, new byte[0]);
+				}
+			} finally {
+				this.lock.writeLock().unlock();
+			}
+		} catch (IOException e) {
+			log.warn("Failed to remove cached item {}", key, e);
+		} finally {
+			restoreInterrupt(interrupted);
+		}
+	}
+
+	@Override
+	public void clear() {
+		var interrupted = Thread.interrupted();
+		this.lock.writeLock().lock();
+		try {
+			this.ensureOpen();
+			this.logChannel.truncate(0);
+			this.logSize = 0;
+			this.generation++;
+			this.createIndex(INITIAL_CAPACITY);
+		} catch (IOException e) {
+			log.warn("Failed to clear item cache", e);
+		} finally {
+			this.lock.writeLock().unlock();
+			restoreInterrupt(interrupted);
+		}
+	}
+
+	/**
+	 * Rewrites the log with only the entries which are still valid. Does nothing if a compaction is already running.
+	 * <p>
+	 * The valid records are copied without holding the lock, so lookups and writes continue meanwhile.
+	 * Only the records written during the copy and the swap of the log and index happen under the write lock.
+	 */
+	public void compact() throws IOException {
+		if (!this.compacting.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			this.doCompact();
+		} finally {
+			this.compacting.set(false);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.closed = true;
+		ExecutorTools.shutdownExecutor(this.compactionExecutor, "item cache compaction");
+		this.lock.writeLock().lock();
+		try {
+			this.index.force();
+			if (this.logChannel.isOpen()) {
+				this.logChannel.force(true);
+			}
+			this.logChannel.close();
+			this.indexChannel.close();
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * The number of valid and expired entries which have not been compacted yet.
+	 */
+	public int size() {
+		this.lock.readLock().lock();
+		try {
+			return this.liveEntries;
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * The size of the log in bytes.
+	 */
+	public long getLogSize() {
+		this.lock.readLock().lock();
+		try {
+			return this.logSize;
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	private void doCompact() throws IOException {
+		long generation;
+		long snapshotSize;
+		FileChannel channel;
+		var offsets = new long[0];
+		var count = 0;
+		this.lock.readLock().lock();
+		try {
+			generation = this.generation;
+			snapshotSize = this.logSize;
+			channel = this.logChannel;
+			offsets = new long[Math.max(this.liveEntries, 16)];
+			for (var slot = 0; slot < this.capacity; slot++) {
+				var offset = this.index.getLong(slotPosition(slot) + 8);
+				if (this.index.getLong(slotPosition(slot)) == 0 || offset == REMOVED) {
+					continue;
+				}
+				if (count == offsets.length) {
+					offsets = Arrays.copyOf(offsets, count * 2);
+				}
+				offsets[count++] = offset;
+			}
+		} finally {
+			this.lock.readLock().unlock();
+		}
+		// keep the order of the log, so it is read sequentially
+		Arrays.sort(offsets, 0, count);
+
+		var compactedPath = this.logPath.resolveSibling("items.log.tmp");
+		var compacted = FileChannel.open(compactedPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			var moved = new HashMap<Long, Long>(count * 2);
+			var now = System.currentTimeMillis();
+			var position = 0L;
+			for (var i = 0; i < count; i++) {
+				var header = read(channel, offsets[i], RECORD_HEADER_SIZE);
+				var length = header.getInt();
+				header.get();
+				if (header.getLong() < now) {
+					continue;
+				}
+				moved.put(offsets[i], position);
+				position += write(compacted, read(channel, offsets[i], 4 + length), position);
+			}
+
+			this.lock.writeLock().lock();
+			try {
+				if (this.generation != generation || this.closed) {
+					log.debug("Item cache was cleared while it was compacted, discarding the compacted log");
+					return;
+				}
+				this.ensureOpen();
+				var slots = new long[this.liveEntries * 2];
+				var slotCount = 0;
+				for (var slot = 0; slot < this.capacity; slot++) {
+					var hash = this.index.getLong(slotPosition(slot));
+					var offset = this.index.getLong(slotPosition(slot) + 8);
+					if (hash == 0 || offset == REMOVED) {
+						continue;
+					}
+					var newOffset = moved.get(offset);
+					if (newOffset == null && offset >= snapshotSize) {
+						// written while the log was copied
+						var length = this.read(offset, 4).getInt();
+						newOffset = position;
+						position += write(compacted, this.read(offset, 4 + length), position);
+					}
+					if (newOffset != null) {
+						slots[slotCount++] = hash;
+						slots[slotCount++] = newOffset;
+					}
+				}
+				compacted.force(true);
+				compacted.close();
+
+				this.logChannel.close();
+				Files.move(compactedPath, this.logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				this.logChannel = FileChannel.open(this.logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+				var previousSize = this.logSize;
+				this.logSize = position;
+				this.generation++;
+				this.fillIndex(this.capacity, slots, slotCount);
+				log.debug("Compacted item cache from {} to {} bytes", previousSize, this.logSize);
+
+				if (this.logSize > this.maxSize * MAX_COMPACTED_FILL) {
+					log.info("Item cache is full after compaction, clearing it");
+					this.clear();
+				}
+			} finally {
+				this.lock.writeLock().unlock();
+			}
+		} finally {
+			compacted.close();
+			Files.deleteIfExists(compactedPath);
+		}
+	}
+
+	private void scheduleCompaction() {
+		if (this.closed || !this.compacting.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			this.compactionExecutor.execute(() -> {
+				try {
+					this.doCompact();
+				} catch (IOException e) {
+					if (!this.closed) {
+						log.warn("Failed to compact item cache", e);
+					}
+				} finally {
+					this.compacting.set(false);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			this.compacting.set(false);
+		}
+	}
+
+	/**
+	 * Reopens the channels if an interrupt closed them anyway, which happens if it arrives while a thread is reading.
+	 */
+	private void ensureOpen() throws IOException {
+		if (this.logChannel.isOpen() && this.indexChannel.isOpen()) {
+			return;
+		}
+		this.lock.writeLock().lock();
+		try {
+			if (this.closed) {
+				throw new ClosedChannelException();
+			}
+			if (!this.logChannel.isOpen()) {
+				log.debug("Reopening {} after it was closed by an interrupt", this.logPath);
+				this.logChannel = FileChannel.open(this.logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			}
+			if (!this.indexChannel.isOpen()) {
+				log.debug("Reopening {} after it was closed by an interrupt", this.indexPath);
+				this.indexChannel = FileChannel.open(this.indexPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private void append(byte[] key, byte type, long expiresAt, byte[] data) throws IOException {
+		var length = RECORD_HEADER_SIZE - 4 + key.length + data.length;
+		if (4L + length > this.maxSize) {
+			return;
+		}
+		// removals are tiny and must not get lost, everything else is dropped until the compaction made room
+		if (type != REMOVAL_RECORD && this.logSize + 4 + length > this.maxSize) {
+			this.scheduleCompaction();
+			return;
+		}
+
+		var record = ByteBuffer.allocate(4 + length);
+		record.putInt(length).put(type).putLong(expiresAt).putInt(key.length).put(key).put(data).flip();
+		var offset = this.logSize;
+		this.logSize += write(this.logChannel, record, offset);
+		this.index(hash(key), key, type == REMOVAL_RECORD ? REMOVED : offset);
+		this.index.putLong(24, this.logSize);
+	}
+
+	/**
+	 * Points the slot of the key to the given record offset, or marks it as removed.
+	 */
+	private void index(long hash, byte[] key, long offset) throws IOException {
+		var slot = this.findSlot(hash, key);
+		if (slot >= 0) {
+			if (offset == REMOVED) {
+				this.liveEntries--;
+			}
+			this.index.putLong(slotPosition(slot) + 8, offset);
+		} else if (offset != REMOVED) {
+			if (this.usedSlots + 1 > this.capacity * MAX_LOAD_FACTOR) {
+				this.resizeIndex(this.liveEntries + 1 > this.capacity * MAX_LOAD_FACTOR / 2 ? this.capacity * 2 : this.capacity);
+				slot = this.findSlot(hash, key);
+			}
+			slot = -slot - 1;
+			if (this.index.getLong(slotPosition(slot)) == 0) {
+				this.usedSlots++;
+			}
+			this.liveEntries++;
+			this.index.putLong(slotPosition(slot), hash);
+			this.index.putLong(slotPosition(slot) + 8, offset);
+		}
+		this.index.putInt(12, this.usedSlots);
+		this.index.putInt(16, this.liveEntries);
+	}
+
+	/**
+	 * @return the slot of the key, or {@code -(insertion slot) - 1} if it is not indexed
+	 */
+	private int findSlot(long hash, byte[] key) throws IOException {
+		var mask = this.capacity - 1;
+		var insertion = -1;
+		for (var i = 0; i < this.capacity; i++) {
+			var slot = (int) (hash + i) & mask;
+			var slotHash = this.index.getLong(slotPosition(slot));
+			if (slotHash == 0) {
+				return -(insertion < 0 ? slot : insertion) - 1;
+			}
+			var offset = this.index.getLong(slotPosition(slot) + 8);
+			if (offset == REMOVED) {
+				if (insertion < 0) {
+					insertion = slot;
+				}
+			} else if (slotHash == hash && Arrays.equals(this.readKey(offset), key)) {
+				return slot;
+			}
+		}
+		return -insertion - 1;
+	}
+
+	private boolean loadIndex() throws IOException {
+		var size = this.indexChannel.size();
+		if (size < INDEX_HEADER_SIZE) {
+			return false;
+		}
+		var index = this.indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		var capacity = index.getInt(8);
+		// the file is never shrunk, so it may be larger than the index in it
+		if (index.getInt(0) != INDEX_MAGIC || index.getInt(4) != INDEX_VERSION || Integer.bitCount(capacity) != 1
+			|| size < INDEX_HEADER_SIZE + (long) capacity * SLOT_SIZE || index.getLong(24) != this.logChannel.size()) {
+			return false;
+		}
+		this.index = index;
+		this.capacity = capacity;
+		this.usedSlots = index.getInt(12);
+		this.liveEntries = index.getInt(16);
+		this.logSize = index.getLong(24);
+		return true;
+	}
+
+	private void createIndex(int capacity) throws IOException {
+		// a mapped file can't be truncated on windows, so the index is cleared in place instead.
+		// a larger mapping grows the file, the previous mapping must not be touched anymore after this
+		this.index = this.indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_SIZE + (long) capacity * SLOT_SIZE);
+		var zeros = new byte[8192];
+		var buffer = this.index.duplicate();
+		while (buffer.hasRemaining()) {
+			buffer.put(zeros, 0, Math.min(zeros.length, buffer.remaining()));
+		}
+		this.capacity = capacity;
+		this.usedSlots = 0;
+		this.liveEntries = 0;
+		this.index.putInt(0, INDEX_MAGIC);
+		this.index.putInt(4, INDEX_VERSION);
+		this.index.putInt(8, capacity);
+		this.index.putLong(24, this.logSize);
+	}
+
+	private void resizeIndex(int capacity) throws IOException {
+		var slots = new long[this.liveEntries * 2];
+		var count = 0;
+		for (var slot = 0; slot < this.capacity; slot++) {
+			var hash = this.index.getLong(slotPosition(slot));
+			var offset = this.index.getLong(slotPosition(slot) + 8);
+			if (hash != 0 && offset != REMOVED) {
+				slots[count++] = hash;
+				slots[count++] = offset;
+			}
+		}
+		this.fillIndex(capacity, slots, count);
+	}
+
+	/**
+	 * Creates a new index from pairs of key hashes and record offsets.
+	 */
+	private void fillIndex(int capacity, long[] slots, int count) throws IOException {
+		this.createIndex(capacity);
+		var mask = capacity - 1;
+		for (var i = 0; i < count; i += 2) {
+			var slot = (int) slots[i] & mask;
+			while (this.index.getLong(slotPosition(slot)) != 0) {
+				slot = (slot + 1) & mask;
+			}
+			this.index.putLong(slotPosition(slot), slots[i]);
+			this.index.putLong(slotPosition(slot) + 8, slots[i + 1]);
+		}
+		this.usedSlots = count / 2;
+		this.liveEntries = count / 2;
+		this.index.putInt(12, this.usedSlots);
+		this.index.putInt(16, this.liveEntries);
+	}
+
+	/**
+	 * Replays the log into a new index, a partially written record at the end of the log is cut off.
+	 */
+	private void rebuildIndex(int capacity) throws IOException {
+		var size = this.logChannel.size();
+		this.logSize = 0;
+		this.createIndex(capacity);
+
+		var offset = 0L;
+		while (offset + RECORD_HEADER_SIZE <= size) {
+			var header = this.read(offset, RECORD_HEADER_SIZE);
+			var length = header.getInt();
+			var type = header.get();
+			header.getLong();
+			var keyLength = header.getInt();
+			if (length < RECORD_HEADER_SIZE - 4 + keyLength || keyLength < 0 || offset + 4 + length > size
+				|| (type != REMOVAL_RECORD && (type < 0 || type >= Type.values().length))) {
+				break;
+			}
+			var key = this.readKey(offset);
+			this.logSize = offset + 4 + length;
+			this.index(hash(key), key, type == REMOVAL_RECORD ? REMOVED : offset);
+			offset += 4 + length;
+		}
+
+		if (this.logSize < size) {
+			log.warn("Discarding {} bytes of incomplete records at the end of {}", size - this.logSize, this.logPath);
+			this.logChannel.truncate(this.logSize);
+		}
+		this.index.putLong(24, this.logSize);
+	}
+
+	private byte[] readKey(long offset) throws IOException {
+		var keyLength = this.read(offset + RECORD_HEADER_SIZE - 4, 4).getInt();
+		return this.read(offset + RECORD_HEADER_SIZE, keyLength).array();
+	}
+
+	private Record readRecord(long offset) throws IOException {
+		var header = this.read(offset, RECORD_HEADER_SIZE);
+		var length = header.getInt();
+		var type = header.get();
+		var expiresAt = header.getLong();
+		var keyLength = header.getInt();
+		var dataOffset = RECORD_HEADER_SIZE + keyLength;
+		var data = this.read(offset + dataOffset, 4 + length - dataOffset).array();
+		return new Record(type, expiresAt, data);
+	}
+
+	private ByteBuffer read(long position, int length) throws IOException {
+		return this.read(this.logChannel, position, length);
+	}
+
+	private ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+		var buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new EOFException("Unexpected end of " + this.logPath);
+			}
+		}
+		return buffer.flip();
+	}
+
+	/**
+	 * @return the number of bytes written
+	 */
+	private static int write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		var length = buffer.remaining();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer, position + length - buffer.remaining());
+		}
+		return length;
+	}
+
+	private static void restoreInterrupt(boolean interrupted) {
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static int slotPosition(int slot) {
+		return INDEX_HEADER_SIZE + slot * SLOT_SIZE;
+	}
+
+	private static long hash(byte[] key) {
+		// FNV-1a followed by a finalizer, so the low bits used for the slot are well distributed
+		var hash = 0xcbf29ce484222325L;
+		for (var b : key) {
+			hash ^= b;
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		// 0 marks empty slots
+		return hash == 0 ? 1 : hash;
+	}
+
+	private static class Record {
+		private final byte type;
+		private final long expiresAt;
+		private final byte[] data;
+
+		private Record(byte type, long expiresAt, byte[] data) {
+			this.type = type;
+			this.expiresAt = expiresAt;
+			this.data = data;
+		}
+	}
+
+}
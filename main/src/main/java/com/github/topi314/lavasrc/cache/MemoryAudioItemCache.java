@@ -0,0 +1,205 @@
+package com.github.topi314.lavasrc.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LRU cache of encoded audio items which is bounded by the memory its entries take up.
+ * Entries expire after the TTL of their type. An optional second tier (e.g. on disk) is written through to
+ * and consulted on misses, entries found there are moved back into memory.
+ */
+public class MemoryAudioItemCache implements AudioItemCache {
+
+	public static final long DEFAULT_MAX_MEMORY = 64L * 1024 * 1024;
+	public static final Duration DEFAULT_TRACK_TTL = Duration.ofHours(24);
+	public static final Duration DEFAULT_PLAYLIST_TTL = Duration.ofMinutes(10);
+	public static final Duration DEFAULT_SEARCH_TTL = Duration.ofMinutes(2);
+
+	// rough per entry overhead of the map node, entry objects & array headers
+	private static final int ENTRY_OVERHEAD = 96;
+
+	private final Map<String, Node> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final ReentrantLock entriesLock = new ReentrantLock();
+	private final Map<Type, Long> ttls = new EnumMap<>(Type.class);
+	private final long maxMemory;
+	@Nullable
+	private final AudioItemCache secondTier;
+	private long memory;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong secondTierHits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	public MemoryAudioItemCache() {
+		this(DEFAULT_MAX_MEMORY, DEFAULT_TRACK_TTL, DEFAULT_PLAYLIST_TTL, DEFAULT_SEARCH_TTL, null);
+	}
+
+	public MemoryAudioItemCache(long maxMemory, Duration trackTtl, Duration playlistTtl, Duration searchTtl, @Nullable AudioItemCache secondTier) {
+		if (maxMemory <= 0) {
+			throw new IllegalArgumentException("maxMemory must be greater than 0");
+		}
+		this.maxMemory = maxMemory;
+		this.ttls.put(Type.TRACK, trackTtl.toMillis());
+		this.ttls.put(Type.PLAYLIST, playlistTtl.toMillis());
+		this.ttls.put(Type.SEARCH, searchTtl.toMillis());
+		this.secondTier = secondTier;
+	}
+
+	@Override
+	@Nullable
+	public Entry get(String key) {
+		this.entriesLock.lock();
+		try {
+			var node = this.entries.get(key);
+			if (node != null) {
+				if (node.expiresAt >= System.currentTimeMillis()) {
+					this.hits.incrementAndGet();
+					return node.entry;
+				}
+				this.remove(key);
+			}
+		} finally {
+			this.entriesLock.unlock();
+		}
+
+		if (this.secondTier != null) {
+			var entry = this.secondTier.get(key);
+			if (entry != null) {
+				this.secondTierHits.incrementAndGet();
+				this.putLocal(key, entry);
+				return entry;
+			}
+		}
+		this.misses.incrementAndGet();
+		return null;
+	}
+
+	@Override
+	public void put(String key, Entry entry) {
+		if (this.ttls.get(entry.type) <= 0) {
+			return;
+		}
+		this.putLocal(key, entry);
+		if (this.secondTier != null) {
+			this.secondTier.put(key, entry);
+		}
+	}
+
+	@Override
+	public void invalidate(String key) {
+		this.entriesLock.lock();
+		try {
+			this.remove(key);
+		} finally {
+			this.entriesLock.unlock();
+		}
+		if (this.secondTier != null) {
+			this.secondTier.invalidate(key);
+		}
+	}
+
+	@Override
+	public void clear() {
+		this.entriesLock.lock();
+		try {
+			this.entries.clear();
+			this.memory = 0;
+		} finally {
+			this.entriesLock.unlock();
+		}
+		if (this.secondTier != null) {
+			this.secondTier.clear();
+		}
+	}
+
+	public int size() {
+		this.entriesLock.lock();
+		try {
+			return this.entries.size();
+		} finally {
+			this.entriesLock.unlock();
+		}
+	}
+
+	/**
+	 * The estimated memory in bytes taken up by the cached entries.
+	 */
+	public long getMemory() {
+		this.entriesLock.lock();
+		try {
+			return this.memory;
+		} finally {
+			this.entriesLock.unlock();
+		}
+	}
+
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	public long getSecondTierHits() {
+		return this.secondTierHits.get();
+	}
+
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+	public long getEvictions() {
+		return this.evictions.get();
+	}
+
+	private void putLocal(String key, Entry entry) {
+		var ttl = this.ttls.get(entry.type);
+		var node = new Node(entry, System.currentTimeMillis() + ttl, sizeOf(key, entry));
+		if (node.size > this.maxMemory) {
+			return;
+		}
+		this.entriesLock.lock();
+		try {
+			this.remove(key);
+			this.entries.put(key, node);
+			this.memory += node.size;
+
+			var iterator = this.entries.values().iterator();
+			while (this.memory > this.maxMemory && iterator.hasNext()) {
+				this.memory -= iterator.next().size;
+				iterator.remove();
+				this.evictions.incrementAndGet();
+			}
+		} finally {
+			this.entriesLock.unlock();
+		}
+	}
+
+	private void remove(String key) {
+		var node = this.entries.remove(key);
+		if (node != null) {
+			this.memory -= node.size;
+		}
+	}
+
+	private static int sizeOf(String key, Entry entry) {
+		return ENTRY_OVERHEAD + key.length() * 2 + entry.data.length;
+	}
+
+	private static class Node {
+		private final Entry entry;
+		private final long expiresAt;
+		private final int size;
+
+		private Node(Entry entry, long expiresAt, int size) {
+			this.entry = entry;
+			this.expiresAt = expiresAt;
+			this.size = size;
+		}
+	}
+
+}
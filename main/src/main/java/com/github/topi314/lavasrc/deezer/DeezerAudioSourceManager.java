@@ -8,6 +8,7 @@ import com.github.topi314.lavasearch.result.AudioSearchResult;
 import com.github.topi314.lavasearch.result.BasicAudioSearchResult;
 import com.github.topi314.lavasrc.ExtendedAudioSourceManager;
 import com.github.topi314.lavasrc.LavaSrcTools;
+import com.github.topi314.lavasrc.RequestCoalescer;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
@@ -63,10 +64,14 @@ public class DeezerAudioSourceManager extends ExtendedAudioSourceManager impleme
 	public static final Set<AudioSearchResult.Type> SEARCH_TYPES = Set.of(AudioSearchResult.Type.TRACK, AudioSearchResult.Type.ALBUM, AudioSearchResult.Type.PLAYLIST, AudioSearchResult.Type.ARTIST);
 	private static final Logger log = LoggerFactory.getLogger(DeezerAudioSourceManager.class);
 	private static final String FALLBACK_ARTWORK_URL_FORMAT = "https://cdn-images.dzcdn.net/images/cover/%s/1000x1000-000000-80-0-0.jpg";
+	// error keys of the private api which mean the api token or session of the request is no longer valid
+	private static final Set<String> SESSION_ERRORS = Set.of("VALID_TOKEN_REQUIRED", "NEED_API_AUTH_REQUIRED", "NEED_USER_AUTH_REQUIRED");
 
 	private final String masterDecryptionKey;
 	private final DeezerTokenTracker tokenTracker;
+	private final DeezerSourcePrefetcher sourcePrefetcher;
 	private final HttpInterfaceManager httpInterfaceManager;
+	private final RequestCoalescer requestCoalescer = new RequestCoalescer();
 	private DeezerAudioTrack.TrackFormat[] formats;
 
 	public DeezerAudioSourceManager(String masterDecryptionKey) {
@@ -88,6 +93,7 @@ public class DeezerAudioSourceManager extends ExtendedAudioSourceManager impleme
 
 		this.masterDecryptionKey = masterDecryptionKey;
 		this.tokenTracker = new DeezerTokenTracker(this, arl);
+		this.sourcePrefetcher = new DeezerSourcePrefetcher(this);
 		this.formats = formats != null && formats.length > 0 ? formats : DeezerAudioTrack.TrackFormat.DEFAULT_FORMATS;
 		this.httpInterfaceManager = HttpClientTools.createCookielessThreadLocalManager();
 	}
@@ -106,9 +112,15 @@ public class DeezerAudioSourceManager extends ExtendedAudioSourceManager impleme
 		if (json == null) {
 			throw new IllegalStateException(message + "No response");
 		}
-		var error = json.get("error").safeText();
-		if (!error.equals("{}") && !error.equals("[]") && !error.equals("null") && !error.isEmpty()) {
-			throw new IllegalStateException(message + ": " + error);
+		var error = json.get("error");
+		var errorText = error.safeText();
+		if (!errorText.equals("{}") && !errorText.equals("[]") && !errorText.equals("null") && !errorText.isEmpty()) {
+			for (var sessionError : SESSION_ERRORS) {
+				if (!error.get(sessionError).isNull()) {
+					throw new DeezerSessionException(message + ": " + errorText);
+				}
+			}
+			throw new IllegalStateException(message + ": " + errorText);
 		}
 
 
@@ -118,10 +130,32 @@ public class DeezerAudioSourceManager extends ExtendedAudioSourceManager impleme
 		}
 	}
 
+	/**
+	 * Checks a response of the media api. It reports a rejected license token as error of the whole request,
+	 * problems with single tracks are part of their media entry instead.
+	 */
+	static void checkMediaResponse(JsonBrowser json, String message) throws IllegalStateException {
+		if (json == null) {
+			throw new IllegalStateException(message + "No response");
+		}
+		var errors = json.get("errors");
+		if (!errors.isNull() && !errors.values().isEmpty()) {
+			throw new DeezerSessionException(message + ": " + errors.safeText());
+		}
+	}
+
 	public void setArl(String arl) {
 		this.tokenTracker.setArl(arl);
 	}
 
+	/**
+	 * Resolves the media urls of the given tracks in batches so they can be started without any API calls.
+	 * Pass the next few queued tracks, non Deezer tracks are ignored.
+	 */
+	public void prefetchSources(List<? extends AudioTrack> tracks) throws IOException {
+		this.sourcePrefetcher.prefetch(tracks);
+	}
+
 	@NotNull
 	@Override
 	public String getSourceName() {
@@ -200,21 +234,26 @@ public class DeezerAudioSourceManager extends ExtendedAudioSourceManager impleme
 	public AudioItem loadItem(AudioPlayerManager manager, AudioReference reference) {
 		var identifier = reference.identifier;
 		var preview = reference.identifier.startsWith(PREVIEW_PREFIX);
-		return this.loadItem(preview ? identifier.substring(PREVIEW_PREFIX.length()) : identifier, preview);
+		return this.loadItem(manager, preview ? identifier.substring(PREVIEW_PREFIX.length()) : identifier, preview);
 	}
 
 	public AudioItem loadItem(String identifier, boolean preview) {
+		return this.loadItem(null, identifier, preview);
+	}
+
+	private AudioItem loadItem(@Nullable AudioPlayerManager manager, String identifier, boolean preview) {
+		var key = preview ? PREVIEW_PREFIX + identifier : identifier;
 		try {
 			if (identifier.startsWith(SEARCH_PREFIX)) {
-				return this.getSearch(identifier.substring(SEARCH_PREFIX.length()), preview);
+				return this.loadItemCached(manager, key, () -> this.getSearch(identifier.substring(SEARCH_PREFIX.length()), preview));
 			}
 
 			if (identifier.startsWith(ISRC_PREFIX)) {
-				return this.getTrackByISRC(identifier.substring(ISRC_PREFIX.length()), preview);
+				return this.loadItemCached(manager, key, () -> this.getTrackByISRC(identifier.substring(ISRC_PREFIX.length()), preview));
 			}
 
 			if (identifier.startsWith(RECOMMENDATIONS_PREFIX)) {
-				return this.getRecommendations(identifier.substring(RECOMMENDATIONS_PREFIX.length()), preview);
+				return this.loadItemCached(manager, key, () -> this.getRecommendations(identifier.substring(RECOMMENDATIONS_PREFIX.length()), preview));
 			}
 
 			if (identifier.startsWith(SHARE_URL) || identifier.startsWith(SHARE_URL_ALT)) {
@@ -222,7 +261,7 @@ public class DeezerAudioSourceManager extends ExtendedAudioSourceManager impleme
 				if (resolvedUrl == null) {
 					return null;
 				}
-				return this.loadItem(resolvedUrl, preview);
+				return this.loadItem(manager, resolvedUrl, preview);
 			}
 
 			var matcher = URL_PATTERN.matcher(identifier);
@@ -233,16 +272,16 @@ public class DeezerAudioSourceManager extends ExtendedAudioSourceManager impleme
 			var id = matcher.group("identifier");
 			switch (matcher.group("type")) {
 				case "album":
-					return this.getAlbum(id, preview);
+					return this.loadItemCached(manager, key, () -> this.getAlbum(id, preview));
 
 				case "track":
-					return this.getTrack(id, preview);
+					return this.loadItemCached(manager, key, () -> this.getTrack(id, preview));
 
 				case "playlist":
-					return this.getPlaylist(id, preview);
+					return this.loadItemCached(manager, key, () -> this.getPlaylist(id, preview));
 
 				case "artist":
-					return this.getArtist(id, preview);
+					return this.loadItemCached(manager, key, () -> this.getArtist(id, preview));
 			}
 
 		} catch (IOException e) {
@@ -290,12 +329,12 @@ public class DeezerAudioSourceManager extends ExtendedAudioSourceManager impleme
 	}
 
 	public JsonBrowser getJson(String uri) throws IOException {
-		var request = new HttpGet(uri);
+		var request = new HttpGet(this.resolveUrl(uri));
 		request.setHeader("Accept", "application/json");
-		return LavaSrcTools.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
+		return this.requestCoalescer.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
 	}
 
-	private List<AudioTrack> parseTracks(JsonBrowser json, boolean preview) {
+	List<AudioTrack> parseTracks(JsonBrowser json, boolean preview) {
 		var tracks = new ArrayList<AudioTrack>();
 		for (var track : json.get("data").values()) {
 			if (!track.get("type").text().equals("track")) {
@@ -468,7 +507,7 @@ public class DeezerAudioSourceManager extends ExtendedAudioSourceManager impleme
 			payload = String.format("{\"sng_id\": %s, \"start_with_input_track\": \"true\"}", query.startsWith(RECOMMENDATIONS_TRACK_PREFIX) ? query.substring(RECOMMENDATIONS_TRACK_PREFIX.length()) : query);
 		}
 
-		var request = new HttpPost(DeezerAudioSourceManager.PRIVATE_API_BASE + String.format("?method=%s&input=3&api_version=1.0&api_token=%s", method, tokens.api));
+		var request = new HttpPost(this.resolveUrl(DeezerAudioSourceManager.PRIVATE_API_BASE + String.format("?method=%s&input=3&api_version=1.0&api_token=%s", method, tokens.api)));
 		request.setHeader("Cookie", "sid=" + tokens.sessionId + "; dzr_uniq_id=" + tokens.dzrUniqId);
 		request.setHeader("Content-Type", "application/json");
 		request.setEntity(new StringEntity(payload, StandardCharsets.UTF_8));
@@ -603,6 +642,7 @@ public class DeezerAudioSourceManager extends ExtendedAudioSourceManager impleme
 			throw new IllegalArgumentException("Deezer track formats must not be empty");
 		}
 		this.formats = formats;
+		this.sourcePrefetcher.clear();
 	}
 
 	public HttpInterface getHttpInterface() {
@@ -612,4 +652,8 @@ public class DeezerAudioSourceManager extends ExtendedAudioSourceManager impleme
 	public DeezerTokenTracker getTokenTracker() {
 		return this.tokenTracker;
 	}
+
+	public DeezerSourcePrefetcher getSourcePrefetcher() {
+		return this.sourcePrefetcher;
+	}
 }
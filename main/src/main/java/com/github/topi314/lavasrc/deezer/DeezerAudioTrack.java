@@ -9,6 +9,7 @@ import com.sedmelluq.discord.lavaplayer.source.AudioSourceManager;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.Units;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import com.sedmelluq.discord.lavaplayer.tools.io.PersistentHttpStream;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
@@ -18,12 +19,11 @@ import com.sedmelluq.discord.lavaplayer.track.playback.LocalAudioTrackExecutor;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.http.client.config.CookieSpecs;
 import org.apache.http.client.config.RequestConfig;
-import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.BasicCookieStore;
-import org.apache.http.impl.cookie.BasicClientCookie;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,7 +51,7 @@ public class DeezerAudioTrack extends ExtendedAudioTrack {
 		this.sourceManager = sourceManager;
 	}
 
-	private static String formatFormats(TrackFormat[] formats) {
+	static String formatFormats(TrackFormat[] formats) {
 		var strFormats = new ArrayList<String>();
 		for (var format : formats) {
 			strFormats.add("{\"cipher\":\"BF_CBC_STRIPE\",\"format\":\"" + format.name() + "\"}");
@@ -59,46 +59,63 @@ public class DeezerAudioTrack extends ExtendedAudioTrack {
 		return String.join(",", strFormats);
 	}
 
-	private Tokens getTokens(HttpInterface httpInterface) throws IOException {
-		var request = new HttpGet(DeezerAudioSourceManager.PRIVATE_API_BASE + "?method=deezer.getUserData&input=3&api_version=1.0&api_token=");
-
-		var json = LavaSrcTools.fetchResponseAsJson(httpInterface, request);
-		DeezerAudioSourceManager.checkResponse(json, "Failed to get user token");
-
-		return new Tokens(
-			json.get("results").get("USER").get("OPTIONS").get("license_token").text(),
-			json.get("results").get("checkForm").text()
-		);
-	}
-
 	public SourceWithFormat getSource(HttpInterface httpInterface, String apiToken, String licenseToken) throws IOException, URISyntaxException {
-		var getTrackToken = new HttpPost(DeezerAudioSourceManager.PRIVATE_API_BASE + "?method=song.getData&input=3&api_version=1.0&api_token=" + apiToken);
+		var getTrackToken = new HttpPost(this.sourceManager.resolveUrl(DeezerAudioSourceManager.PRIVATE_API_BASE + "?method=song.getData&input=3&api_version=1.0&api_token=" + apiToken));
 		getTrackToken.setEntity(new StringEntity("{\"sng_id\":\"" + this.trackInfo.identifier + "\"}", ContentType.APPLICATION_JSON));
 		var trackTokenJson = LavaSrcTools.fetchResponseAsJson(httpInterface, getTrackToken);
 		DeezerAudioSourceManager.checkResponse(trackTokenJson, "Failed to get track token");
 
 		var results = trackTokenJson.get("results");
 
-		// If main track has no RIGHTS, use FALLBACK track if available
-		var rights = results.get("RIGHTS");
-		String fallbackId = null;
-		if ((rights.isNull() || rights.values().isEmpty()) && !results.get("FALLBACK").get("TRACK_TOKEN").isNull()) {
-			fallbackId = results.get("FALLBACK").get("SNG_ID").text();
-			log.debug("Track {} has no RIGHTS, using FALLBACK {}", this.trackInfo.identifier, fallbackId);
+		var fallbackId = getFallbackId(results);
+		if (fallbackId != null) {
 			results = results.get("FALLBACK");
 		}
 
 		var trackToken = results.get("TRACK_TOKEN").text();
 
-		var getMediaURL = new HttpPost(DeezerAudioSourceManager.MEDIA_BASE + "/get_url");
+		var getMediaURL = new HttpPost(this.sourceManager.resolveUrl(DeezerAudioSourceManager.MEDIA_BASE + "/get_url"));
 		getMediaURL.setEntity(new StringEntity("{\"license_token\":\"" + licenseToken + "\",\"media\":[{\"type\":\"FULL\",\"formats\":[" + formatFormats(this.sourceManager.getFormats()) + "]}],\"track_tokens\": [\"" + trackToken + "\"]}", ContentType.APPLICATION_JSON));
 
 		var json = LavaSrcTools.fetchResponseAsJson(httpInterface, getMediaURL);
-		DeezerAudioSourceManager.checkResponse(json, "Failed to get media URL");
+		DeezerAudioSourceManager.checkMediaResponse(json, "Failed to get media URL");
 
 		return SourceWithFormat.fromResponse(json, results, fallbackId);
 	}
 
+	/**
+	 * Returns the id of the FALLBACK track to play instead if the track itself has no RIGHTS, or null if it can be played as is.
+	 */
+	@Nullable
+	static String getFallbackId(JsonBrowser trackData) {
+		var rights = trackData.get("RIGHTS");
+		if ((rights.isNull() || rights.values().isEmpty()) && !trackData.get("FALLBACK").get("TRACK_TOKEN").isNull()) {
+			var fallbackId = trackData.get("FALLBACK").get("SNG_ID").text();
+			log.debug("Track {} has no RIGHTS, using FALLBACK {}", trackData.get("SNG_ID").text(), fallbackId);
+			return fallbackId;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the arl this track is played with, either the one passed via user data or the configured one.
+	 */
+	String resolveArl() {
+		try {
+			Object userData = getUserData();
+			if (userData != null) {
+				JsonBrowser jsonUserData = JsonBrowser.parse(userData.toString());
+				var arl = jsonUserData.get("arl").text();
+				if (arl != null) {
+					return arl;
+				}
+			}
+		} catch (IOException e) {
+			log.debug("Failed to parse arl from userData", e);
+		}
+		return this.sourceManager.getTokenTracker().getArl();
+	}
+
 	public byte[] getTrackDecryptionKey(String trackId) throws NoSuchAlgorithmException {
 		var md5 = Hex.encodeHex(MessageDigest.getInstance("MD5").digest(trackId.getBytes()), true);
 		var master_key = this.sourceManager.getMasterDecryptionKey().getBytes();
@@ -128,47 +145,89 @@ public class DeezerAudioTrack extends ExtendedAudioTrack {
 				return;
 			}
 
-			String arl = null;
-			try {
-				Object userData = getUserData();
-				if (userData != null) {
-					JsonBrowser jsonUserData = JsonBrowser.parse(userData.toString());
-					if (jsonUserData.get("arl") != null) {
-						arl = jsonUserData.get("arl").text();
+			var arl = this.resolveArl();
+			var prefetcher = this.sourceManager.getSourcePrefetcher();
+			var prefetched = prefetcher.get(arl, this.trackInfo.identifier);
+			if (prefetched != null) {
+				var stream = this.openPrefetchedStream(httpInterface, prefetched);
+				if (stream != null) {
+					try (stream) {
+						processDelegate(prefetched.format.trackFactory.apply(this.trackInfo, stream), executor);
 					}
+					return;
 				}
-			} catch (IOException e) {
-				log.debug("Failed to parse arl from userData", e);
+				// the signed url was rejected before it expired, so it must not be served again
+				prefetcher.invalidate(arl, this.trackInfo.identifier);
 			}
 
-			if (arl == null) {
-				arl = this.sourceManager.getTokenTracker().getArl();
-			}
-			var cookieStore = new BasicCookieStore();
-			httpInterface.getContext().setCookieStore(cookieStore);
-			httpInterface.getContext().setRequestConfig(
-				RequestConfig.copy(httpInterface.getContext().getRequestConfig())
-					.setCookieSpec(CookieSpecs.STANDARD)
-					.build()
-			);
-
-			var cookie = new BasicClientCookie("arl", arl);
-			cookie.setPath("/");
-			cookie.setSecure(true);
-			cookie.setDomain("deezer.com");
-			cookie.setAttribute("domain", ".deezer.com");
-			cookieStore.addCookie(cookie);
-
-			// TODO: figure out caching these for the arl provided in the config
-			var tokens = this.getTokens(httpInterface);
-			var source = this.getSource(httpInterface, tokens.api, tokens.license);
-			var trackId = source.getFallbackId() != null ? source.getFallbackId() : this.trackInfo.identifier;
-			try (var stream = new DeezerPersistentHttpStream(httpInterface, source.url, source.contentLength, this.getTrackDecryptionKey(trackId))) {
+			var source = this.loadSource(httpInterface, arl);
+			try (var stream = new DeezerPersistentHttpStream(httpInterface, source.url, source.contentLength, this.getTrackDecryptionKey(getTrackId(source)))) {
 				processDelegate(source.format.trackFactory.apply(this.trackInfo, stream), executor);
 			}
 		}
 	}
 
+	/**
+	 * Connects to the url of a prefetched source.
+	 *
+	 * @return the connected stream or {@code null} if the url was rejected
+	 */
+	@Nullable
+	private DeezerPersistentHttpStream openPrefetchedStream(HttpInterface httpInterface, SourceWithFormat source) throws NoSuchAlgorithmException {
+		DeezerPersistentHttpStream stream = null;
+		try {
+			stream = new DeezerPersistentHttpStream(httpInterface, source.url, source.contentLength, this.getTrackDecryptionKey(getTrackId(source)));
+			var status = stream.checkStatusCode();
+			if (HttpClientTools.isSuccessWithContent(status)) {
+				return stream;
+			}
+			log.debug("Prefetched media url of Deezer track {} was rejected with status {}, loading a new one", this.trackInfo.identifier, status);
+		} catch (IOException e) {
+			log.debug("Failed to open prefetched media url of Deezer track {}, loading a new one", this.trackInfo.identifier, e);
+		}
+		if (stream != null) {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				log.debug("Failed to close stream", e);
+			}
+		}
+		return null;
+	}
+
+	private String getTrackId(SourceWithFormat source) {
+		return source.getFallbackId() != null ? source.getFallbackId() : this.trackInfo.identifier;
+	}
+
+	private SourceWithFormat loadSource(HttpInterface httpInterface, String arl) throws IOException, URISyntaxException {
+		// the session has to be fetched first as it shares this thread's http interface
+		var tokenTracker = this.sourceManager.getTokenTracker();
+		var tokens = tokenTracker.getUserTokens(arl);
+
+		var cookieStore = new BasicCookieStore();
+		httpInterface.getContext().setCookieStore(cookieStore);
+		httpInterface.getContext().setRequestConfig(
+			RequestConfig.copy(httpInterface.getContext().getRequestConfig())
+				.setCookieSpec(CookieSpecs.STANDARD)
+				.build()
+		);
+		cookieStore.addCookie(DeezerTokenTracker.createCookie("arl", arl));
+		cookieStore.addCookie(DeezerTokenTracker.createCookie("sid", tokens.sessionId));
+
+		SourceWithFormat source;
+		try {
+			source = this.getSource(httpInterface, tokens.api, tokens.license);
+		} catch (DeezerSessionException e) {
+			log.debug("Cached Deezer session was rejected, creating a new one", e);
+			tokenTracker.invalidateUserTokens(arl, tokens);
+			tokens = tokenTracker.getUserTokens(arl);
+			httpInterface.getContext().setCookieStore(cookieStore);
+			cookieStore.addCookie(DeezerTokenTracker.createCookie("sid", tokens.sessionId));
+			source = this.getSource(httpInterface, tokens.api, tokens.license);
+		}
+		return source;
+	}
+
 	@Override
 	protected AudioTrack makeShallowClone() {
 		return new DeezerAudioTrack(this.trackInfo, this.albumName, this.albumUrl, this.artistUrl, this.artistArtworkUrl, this.previewUrl, this.isPreview, this.sourceManager);
@@ -204,16 +263,6 @@ public class DeezerAudioTrack extends ExtendedAudioTrack {
 		}
 	}
 
-	private static class Tokens {
-		public final String license;
-		public final String api;
-
-		private Tokens(String license, String api) {
-			this.license = license;
-			this.api = api;
-		}
-	}
-
 	public static class SourceWithFormat {
 		private final URI url;
 		private final TrackFormat format;
@@ -228,7 +277,11 @@ public class DeezerAudioTrack extends ExtendedAudioTrack {
 		}
 
 		private static SourceWithFormat fromResponse(JsonBrowser json, JsonBrowser trackData, String fallbackId) throws URISyntaxException {
-			var media = json.get("data").index(0).get("media").index(0);
+			return fromMedia(json.get("data").index(0), trackData, fallbackId);
+		}
+
+		static SourceWithFormat fromMedia(JsonBrowser data, JsonBrowser trackData, String fallbackId) throws URISyntaxException {
+			var media = data.get("media").index(0);
 			if (media.isNull()) {
 				throw new IllegalStateException("No media found in response");
 			}
@@ -1,6 +1,5 @@
 package com.github.topi314.lavasrc.deezer;
 
-import com.sedmelluq.discord.lavaplayer.tools.io.ByteBufferInputStream;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import com.sedmelluq.discord.lavaplayer.tools.io.PersistentHttpStream;
 import org.apache.http.HttpResponse;
@@ -9,86 +8,170 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.nio.ByteBuffer;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 
 public class DeezerPersistentHttpStream extends PersistentHttpStream {
 
-	private final byte[] keyMaterial;
+	private static final int BLOCK_SIZE = 2048;
+	private static final byte[] iv = new byte[]{0, 1, 2, 3, 4, 5, 6, 7};
 
-	public DeezerPersistentHttpStream(HttpInterface httpInterface, URI contentUrl, Long contentLength, byte[] keyMaterial) {
+	private final Cipher cipher;
+	// the position requested by the reader while the connection is made from the start of its block
+	private long requestedPosition = -1;
+
+	public DeezerPersistentHttpStream(HttpInterface httpInterface, URI contentUrl, Long contentLength, byte[] keyMaterial) throws IOException {
 		super(httpInterface, contentUrl, contentLength);
-		this.keyMaterial = keyMaterial;
+		try {
+			this.cipher = Cipher.getInstance("Blowfish/CBC/NoPadding");
+			this.cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(keyMaterial, "Blowfish"), new IvParameterSpec(iv));
+		} catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeyException |
+		         InvalidAlgorithmParameterException e) {
+			throw new IOException(e);
+		}
 	}
 
 	@Override
-	public InputStream createContentInputStream(HttpResponse response) throws IOException {
-		return new DecryptingInputStream(response.getEntity().getContent(), this.keyMaterial, this.position);
+	protected URI getConnectUrl() {
+		// Called right before the range header is built from the position, so move it back to the start of the block.
+		// The leading part of the block is decrypted and discarded by the DecryptingInputStream.
+		if (this.requestedPosition < 0) {
+			this.requestedPosition = this.position;
+		}
+		this.position = this.requestedPosition - this.requestedPosition % BLOCK_SIZE;
+		return super.getConnectUrl();
+	}
+
+	@Override
+	protected void seekHard(long position) throws IOException {
+		this.requestedPosition = -1;
+		super.seekHard(position);
 	}
 
-	private static class DecryptingInputStream extends InputStream {
+	@Override
+	public InputStream createContentInputStream(HttpResponse response) throws IOException {
+		var position = this.requestedPosition < 0 ? this.position : this.requestedPosition;
+		this.requestedPosition = -1;
+		this.position = position;
+		return new DecryptingInputStream(response.getEntity().getContent(), this.cipher, position / BLOCK_SIZE, (int) (position % BLOCK_SIZE));
+	}
 
-		private static final int BLOCK_SIZE = 2048;
-		private static final byte[] iv = new byte[]{0, 1, 2, 3, 4, 5, 6, 7};
+	static class DecryptingInputStream extends InputStream {
 
 		private final InputStream in;
-		private final ByteBuffer buff;
-		private final InputStream out;
 		private final Cipher cipher;
+		// holds the current block, decrypted in place
+		private final byte[] block = new byte[BLOCK_SIZE];
+		private int blockPosition;
+		private int blockLimit;
+		private int discard;
 		private long i;
-		private boolean filled;
-
-		public DecryptingInputStream(InputStream in, byte[] keyMaterial, long position) throws IOException {
-			this.in = new BufferedInputStream(in);
-			this.buff = ByteBuffer.allocate(BLOCK_SIZE);
-			this.out = new ByteBufferInputStream(this.buff);
-
-			try {
-				cipher = Cipher.getInstance("Blowfish/CBC/NoPadding");
-				cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(keyMaterial, "Blowfish"), new IvParameterSpec(iv));
-			} catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeyException |
-			         InvalidAlgorithmParameterException e) {
-				throw new IOException(e);
+
+		DecryptingInputStream(InputStream in, Cipher cipher, long blockIndex, int discard) {
+			this.in = in;
+			this.cipher = cipher;
+			this.i = blockIndex;
+			this.discard = discard;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (this.blockPosition >= this.blockLimit && !this.nextBlock()) {
+				return -1;
 			}
+			return this.block[this.blockPosition++] & 0xFF;
+		}
 
-			i = Math.max(0, position / BLOCK_SIZE);
-			var remainingBytesInChunk = ((i + 1) * BLOCK_SIZE) - position;
-			if (remainingBytesInChunk < 2048) {
-				in.skip(remainingBytesInChunk);
-				i++;
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
 			}
+			if (this.blockPosition >= this.blockLimit && !this.nextBlock()) {
+				return -1;
+			}
+			var read = 0;
+			while (read < len) {
+				if (this.blockPosition >= this.blockLimit) {
+					// only block on the underlying stream if nothing has been read yet
+					if (this.in.available() < BLOCK_SIZE || !this.nextBlock()) {
+						break;
+					}
+				}
+				var n = Math.min(len - read, this.blockLimit - this.blockPosition);
+				System.arraycopy(this.block, this.blockPosition, b, off + read, n);
+				this.blockPosition += n;
+				read += n;
+			}
+			return read;
 		}
 
 		@Override
-		public int read() throws IOException {
-			if (this.filled && this.out.available() > 0) {
-				return this.out.read();
+		public long skip(long n) throws IOException {
+			var skipped = 0L;
+			while (skipped < n) {
+				if (this.blockPosition >= this.blockLimit && !this.nextBlock()) {
+					break;
+				}
+				var count = (int) Math.min(n - skipped, this.blockLimit - this.blockPosition);
+				this.blockPosition += count;
+				skipped += count;
+			}
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return this.blockLimit - this.blockPosition;
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.in.close();
+		}
+
+		private boolean nextBlock() throws IOException {
+			var length = 0;
+			while (length < BLOCK_SIZE) {
+				var read = this.in.read(this.block, length, BLOCK_SIZE - length);
+				if (read == -1) {
+					break;
+				}
+				length += read;
+			}
+			this.blockPosition = 0;
+			this.blockLimit = length;
+			if (length == 0) {
+				return false;
 			}
-			var chunk = this.in.readNBytes(BLOCK_SIZE);
-			this.buff.clear();
-			this.filled = true;
-			if (this.i % 3 > 0 || chunk.length < BLOCK_SIZE) {
-				this.buff.put(chunk);
-			} else {
-				byte[] decryptedChunk;
+
+			// every third full block is encrypted
+			if (this.i % 3 == 0 && length == BLOCK_SIZE) {
 				try {
-					decryptedChunk = this.cipher.doFinal(chunk);
-				} catch (IllegalBlockSizeException | BadPaddingException e) {
-					throw new RuntimeException(e);
+					// doFinal resets the cipher to its initial IV, so it can be reused for the next encrypted block
+					this.cipher.doFinal(this.block, 0, BLOCK_SIZE, this.block, 0);
+				} catch (ShortBufferException | IllegalBlockSizeException | BadPaddingException e) {
+					throw new IOException("Failed to decrypt block", e);
+				}
+			}
+			this.i++;
+
+			// drop the part of the first block before the requested position
+			if (this.discard > 0) {
+				this.blockPosition = Math.min(this.discard, this.blockLimit);
+				this.discard = 0;
+				if (this.blockPosition >= this.blockLimit) {
+					return this.nextBlock();
 				}
-				this.buff.put(decryptedChunk);
 			}
-			i++;
-			this.buff.flip();
-			return this.out.read();
+			return true;
 		}
 
 	}
@@ -0,0 +1,14 @@
+package com.github.topi314.lavasrc.deezer;
+
+/**
+ * Thrown when Deezer rejected the api or license token of a session, so the request may succeed with a new session.
+ */
+public class DeezerSessionException extends IllegalStateException {
+
+	private static final long serialVersionUID = 4316592711630918452L;
+
+	public DeezerSessionException(String message) {
+		super(message);
+	}
+
+}
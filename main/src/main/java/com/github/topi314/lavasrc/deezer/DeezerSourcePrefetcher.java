@@ -0,0 +1,217 @@
+package com.github.topi314.lavasrc.deezer;
+
+import com.github.topi314.lavasrc.LavaSrcTools;
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.apache.http.client.config.CookieSpecs;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resolves the media urls of multiple Deezer tracks with one {@code song.getListData} and one {@code media/get_url} request
+ * and caches them until their signed urls expire, so starting a prefetched track needs no API calls.
+ */
+public class DeezerSourcePrefetcher {
+
+	public static final int MAX_BATCH_SIZE = 50;
+
+	private static final int MAX_CACHED_SOURCES = 10000;
+	// media urls without an expiry are assumed to be valid for this long
+	private static final long DEFAULT_SOURCE_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+	// sources expiring within this margin are not handed out anymore as playback might outlast them
+	private static final long EXPIRY_MARGIN_MS = TimeUnit.SECONDS.toMillis(30);
+
+	private static final Logger log = LoggerFactory.getLogger(DeezerSourcePrefetcher.class);
+
+	private final DeezerAudioSourceManager sourceManager;
+	private final Map<String, CachedSource> sources = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CachedSource> eldest) {
+			return size() > MAX_CACHED_SOURCES;
+		}
+	};
+	private final ReentrantLock sourcesLock = new ReentrantLock();
+
+	public DeezerSourcePrefetcher(DeezerAudioSourceManager sourceManager) {
+		this.sourceManager = sourceManager;
+	}
+
+	/**
+	 * Resolves and caches the media urls of the given tracks. Tracks which are not Deezer tracks, previews or already cached are ignored.
+	 * Tracks are grouped by the arl they are played with, each group is resolved in batches of {@link #MAX_BATCH_SIZE}.
+	 */
+	public void prefetch(List<? extends AudioTrack> tracks) throws IOException {
+		var tracksByArl = new LinkedHashMap<String, List<DeezerAudioTrack>>();
+		for (var track : tracks) {
+			if (!(track instanceof DeezerAudioTrack) || ((DeezerAudioTrack) track).isPreview()) {
+				continue;
+			}
+			var deezerTrack = (DeezerAudioTrack) track;
+			var arl = deezerTrack.resolveArl();
+			if (this.get(arl, deezerTrack.getIdentifier()) != null) {
+				continue;
+			}
+			tracksByArl.computeIfAbsent(arl, k -> new ArrayList<>()).add(deezerTrack);
+		}
+
+		for (var entry : tracksByArl.entrySet()) {
+			var ids = entry.getValue().stream().map(AudioTrack::getIdentifier).distinct().collect(Collectors.toList());
+			for (var i = 0; i < ids.size(); i += MAX_BATCH_SIZE) {
+				this.fetchBatch(entry.getKey(), ids.subList(i, Math.min(ids.size(), i + MAX_BATCH_SIZE)));
+			}
+		}
+	}
+
+	/**
+	 * Returns the cached source of the given track if it is still valid for playback.
+	 */
+	@Nullable
+	public DeezerAudioTrack.SourceWithFormat get(String arl, String trackId) {
+		this.sourcesLock.lock();
+		try {
+			var cached = this.sources.get(getKey(arl, trackId));
+			if (cached == null) {
+				return null;
+			}
+			if (System.currentTimeMillis() >= cached.expiresAt - EXPIRY_MARGIN_MS) {
+				this.sources.remove(getKey(arl, trackId));
+				return null;
+			}
+			return cached.source;
+		} finally {
+			this.sourcesLock.unlock();
+		}
+	}
+
+	public void invalidate(String arl, String trackId) {
+		this.sourcesLock.lock();
+		try {
+			this.sources.remove(getKey(arl, trackId));
+		} finally {
+			this.sourcesLock.unlock();
+		}
+	}
+
+	public void clear() {
+		this.sourcesLock.lock();
+		try {
+			this.sources.clear();
+		} finally {
+			this.sourcesLock.unlock();
+		}
+	}
+
+	private void fetchBatch(String arl, List<String> ids) throws IOException {
+		var tokens = this.sourceManager.getTokenTracker().getUserTokens(arl);
+		try (var httpInterface = this.sourceManager.getHttpInterface()) {
+			var cookieStore = new BasicCookieStore();
+			httpInterface.getContext().setCookieStore(cookieStore);
+			httpInterface.getContext().setRequestConfig(
+				RequestConfig.copy(httpInterface.getContext().getRequestConfig())
+					.setCookieSpec(CookieSpecs.STANDARD)
+					.build()
+			);
+			cookieStore.addCookie(DeezerTokenTracker.createCookie("arl", arl));
+			cookieStore.addCookie(DeezerTokenTracker.createCookie("sid", tokens.sessionId));
+
+			var trackData = this.fetchTrackData(httpInterface, tokens.api, ids);
+
+			var requested = new ArrayList<String>();
+			var trackTokens = new ArrayList<String>();
+			for (var id : ids) {
+				var data = trackData.get(id);
+				if (data == null) {
+					continue;
+				}
+				var fallbackId = DeezerAudioTrack.getFallbackId(data);
+				var trackToken = (fallbackId != null ? data.get("FALLBACK") : data).get("TRACK_TOKEN").text();
+				if (trackToken == null) {
+					continue;
+				}
+				requested.add(id);
+				trackTokens.add("\"" + trackToken + "\"");
+			}
+			if (trackTokens.isEmpty()) {
+				return;
+			}
+
+			var getMediaURL = new HttpPost(this.sourceManager.resolveUrl(DeezerAudioSourceManager.MEDIA_BASE + "/get_url"));
+			getMediaURL.setEntity(new StringEntity("{\"license_token\":\"" + tokens.license + "\",\"media\":[{\"type\":\"FULL\",\"formats\":[" + DeezerAudioTrack.formatFormats(this.sourceManager.getFormats()) + "]}],\"track_tokens\": [" + String.join(",", trackTokens) + "]}", ContentType.APPLICATION_JSON));
+			var json = LavaSrcTools.fetchResponseAsJson(httpInterface, getMediaURL);
+			DeezerAudioSourceManager.checkMediaResponse(json, "Failed to get media URLs");
+
+			// media urls are returned in the order of the track tokens
+			var media = json.get("data").values();
+			var cached = 0;
+			for (var i = 0; i < Math.min(media.size(), requested.size()); i++) {
+				var id = requested.get(i);
+				var data = trackData.get(id);
+				var fallbackId = DeezerAudioTrack.getFallbackId(data);
+				try {
+					var source = DeezerAudioTrack.SourceWithFormat.fromMedia(media.get(i), fallbackId != null ? data.get("FALLBACK") : data, fallbackId);
+					this.put(arl, id, source, media.get(i).get("media").index(0).get("exp").asLong(0));
+					cached++;
+				} catch (IllegalStateException | URISyntaxException e) {
+					log.debug("No media url found for Deezer track {}", id, e);
+				}
+			}
+			log.debug("Prefetched {} of {} Deezer media urls", cached, ids.size());
+		} catch (DeezerSessionException e) {
+			// the next playback or prefetch creates a new session
+			this.sourceManager.getTokenTracker().invalidateUserTokens(arl, tokens);
+			throw e;
+		}
+	}
+
+	private Map<String, JsonBrowser> fetchTrackData(HttpInterface httpInterface, String apiToken, List<String> ids) throws IOException {
+		var getListData = new HttpPost(this.sourceManager.resolveUrl(DeezerAudioSourceManager.PRIVATE_API_BASE + "?method=song.getListData&input=3&api_version=1.0&api_token=" + apiToken));
+		getListData.setEntity(new StringEntity("{\"sng_ids\":[" + String.join(",", ids) + "]}", ContentType.APPLICATION_JSON));
+		var json = LavaSrcTools.fetchResponseAsJson(httpInterface, getListData);
+		DeezerAudioSourceManager.checkResponse(json, "Failed to get track tokens");
+
+		var trackData = new HashMap<String, JsonBrowser>();
+		for (var data : json.get("results").get("data").values()) {
+			trackData.put(data.get("SNG_ID").text(), data);
+		}
+		return trackData;
+	}
+
+	private void put(String arl, String trackId, DeezerAudioTrack.SourceWithFormat source, long expiresAtSeconds) {
+		var expiresAt = expiresAtSeconds > 0 ? TimeUnit.SECONDS.toMillis(expiresAtSeconds) : System.currentTimeMillis() + DEFAULT_SOURCE_TTL_MS;
+		this.sourcesLock.lock();
+		try {
+			this.sources.put(getKey(arl, trackId), new CachedSource(source, expiresAt));
+		} finally {
+			this.sourcesLock.unlock();
+		}
+	}
+
+	private static String getKey(String arl, String trackId) {
+		return arl + ":" + trackId;
+	}
+
+	private static class CachedSource {
+		private final DeezerAudioTrack.SourceWithFormat source;
+		private final long expiresAt;
+
+		private CachedSource(DeezerAudioTrack.SourceWithFormat source, long expiresAt) {
+			this.source = source;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+}
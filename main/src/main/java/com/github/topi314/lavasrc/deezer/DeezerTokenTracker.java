@@ -1,17 +1,26 @@
 package com.github.topi314.lavasrc.deezer;
 
+import com.github.topi314.lavasrc.LavaSrcMetrics;
 import com.github.topi314.lavasrc.LavaSrcTools;
 import org.apache.http.client.config.CookieSpecs;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.cookie.BasicClientCookie;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class DeezerTokenTracker {
 
+	private static final long SESSION_TTL_SECONDS = 3600;
+	private static final int MAX_USER_SESSIONS = 1000;
+
 	private final DeezerAudioSourceManager sourceManager;
 
 
@@ -19,6 +28,16 @@ public class DeezerTokenTracker {
 
 	private Tokens tokens;
 
+	// sessions used for playback, keyed by the arl they were created with
+	private final Map<String, Tokens> userSessions = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Tokens> eldest) {
+			return size() > MAX_USER_SESSIONS;
+		}
+	};
+	private final ReentrantLock userSessionsLock = new ReentrantLock();
+	private final ReentrantLock[] userSessionLocks = new ReentrantLock[32];
+
 
 	public DeezerTokenTracker(DeezerAudioSourceManager sourceManager, String arl) {
 		this.sourceManager = sourceManager;
@@ -26,6 +45,9 @@ public class DeezerTokenTracker {
 			throw new NullPointerException("Deezer arl must be set");
 		}
 		this.arl = arl;
+		for (int i = 0; i < this.userSessionLocks.length; i++) {
+			this.userSessionLocks[i] = new ReentrantLock();
+		}
 	}
 
 	public String getArl() {
@@ -36,10 +58,28 @@ public class DeezerTokenTracker {
 		if (arl == null || arl.isEmpty()) {
 			throw new NullPointerException("Deezer arl must be set");
 		}
+		var oldArl = this.arl;
 		this.arl = arl;
+		this.invalidateUserTokens(oldArl, null);
 	}
 
 	private void refreshSession() throws IOException {
+		this.tokens = this.createSession(null);
+	}
+
+	private Tokens createSession(@Nullable String arl) throws IOException {
+		var start = System.nanoTime();
+		var success = false;
+		try {
+			var tokens = this.fetchSession(arl);
+			success = true;
+			return tokens;
+		} finally {
+			LavaSrcMetrics.tokenRefresh("deezer", arl == null ? "session" : "user", success, start);
+		}
+	}
+
+	private Tokens fetchSession(@Nullable String arl) throws IOException {
 		try (var httpInterface = sourceManager.getHttpInterface()) {
 			var cookieStore = new BasicCookieStore();
 			httpInterface.getContext().setCookieStore(cookieStore);
@@ -48,8 +88,11 @@ public class DeezerTokenTracker {
 					.setCookieSpec(CookieSpecs.STANDARD)
 					.build()
 			);
+			if (arl != null) {
+				cookieStore.addCookie(createCookie("arl", arl));
+			}
 
-			var getUserToken = new HttpPost(DeezerAudioSourceManager.PRIVATE_API_BASE + "?method=deezer.getUserData&input=3&api_version=1.0&api_token=");
+			var getUserToken = new HttpPost(this.sourceManager.resolveUrl(DeezerAudioSourceManager.PRIVATE_API_BASE + "?method=deezer.getUserData&input=3&api_version=1.0&api_token="));
 			var json = LavaSrcTools.fetchResponseAsJson(httpInterface, getUserToken);
 			DeezerAudioSourceManager.checkResponse(json, "Failed to get user token");
 
@@ -69,16 +112,17 @@ public class DeezerTokenTracker {
 			if (sessionID == null) {
 				throw new IOException("Failed to find sid cookie");
 			}
-			if (dzrUniqId == null) {
+			// logged in sessions are identified by the arl instead
+			if (dzrUniqId == null && arl == null) {
 				throw new IOException("Failed to find dzr uniq id cookie");
 			}
 
-			this.tokens = new Tokens(
+			return new Tokens(
 				sessionID,
 				dzrUniqId,
 				json.get("results").get("checkForm").text(),
 				json.get("results").get("USER").get("OPTIONS").get("license_token").text(),
-				Instant.now().plus(3600, ChronoUnit.SECONDS)
+				Instant.now().plus(SESSION_TTL_SECONDS, ChronoUnit.SECONDS)
 			);
 		}
 	}
@@ -90,6 +134,76 @@ public class DeezerTokenTracker {
 		return this.tokens;
 	}
 
+	/**
+	 * Returns the cached session for the given arl, creating a new one if there is none or it expired.
+	 * The session id has to be sent as {@code sid} cookie alongside the arl for the api & license token to be accepted.
+	 */
+	public Tokens getUserTokens(String arl) throws IOException {
+		var tokens = this.getCachedUserTokens(arl);
+		if (tokens != null) {
+			return tokens;
+		}
+
+		var lock = this.userSessionLocks[(arl.hashCode() & Integer.MAX_VALUE) % this.userSessionLocks.length];
+		lock.lock();
+		try {
+			tokens = this.getCachedUserTokens(arl);
+			if (tokens != null) {
+				return tokens;
+			}
+			tokens = this.createSession(arl);
+			this.userSessionsLock.lock();
+			try {
+				this.userSessions.put(arl, tokens);
+			} finally {
+				this.userSessionsLock.unlock();
+			}
+			return tokens;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the cached session for the given arl, for example after Deezer rejected its tokens.
+	 * If {@code tokens} is not null the session is only removed if it has not been replaced in the meantime.
+	 */
+	public void invalidateUserTokens(String arl, @Nullable Tokens tokens) {
+		this.userSessionsLock.lock();
+		try {
+			if (tokens == null) {
+				this.userSessions.remove(arl);
+			} else {
+				this.userSessions.remove(arl, tokens);
+			}
+		} finally {
+			this.userSessionsLock.unlock();
+		}
+	}
+
+	@Nullable
+	private Tokens getCachedUserTokens(String arl) {
+		this.userSessionsLock.lock();
+		try {
+			var tokens = this.userSessions.get(arl);
+			if (tokens == null || Instant.now().isAfter(tokens.expireAt)) {
+				return null;
+			}
+			return tokens;
+		} finally {
+			this.userSessionsLock.unlock();
+		}
+	}
+
+	static BasicClientCookie createCookie(String name, String value) {
+		var cookie = new BasicClientCookie(name, value);
+		cookie.setPath("/");
+		cookie.setSecure(true);
+		cookie.setDomain("deezer.com");
+		cookie.setAttribute("domain", ".deezer.com");
+		return cookie;
+	}
+
 	public static class Tokens {
 		public String sessionId;
 		public String dzrUniqId;
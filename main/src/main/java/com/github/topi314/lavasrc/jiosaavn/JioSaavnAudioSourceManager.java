@@ -4,7 +4,7 @@ import com.github.topi314.lavasearch.AudioSearchManager;
 import com.github.topi314.lavasearch.result.AudioSearchResult;
 import com.github.topi314.lavasrc.ExtendedAudioPlaylist;
 import com.github.topi314.lavasrc.ExtendedAudioSourceManager;
-import com.github.topi314.lavasrc.LavaSrcTools;
+import com.github.topi314.lavasrc.RequestCoalescer;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
@@ -56,6 +56,7 @@ public class JioSaavnAudioSourceManager extends ExtendedAudioSourceManager imple
 
 	private static final Logger log = LoggerFactory.getLogger(JioSaavnAudioSourceManager.class);
 	private final HttpInterfaceManager httpInterfaceManager = HttpClientTools.createCookielessThreadLocalManager();
+	private final RequestCoalescer requestCoalescer = new RequestCoalescer();
 	private final JioSaavnConfig config;
 
 	public JioSaavnAudioSourceManager(@NotNull JioSaavnConfig config) {
@@ -95,17 +96,22 @@ public class JioSaavnAudioSourceManager extends ExtendedAudioSourceManager imple
 	public AudioItem loadItem(AudioPlayerManager manager, AudioReference reference) {
 		String identifier = reference.identifier;
 		boolean isPreview = reference.identifier.startsWith(PREVIEW_PREFIX);
-		return this.loadItem(isPreview ? identifier.substring(PREVIEW_PREFIX.length()) : identifier, isPreview);
+		return this.loadItem(manager, isPreview ? identifier.substring(PREVIEW_PREFIX.length()) : identifier, isPreview);
 	}
 
 	public AudioItem loadItem(String identifier, boolean preview) {
+		return this.loadItem(null, identifier, preview);
+	}
+
+	private AudioItem loadItem(@Nullable AudioPlayerManager manager, String identifier, boolean preview) {
+		String key = preview ? PREVIEW_PREFIX + identifier : identifier;
 		try {
 			if (identifier.startsWith(SEARCH_PREFIX)) {
-				return getSearch(identifier.substring(SEARCH_PREFIX.length()), preview);
+				return this.loadItemCached(manager, key, () -> getSearch(identifier.substring(SEARCH_PREFIX.length()), preview));
 			}
 
 			if (identifier.startsWith(RECOMMENDATIONS_PREFIX)) {
-				return getRecommendations(identifier.substring(RECOMMENDATIONS_PREFIX.length()));
+				return this.loadItemCached(manager, key, () -> getRecommendations(identifier.substring(RECOMMENDATIONS_PREFIX.length())));
 			}
 
 			Matcher matcher = URL_PATTERN.matcher(identifier);
@@ -119,15 +125,15 @@ public class JioSaavnAudioSourceManager extends ExtendedAudioSourceManager imple
 			switch (type) {
 				case "s/playlist":
 					String playlistId = identifier.substring(identifier.lastIndexOf("/") + 1);
-					return getPlaylist(playlistId, preview);
+					return this.loadItemCached(manager, key, () -> getPlaylist(playlistId, preview));
 				case "album":
-					return getAlbum(id, preview);
+					return this.loadItemCached(manager, key, () -> getAlbum(id, preview));
 				case "song":
-					return getTrack(id, preview);
+					return this.loadItemCached(manager, key, () -> getTrack(id, preview));
 				case "featured":
-					return getPlaylist(id, preview);
+					return this.loadItemCached(manager, key, () -> getPlaylist(id, preview));
 				case "artist":
-					return getArtist(id, preview);
+					return this.loadItemCached(manager, key, () -> getArtist(id, preview));
 				default:
 					return null;
 			}
@@ -137,9 +143,9 @@ public class JioSaavnAudioSourceManager extends ExtendedAudioSourceManager imple
 	}
 
 	public JsonBrowser getJson(String uri) throws IOException {
-		HttpGet request = new HttpGet(uri);
+		HttpGet request = new HttpGet(this.resolveUrl(uri));
 		request.setHeader("Accept", "application/json");
-		return LavaSrcTools.fetchResponseAsJson(httpInterfaceManager.getInterface(), request);
+		return this.requestCoalescer.fetchResponseAsJson(httpInterfaceManager.getInterface(), request);
 	}
 
 	private List<AudioTrack> localParseTracks(JsonBrowser json, boolean preview, boolean metadataType) {
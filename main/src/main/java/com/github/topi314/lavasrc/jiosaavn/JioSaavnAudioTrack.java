@@ -54,7 +54,7 @@ public class JioSaavnAudioTrack extends ExtendedAudioTrack {
 	private URI getTrackMediaURI() throws IOException, URISyntaxException {
 		String identifier = this.getIdentifier();
 		String requestUrl = String.format("https://www.jiosaavn.com/api.php?__call=song.getDetails&cc=in&_marker=0&_format=json&pids=%s", identifier);
-		HttpGet dataRequest = new HttpGet(requestUrl);
+		HttpGet dataRequest = new HttpGet(this.sourceManager.resolveUrl(requestUrl));
 
 		JsonBrowser jsonResponse = LavaSrcTools.fetchResponseAsJson(this.sourceManager.getHttpInterface(), dataRequest);
 		checkResponse(jsonResponse, "Failed to get track details: ");
@@ -3,6 +3,7 @@ package com.github.topi314.lavasrc.lrclib;
 import com.github.topi314.lavalyrics.AudioLyricsManager;
 import com.github.topi314.lavalyrics.lyrics.AudioLyrics;
 import com.github.topi314.lavalyrics.lyrics.BasicAudioLyrics;
+import com.github.topi314.lavasrc.BaseUrls;
 import com.github.topi314.lavasrc.LavaSrcTools;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
@@ -21,14 +22,19 @@ import java.util.ArrayList;
 
 public class LrcLibLyricsManager implements AudioLyricsManager {
 
-	private static final String API_BASE = "https://lrclib.net/api/";
+	public static final String API_BASE = "https://lrclib.net/api/";
 
 	private final HttpInterfaceManager httpInterfaceManager;
+	private final BaseUrls baseUrls = new BaseUrls();
 
 	public LrcLibLyricsManager() {
 		this.httpInterfaceManager = HttpClientTools.createCookielessThreadLocalManager();
 	}
 
+	public void setBaseUrl(String baseUrl, @Nullable String override) {
+		this.baseUrls.set(baseUrl, override);
+	}
+
 	@NotNull
 	@Override
 	public String getSourceName() {
@@ -47,7 +53,7 @@ public class LrcLibLyricsManager implements AudioLyricsManager {
 	private AudioLyrics searchLyrics(String query, String trackName, String artistName, String albumName) throws IOException {
 		URI uri;
 		try {
-			var uriBuilder = new URIBuilder(API_BASE + "search");
+			var uriBuilder = new URIBuilder(this.baseUrls.resolve(API_BASE + "search"));
 			if (query != null) {
 				uriBuilder.addParameter("q", query);
 			}
@@ -0,0 +1,57 @@
+package com.github.topi314.lavasrc.mirror;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class CachingMirroringAudioTrackResolver implements MirroringAudioTrackResolver {
+
+	private static final Logger log = LoggerFactory.getLogger(CachingMirroringAudioTrackResolver.class);
+
+	private final MirroringAudioTrackResolver delegate;
+	private final MirroringAudioTrackCache cache;
+
+	public CachingMirroringAudioTrackResolver(MirroringAudioTrackResolver delegate, MirroringAudioTrackCache cache) {
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+
+	@Override
+	public AudioItem apply(MirroringAudioTrack mirroringAudioTrack) {
+		var key = MirroringAudioTrackCache.getKey(mirroringAudioTrack);
+		var cached = this.cache.get(mirroringAudioTrack, key);
+		if (cached != null) {
+			log.debug("Mirror cache hit for {} ({})", mirroringAudioTrack.getInfo().title, cached.isFound() ? cached.track.getIdentifier() : "not found");
+			return cached.isFound() ? cached.track : AudioReference.NO_TRACK;
+		}
+
+		var item = this.delegate.apply(mirroringAudioTrack);
+
+		AudioTrack mirror = null;
+		if (item instanceof AudioTrack) {
+			mirror = (AudioTrack) item;
+		} else if (item instanceof AudioPlaylist && !((AudioPlaylist) item).getTracks().isEmpty()) {
+			mirror = ((AudioPlaylist) item).getTracks().get(0);
+		}
+
+		if (mirror != null) {
+			this.cache.put(mirroringAudioTrack, key, mirror);
+		} else if (item == AudioReference.NO_TRACK) {
+			// UNAVAILABLE results of failed providers are not cached, they may find the track once they recovered
+			this.cache.putNotFound(key);
+		}
+		return item;
+	}
+
+	public MirroringAudioTrackResolver getDelegate() {
+		return this.delegate;
+	}
+
+	public MirroringAudioTrackCache getCache() {
+		return this.cache;
+	}
+
+}
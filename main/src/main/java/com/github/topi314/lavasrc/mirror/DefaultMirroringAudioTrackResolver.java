@@ -1,5 +1,6 @@
 package com.github.topi314.lavasrc.mirror;
 
+import com.github.topi314.lavasrc.LavaSrcMetrics;
 import com.github.topi314.lavasrc.applemusic.AppleMusicSourceManager;
 import com.github.topi314.lavasrc.spotify.SpotifySourceManager;
 import com.sedmelluq.discord.lavaplayer.track.AudioItem;
@@ -8,6 +9,14 @@ import com.sedmelluq.discord.lavaplayer.track.AudioReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 public class DefaultMirroringAudioTrackResolver implements MirroringAudioTrackResolver {
 
 	private static final Logger log = LoggerFactory.getLogger(DefaultMirroringAudioTrackResolver.class);
@@ -16,6 +25,10 @@ public class DefaultMirroringAudioTrackResolver implements MirroringAudioTrackRe
 		"ytsearch:\"" + MirroringAudioSourceManager.ISRC_PATTERN + "\"",
 		"ytsearch:" + MirroringAudioSourceManager.QUERY_PATTERN
 	};
+	// Delay in milliseconds after which the next provider is started while the previous one is still loading, -1 to disable hedging
+	private long hedgeDelay = -1;
+	// Maximum time in milliseconds a single provider may take, 0 to wait indefinitely
+	private long providerTimeout = 0;
 
 	public DefaultMirroringAudioTrackResolver(String[] providers) {
 		if (providers != null && providers.length > 0) {
@@ -23,9 +36,127 @@ public class DefaultMirroringAudioTrackResolver implements MirroringAudioTrackRe
 		}
 	}
 
+	/**
+	 * Enables hedged resolution. Providers are still ranked in the configured order, but the next provider is started
+	 * once the previous one has been loading for {@code hedgeDelay} milliseconds. A delay of 0 starts all providers at once,
+	 * a negative delay resolves strictly one after another.
+	 */
+	public void setHedgeDelay(long hedgeDelay) {
+		this.hedgeDelay = hedgeDelay;
+	}
+
+	public void setProviderTimeout(long providerTimeout) {
+		this.providerTimeout = Math.max(0, providerTimeout);
+	}
+
 	@Override
 	public AudioItem apply(MirroringAudioTrack mirroringAudioTrack) {
-		for (var provider : providers) {
+		var queries = this.buildQueries(mirroringAudioTrack);
+		if (this.hedgeDelay >= 0 && queries.size() > 1) {
+			return this.applyHedged(mirroringAudioTrack, queries);
+		}
+
+		var failed = false;
+		for (var query : queries) {
+			AudioItem item;
+			try {
+				item = this.load(mirroringAudioTrack, query).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return UNAVAILABLE;
+			} catch (Exception e) {
+				log.error("Failed to load track from provider \"{}\"!", query, unwrap(e));
+				failed = true;
+				continue;
+			}
+			if (isAcceptable(item)) {
+				return item;
+			}
+		}
+
+		// only report the track as not found if every provider answered
+		return failed ? UNAVAILABLE : AudioReference.NO_TRACK;
+	}
+
+	private AudioItem applyHedged(MirroringAudioTrack mirroringAudioTrack, List<String> queries) {
+		var futures = new ArrayList<CompletableFuture<AudioItem>>(queries.size());
+		var failed = false;
+		try {
+			var nextLaunch = System.nanoTime();
+			for (var i = 0; i < queries.size(); i++) {
+				AudioItem item = null;
+				while (true) {
+					// Start every provider up to the current one, and hedge the following ones once their delay has passed
+					while (futures.size() < queries.size() && (futures.size() <= i || System.nanoTime() - nextLaunch >= 0)) {
+						futures.add(this.load(mirroringAudioTrack, queries.get(futures.size())));
+						nextLaunch = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.hedgeDelay);
+					}
+
+					var future = futures.get(i);
+					try {
+						if (futures.size() < queries.size()) {
+							item = future.get(Math.max(1, TimeUnit.NANOSECONDS.toMillis(nextLaunch - System.nanoTime())), TimeUnit.MILLISECONDS);
+						} else {
+							item = future.get();
+						}
+						break;
+					} catch (TimeoutException e) {
+						// The hedge delay elapsed before this provider finished, start the next one and keep waiting
+					} catch (ExecutionException e) {
+						log.error("Failed to load track from provider \"{}\"!", queries.get(i), unwrap(e));
+						failed = true;
+						break;
+					}
+				}
+				if (item != null && isAcceptable(item)) {
+					return item;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			failed = true;
+		} finally {
+			// Higher priority providers have all failed at this point, the remaining ones lost the race
+			for (var future : futures) {
+				future.cancel(true);
+			}
+		}
+		return failed ? UNAVAILABLE : AudioReference.NO_TRACK;
+	}
+
+	private CompletableFuture<AudioItem> load(MirroringAudioTrack mirroringAudioTrack, String query) {
+		var start = System.nanoTime();
+		var future = mirroringAudioTrack.loadItemAsync(query);
+		if (this.providerTimeout > 0) {
+			future.orTimeout(this.providerTimeout, TimeUnit.MILLISECONDS);
+		}
+		future.whenComplete((item, throwable) -> {
+			// providers which lost a hedged race didn't fail, they were cancelled
+			if (!(throwable instanceof CancellationException)) {
+				LavaSrcMetrics.mirrorResolve(getProviderName(query), throwable == null && isAcceptable(item), start);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * The search or lookup prefix of the query, like {@code ytsearch} or {@code dzisrc}.
+	 */
+	private static String getProviderName(String query) {
+		var separator = query.indexOf(':');
+		if (separator <= 0 || query.startsWith("http")) {
+			return "url";
+		}
+		return query.substring(0, separator);
+	}
+
+	private static Throwable unwrap(Exception e) {
+		return e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+	}
+
+	private List<String> buildQueries(MirroringAudioTrack mirroringAudioTrack) {
+		var queries = new ArrayList<String>(this.providers.length);
+		for (var provider : this.providers) {
 			if (provider.startsWith(SpotifySourceManager.SEARCH_PREFIX)) {
 				log.warn("Can not use spotify search as search provider!");
 				continue;
@@ -37,31 +168,23 @@ public class DefaultMirroringAudioTrackResolver implements MirroringAudioTrackRe
 			}
 
 			if (provider.contains(MirroringAudioSourceManager.ISRC_PATTERN)) {
-				if (mirroringAudioTrack.getInfo().isrc != null && !mirroringAudioTrack.getInfo().isrc.isEmpty()) {
-					provider = provider.replace(MirroringAudioSourceManager.ISRC_PATTERN, mirroringAudioTrack.getInfo().isrc.replace("-", ""));
+				var isrc = mirroringAudioTrack.getIsrc();
+				if (isrc != null && !isrc.isEmpty()) {
+					provider = provider.replace(MirroringAudioSourceManager.ISRC_PATTERN, isrc.replace("-", ""));
 				} else {
 					log.debug("Ignoring identifier \"{}\" because this track does not have an ISRC!", provider);
 					continue;
 				}
 			}
 
-			provider = provider.replace(MirroringAudioSourceManager.QUERY_PATTERN, getTrackTitle(mirroringAudioTrack));
-
-			AudioItem item;
-			try {
-				item = mirroringAudioTrack.loadItem(provider);
-			} catch (Exception e) {
-				log.error("Failed to load track from provider \"{}\"!", provider, e);
-				continue;
-			}
-			// If the track is an empty playlist, skip the provider
-			if (item instanceof AudioPlaylist && ((AudioPlaylist) item).getTracks().isEmpty() || item == AudioReference.NO_TRACK) {
-				continue;
-			}
-			return item;
+			queries.add(provider.replace(MirroringAudioSourceManager.QUERY_PATTERN, getTrackTitle(mirroringAudioTrack)));
 		}
+		return queries;
+	}
 
-		return AudioReference.NO_TRACK;
+	private static boolean isAcceptable(AudioItem item) {
+		// If the track is an empty playlist, skip the provider
+		return !(item instanceof AudioPlaylist && ((AudioPlaylist) item).getTracks().isEmpty() || item == AudioReference.NO_TRACK);
 	}
 
 	public String getTrackTitle(MirroringAudioTrack mirroringAudioTrack) {
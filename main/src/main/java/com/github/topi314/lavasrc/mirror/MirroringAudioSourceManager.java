@@ -6,12 +6,15 @@ import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpConfigurable;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -22,16 +25,23 @@ public abstract class MirroringAudioSourceManager extends ExtendedAudioSourceMan
 	private static final Logger log = LoggerFactory.getLogger(MirroringAudioSourceManager.class);
 	protected final Function<Void, AudioPlayerManager> audioPlayerManager;
 	protected final MirroringAudioTrackResolver resolver;
+	@Nullable
+	protected MirroringAudioTrackPreResolver preResolver;
 
-	protected final HttpInterfaceManager httpInterfaceManager = HttpClientTools.createDefaultThreadLocalManager();
+	protected final HttpInterfaceManager httpInterfaceManager;
 
 	protected MirroringAudioSourceManager(AudioPlayerManager audioPlayerManager, MirroringAudioTrackResolver resolver) {
 		this(unused -> audioPlayerManager, resolver);
 	}
 
 	protected MirroringAudioSourceManager(Function<Void, AudioPlayerManager> audioPlayerManager, MirroringAudioTrackResolver resolver) {
+		this(audioPlayerManager, resolver, HttpClientTools.createDefaultThreadLocalManager());
+	}
+
+	protected MirroringAudioSourceManager(Function<Void, AudioPlayerManager> audioPlayerManager, MirroringAudioTrackResolver resolver, HttpInterfaceManager httpInterfaceManager) {
 		this.audioPlayerManager = audioPlayerManager;
 		this.resolver = resolver;
+		this.httpInterfaceManager = httpInterfaceManager;
 	}
 
 	@Override
@@ -65,4 +75,19 @@ public abstract class MirroringAudioSourceManager extends ExtendedAudioSourceMan
 		return this.resolver;
 	}
 
+	@Nullable
+	public MirroringAudioTrackPreResolver getPreResolver() {
+		return this.preResolver;
+	}
+
+	public void setPreResolver(@Nullable MirroringAudioTrackPreResolver preResolver) {
+		this.preResolver = preResolver;
+	}
+
+	protected void preResolve(List<AudioTrack> tracks) {
+		if (this.preResolver != null) {
+			this.preResolver.onPlaylistLoaded(tracks);
+		}
+	}
+
 }
@@ -1,6 +1,8 @@
 package com.github.topi314.lavasrc.mirror;
 
 import com.github.topi314.lavasrc.ExtendedAudioTrack;
+import com.github.topi314.lavasrc.LavaSrcExecutors;
+import com.github.topi314.lavasrc.LavaSrcMetrics;
 import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
 import com.sedmelluq.discord.lavaplayer.source.AudioSourceManager;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
@@ -8,11 +10,13 @@ import com.sedmelluq.discord.lavaplayer.tools.io.PersistentHttpStream;
 import com.sedmelluq.discord.lavaplayer.tools.io.SeekableInputStream;
 import com.sedmelluq.discord.lavaplayer.track.*;
 import com.sedmelluq.discord.lavaplayer.track.playback.LocalAudioTrackExecutor;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URI;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 public abstract class MirroringAudioTrack extends ExtendedAudioTrack {
 
@@ -40,7 +44,13 @@ public abstract class MirroringAudioTrack extends ExtendedAudioTrack {
 			}
 			return;
 		}
+		var preResolver = this.sourceManager.getPreResolver();
+		if (preResolver != null) {
+			preResolver.onTrackStart(this);
+		}
+		var start = System.nanoTime();
 		var track = this.sourceManager.getResolver().apply(this);
+		LavaSrcMetrics.mirrorResolve("all", track instanceof AudioTrack || track instanceof AudioPlaylist && !((AudioPlaylist) track).getTracks().isEmpty(), start);
 
 		if (track instanceof AudioPlaylist) {
 			var tracks = ((AudioPlaylist) track).getTracks();
@@ -56,17 +66,36 @@ public abstract class MirroringAudioTrack extends ExtendedAudioTrack {
 			processDelegate(internalTrack, executor);
 			return;
 		}
+		if (track == MirroringAudioTrackResolver.UNAVAILABLE) {
+			throw new FriendlyException("Failed to resolve a mirror for track, the mirror providers failed", FriendlyException.Severity.SUSPICIOUS, null);
+		}
 		throw new TrackNotFoundException("No mirror found for track");
 	}
 
+	/**
+	 * Returns the ISRC used to resolve the mirror of this track. Sources may override this to look it up lazily.
+	 */
+	@Nullable
+	public String getIsrc() {
+		return this.trackInfo.isrc;
+	}
+
 	@Override
 	public AudioSourceManager getSourceManager() {
 		return this.sourceManager;
 	}
 
 	public AudioItem loadItem(String query) {
+		return this.loadItemAsync(query).join();
+	}
+
+	/**
+	 * Loads a mirror candidate. In virtual thread mode the load runs on its own virtual thread instead of lavaplayer's fixed item loader pool,
+	 * so tracks resolving their mirror on playback don't queue up behind each other.
+	 */
+	public CompletableFuture<AudioItem> loadItemAsync(String query) {
 		var cf = new CompletableFuture<AudioItem>();
-		this.sourceManager.getAudioPlayerManager().loadItem(query, new AudioLoadResultHandler() {
+		var handler = new AudioLoadResultHandler() {
 
 			@Override
 			public void trackLoaded(AudioTrack track) {
@@ -91,8 +120,27 @@ public abstract class MirroringAudioTrack extends ExtendedAudioTrack {
 				log.debug("Failed to load: {}", query);
 				cf.completeExceptionally(exception);
 			}
+		};
+		var audioPlayerManager = this.sourceManager.getAudioPlayerManager();
+		Future<?> future;
+		if (LavaSrcExecutors.isVirtualThreads()) {
+			future = LavaSrcExecutors.getLoadExecutor().submit(() -> {
+				try {
+					audioPlayerManager.loadItemSync(new AudioReference(query, null), handler);
+				} catch (Throwable e) {
+					cf.completeExceptionally(e);
+				}
+			});
+		} else {
+			future = audioPlayerManager.loadItem(query, handler);
+		}
+		// Stop the underlying load if the caller gave up on it (cancelled or timed out)
+		cf.whenComplete((item, throwable) -> {
+			if (throwable != null && !future.isDone()) {
+				future.cancel(true);
+			}
 		});
-		return cf.join();
+		return cf;
 	}
 
 }
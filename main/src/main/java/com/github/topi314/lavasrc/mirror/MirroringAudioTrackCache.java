@@ -0,0 +1,334 @@
+package com.github.topi314.lavasrc.mirror;
+
+import com.github.topi314.lavasrc.cache.AudioItemCache;
+import com.github.topi314.lavasrc.cache.AudioItemCodec;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageInput;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageOutput;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded LRU cache of resolved mirror tracks, keyed by ISRC or by the normalized title and author of a track.
+ * Tracks are stored in their encoded form, so every lookup returns a fresh playable track.
+ * Failed resolutions are remembered as well, using a separate (usually shorter) TTL.
+ */
+public class MirroringAudioTrackCache {
+
+	public static final int DEFAULT_MAX_SIZE = 10000;
+	public static final Duration DEFAULT_TTL = Duration.ofHours(6);
+	public static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofMinutes(10);
+
+	private static final Logger log = LoggerFactory.getLogger(MirroringAudioTrackCache.class);
+
+	// keeps mirrors apart from the items of source managers when sharing a second tier with them
+	private static final String SECOND_TIER_PREFIX = "mirror:";
+
+	private final Map<String, Entry> entries;
+	private final ReentrantLock entriesLock = new ReentrantLock();
+	private final long ttl;
+	private final long negativeTtl;
+	@Nullable
+	private volatile AudioItemCache secondTier;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong negativeHits = new AtomicLong();
+	private final AtomicLong secondTierHits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	public MirroringAudioTrackCache() {
+		this(DEFAULT_MAX_SIZE, DEFAULT_TTL, DEFAULT_NEGATIVE_TTL);
+	}
+
+	public MirroringAudioTrackCache(int maxSize, Duration ttl, Duration negativeTtl) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be greater than 0");
+		}
+		this.ttl = ttl.toMillis();
+		this.negativeTtl = negativeTtl.toMillis();
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > maxSize) {
+					evictions.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	@Nullable
+	public static String getKey(MirroringAudioTrack track) {
+		var info = track.getInfo();
+		var isrc = track.getIsrc();
+		if (isrc != null && !isrc.isEmpty()) {
+			return "isrc:" + isrc.replace("-", "").toUpperCase(Locale.ROOT);
+		}
+		if (info.title == null || info.title.isEmpty()) {
+			return null;
+		}
+		var query = info.title;
+		if (info.author != null && !info.author.equals("unknown")) {
+			query += " " + info.author;
+		}
+		return "query:" + query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Looks up the mirror for the given track.
+	 *
+	 * @return the cached lookup or {@code null} if there is no valid entry for the track
+	 */
+	@Nullable
+	public Lookup get(MirroringAudioTrack track) {
+		return this.get(track, getKey(track));
+	}
+
+	/**
+	 * Looks up the mirror for the given track under an already computed {@link #getKey(MirroringAudioTrack) key}.
+	 * Computing the key may look up the ISRC of the track, so callers doing several operations for one track should only compute it once.
+	 */
+	@Nullable
+	public Lookup get(MirroringAudioTrack track, @Nullable String key) {
+		if (key == null) {
+			return null;
+		}
+
+		Entry entry;
+		this.entriesLock.lock();
+		try {
+			entry = this.entries.get(key);
+			if (entry != null && entry.expiresAt < System.currentTimeMillis()) {
+				this.entries.remove(key);
+				entry = null;
+			}
+		} finally {
+			this.entriesLock.unlock();
+		}
+		if (entry == null) {
+			var persisted = this.getPersisted(track, key);
+			if (persisted != null) {
+				this.secondTierHits.incrementAndGet();
+				return new Lookup(persisted);
+			}
+			this.misses.incrementAndGet();
+			return null;
+		}
+		if (entry.encodedTrack == null) {
+			this.negativeHits.incrementAndGet();
+			return Lookup.NOT_FOUND;
+		}
+
+		var decoded = decode(track.sourceManager.getAudioPlayerManager(), entry.encodedTrack);
+		if (decoded == null) {
+			this.invalidate(key);
+			this.misses.incrementAndGet();
+			return null;
+		}
+		this.hits.incrementAndGet();
+		return new Lookup(decoded);
+	}
+
+	public void put(MirroringAudioTrack track, AudioTrack mirror) {
+		this.put(track, getKey(track), mirror);
+	}
+
+	public void put(MirroringAudioTrack track, @Nullable String key, AudioTrack mirror) {
+		if (key == null) {
+			return;
+		}
+		var encoded = encode(track.sourceManager.getAudioPlayerManager(), mirror);
+		if (encoded == null) {
+			return;
+		}
+		this.putEntry(key, new Entry(encoded, System.currentTimeMillis() + this.ttl));
+
+		var secondTier = this.secondTier;
+		if (secondTier != null) {
+			try {
+				var item = AudioItemCodec.encode(track.sourceManager.getAudioPlayerManager(), mirror);
+				if (item != null) {
+					secondTier.put(SECOND_TIER_PREFIX + key, item);
+				}
+			} catch (IOException e) {
+				log.debug("Failed to persist mirror track {}", mirror.getIdentifier(), e);
+			}
+		}
+	}
+
+	/**
+	 * Sets a cache found mirrors are additionally written to and looked up in on misses, e.g. a {@link com.github.topi314.lavasrc.cache.DiskAudioItemCache}.
+	 * Negative lookups are only kept in memory.
+	 */
+	public void setSecondTier(@Nullable AudioItemCache secondTier) {
+		this.secondTier = secondTier;
+	}
+
+	public void putNotFound(MirroringAudioTrack track) {
+		this.putNotFound(getKey(track));
+	}
+
+	public void putNotFound(@Nullable String key) {
+		if (key == null || this.negativeTtl <= 0) {
+			return;
+		}
+		this.putEntry(key, new Entry(null, System.currentTimeMillis() + this.negativeTtl));
+	}
+
+	public boolean contains(String key) {
+		this.entriesLock.lock();
+		try {
+			var entry = this.entries.get(key);
+			return entry != null && entry.expiresAt >= System.currentTimeMillis();
+		} finally {
+			this.entriesLock.unlock();
+		}
+	}
+
+	public void invalidate(String key) {
+		this.entriesLock.lock();
+		try {
+			this.entries.remove(key);
+		} finally {
+			this.entriesLock.unlock();
+		}
+	}
+
+	public void clear() {
+		this.entriesLock.lock();
+		try {
+			this.entries.clear();
+		} finally {
+			this.entriesLock.unlock();
+		}
+	}
+
+	public int size() {
+		this.entriesLock.lock();
+		try {
+			return this.entries.size();
+		} finally {
+			this.entriesLock.unlock();
+		}
+	}
+
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	public long getNegativeHits() {
+		return this.negativeHits.get();
+	}
+
+	public long getSecondTierHits() {
+		return this.secondTierHits.get();
+	}
+
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+	public long getEvictions() {
+		return this.evictions.get();
+	}
+
+	@Nullable
+	private AudioTrack getPersisted(MirroringAudioTrack track, String key) {
+		var secondTier = this.secondTier;
+		if (secondTier == null) {
+			return null;
+		}
+		var item = secondTier.get(SECOND_TIER_PREFIX + key);
+		if (item == null) {
+			return null;
+		}
+		var manager = track.sourceManager.getAudioPlayerManager();
+		try {
+			var decoded = AudioItemCodec.decode(manager, item);
+			if (decoded instanceof AudioTrack) {
+				var encoded = encode(manager, (AudioTrack) decoded);
+				if (encoded != null) {
+					this.putEntry(key, new Entry(encoded, System.currentTimeMillis() + this.ttl));
+				}
+				return (AudioTrack) decoded;
+			}
+		} catch (IOException e) {
+			log.debug("Failed to decode persisted mirror track", e);
+		}
+		secondTier.invalidate(SECOND_TIER_PREFIX + key);
+		return null;
+	}
+
+	private void putEntry(String key, Entry entry) {
+		this.entriesLock.lock();
+		try {
+			this.entries.put(key, entry);
+		} finally {
+			this.entriesLock.unlock();
+		}
+	}
+
+	@Nullable
+	private static byte[] encode(AudioPlayerManager manager, AudioTrack track) {
+		try {
+			var out = new ByteArrayOutputStream();
+			manager.encodeTrack(new MessageOutput(out), track);
+			return out.toByteArray();
+		} catch (Exception e) {
+			log.debug("Failed to encode mirror track {}, not caching it", track.getIdentifier(), e);
+			return null;
+		}
+	}
+
+	@Nullable
+	private static AudioTrack decode(AudioPlayerManager manager, byte[] encoded) {
+		try {
+			var decoded = manager.decodeTrack(new MessageInput(new ByteArrayInputStream(encoded)));
+			return decoded == null ? null : decoded.decodedTrack;
+		} catch (IOException e) {
+			log.debug("Failed to decode cached mirror track", e);
+			return null;
+		}
+	}
+
+	private static class Entry {
+		@Nullable
+		private final byte[] encodedTrack;
+		private final long expiresAt;
+
+		private Entry(@Nullable byte[] encodedTrack, long expiresAt) {
+			this.encodedTrack = encodedTrack;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	public static class Lookup {
+		public static final Lookup NOT_FOUND = new Lookup(null);
+
+		@Nullable
+		public final AudioTrack track;
+
+		private Lookup(@Nullable AudioTrack track) {
+			this.track = track;
+		}
+
+		public boolean isFound() {
+			return this.track != null;
+		}
+	}
+
+}
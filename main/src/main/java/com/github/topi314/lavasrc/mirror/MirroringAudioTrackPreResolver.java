@@ -0,0 +1,172 @@
+package com.github.topi314.lavasrc.mirror;
+
+import com.github.topi314.lavasrc.LavaSrcExecutors;
+import com.sedmelluq.discord.lavaplayer.tools.ExecutorTools;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resolves the mirrors of loaded playlists in the background, so the tracks are already in the {@link MirroringAudioTrackCache}
+ * once they start playing. The first tracks of a playlist are resolved right away, afterward a window of tracks ahead of the
+ * currently playing one is kept resolved.
+ */
+public class MirroringAudioTrackPreResolver {
+
+	public static final int DEFAULT_INITIAL_TRACKS = 5;
+	public static final int DEFAULT_WINDOW_SIZE = 3;
+	public static final int DEFAULT_THREADS = 2;
+	public static final int DEFAULT_QUEUE_SIZE = 1000;
+	public static final double DEFAULT_REQUESTS_PER_SECOND = 5;
+	// Maximum amount of playlist tracks for which the playlist position is remembered
+	private static final int MAX_TRACKED_TRACKS = 50000;
+
+	private static final Logger log = LoggerFactory.getLogger(MirroringAudioTrackPreResolver.class);
+
+	private final CachingMirroringAudioTrackResolver resolver;
+	private final int initialTracks;
+	private final int windowSize;
+	private final long minIntervalNanos;
+	private final ThreadPoolExecutor executor;
+	private final AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+	private final Map<String, Position> positions = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Position> eldest) {
+			return size() > MAX_TRACKED_TRACKS;
+		}
+	};
+	private final ReentrantLock positionsLock = new ReentrantLock();
+	private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+	public MirroringAudioTrackPreResolver(CachingMirroringAudioTrackResolver resolver) {
+		this(resolver, DEFAULT_INITIAL_TRACKS, DEFAULT_WINDOW_SIZE, DEFAULT_THREADS, DEFAULT_QUEUE_SIZE, DEFAULT_REQUESTS_PER_SECOND);
+	}
+
+	public MirroringAudioTrackPreResolver(CachingMirroringAudioTrackResolver resolver, int initialTracks, int windowSize, int threads, int queueSize, double requestsPerSecond) {
+		this.resolver = resolver;
+		this.initialTracks = Math.max(0, initialTracks);
+		this.windowSize = Math.max(0, windowSize);
+		this.minIntervalNanos = requestsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond) : 0;
+		this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize),
+			LavaSrcExecutors.newThreadFactory("lavasrc-mirror-preresolver"));
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Registers the tracks of a freshly loaded playlist and resolves the first tracks of it.
+	 */
+	public void onPlaylistLoaded(List<AudioTrack> tracks) {
+		var mirroringTracks = new ArrayList<MirroringAudioTrack>(tracks.size());
+		for (var track : tracks) {
+			if (track instanceof MirroringAudioTrack && !((MirroringAudioTrack) track).isPreview()) {
+				mirroringTracks.add((MirroringAudioTrack) track);
+			}
+		}
+		if (mirroringTracks.isEmpty()) {
+			return;
+		}
+
+		var playlist = List.copyOf(mirroringTracks);
+		this.positionsLock.lock();
+		try {
+			for (var i = 0; i < playlist.size(); i++) {
+				this.positions.put(getTrackKey(playlist.get(i)), new Position(playlist, i));
+			}
+		} finally {
+			this.positionsLock.unlock();
+		}
+		this.schedule(playlist, 0, this.initialTracks);
+	}
+
+	/**
+	 * Keeps the window after the given track resolved. Called when a mirroring track starts playing.
+	 */
+	public void onTrackStart(MirroringAudioTrack track) {
+		if (this.windowSize == 0) {
+			return;
+		}
+		Position position;
+		this.positionsLock.lock();
+		try {
+			position = this.positions.get(getTrackKey(track));
+		} finally {
+			this.positionsLock.unlock();
+		}
+		if (position != null) {
+			this.schedule(position.playlist, position.index + 1, this.windowSize);
+		}
+	}
+
+	public int getQueuedTasks() {
+		return this.executor.getQueue().size();
+	}
+
+	public void shutdown() {
+		ExecutorTools.shutdownExecutor(this.executor, "mirror pre-resolver");
+	}
+
+	private void schedule(List<MirroringAudioTrack> playlist, int from, int count) {
+		var to = Math.min(playlist.size(), from + count);
+		for (var i = from; i < to; i++) {
+			var track = playlist.get(i);
+			var key = getTrackKey(track);
+			if (!this.pending.add(key)) {
+				continue;
+			}
+			try {
+				this.executor.execute(() -> {
+					try {
+						// Computing the cache key may look up the ISRC lazily, so this is done on the pre-resolve thread
+						var cacheKey = MirroringAudioTrackCache.getKey(track);
+						if (cacheKey != null && !this.resolver.getCache().contains(cacheKey)) {
+							this.awaitSlot();
+							this.resolver.apply(track);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} catch (Exception e) {
+						log.debug("Failed to pre-resolve mirror for {}", track.getIdentifier(), e);
+					} finally {
+						this.pending.remove(key);
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				// The queue is full, the track will be resolved once it starts playing instead
+				this.pending.remove(key);
+				return;
+			}
+		}
+	}
+
+	private static String getTrackKey(MirroringAudioTrack track) {
+		return track.getSourceManager().getSourceName() + ":" + track.getIdentifier();
+	}
+
+	private void awaitSlot() throws InterruptedException {
+		if (this.minIntervalNanos == 0) {
+			return;
+		}
+		var now = System.nanoTime();
+		var slot = Math.max(now, this.nextSlot.getAndAccumulate(now, (next, current) -> Math.max(next, current) + this.minIntervalNanos));
+		var wait = slot - now;
+		if (wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+	}
+
+	private static class Position {
+		private final List<MirroringAudioTrack> playlist;
+		private final int index;
+
+		private Position(List<MirroringAudioTrack> playlist, int index) {
+			this.playlist = playlist;
+			this.index = index;
+		}
+	}
+
+}
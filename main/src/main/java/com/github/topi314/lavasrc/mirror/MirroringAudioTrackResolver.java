@@ -1,9 +1,17 @@
 package com.github.topi314.lavasrc.mirror;
 
 import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
 
 import java.util.function.Function;
 
 @FunctionalInterface
 public interface MirroringAudioTrackResolver extends Function<MirroringAudioTrack, AudioItem> {
+
+	/**
+	 * Returned instead of {@link AudioReference#NO_TRACK} when no mirror was found because a provider failed or timed out,
+	 * or the resolution was interrupted. A later resolution may still find a mirror, so this result must not be cached.
+	 */
+	AudioReference UNAVAILABLE = new AudioReference(null, null);
+
 }
@@ -3,6 +3,7 @@ package com.github.topi314.lavasrc.qobuz;
 import com.github.topi314.lavasrc.ExtendedAudioPlaylist;
 import com.github.topi314.lavasrc.ExtendedAudioSourceManager;
 import com.github.topi314.lavasrc.LavaSrcTools;
+import com.github.topi314.lavasrc.RequestCoalescer;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
@@ -36,13 +37,14 @@ public class QobuzAudioSourceManager extends ExtendedAudioSourceManager implemen
 	public static final String RECOMMENDATIONS_PREFIX = "qbrec:";
 
 	private static final Logger log = LoggerFactory.getLogger(QobuzAudioSourceManager.class);
-	private static final String API_URL = "https://www.qobuz.com/api.json/0.2/";
+	public static final String API_URL = "https://www.qobuz.com/api.json/0.2/";
 	private static final Pattern URL_PATTERN = Pattern.compile("https?://(?:www\\.|play\\.|open\\.)?qobuz\\.com/(?:(?:[a-z]{2}-[a-z]{2}/)?(?<type>album|playlist|track|artist)/(?:.+?/)?(?<id>[a-zA-Z0-9]+)|(?<type2>playlist)/(?<id2>\\d+))");
 	private static final int ALBUM_LOAD_LIMIT = 500;
 	private static final int PLAYLIST_LOAD_LIMIT = 1000;
 
 	private final HttpInterfaceManager httpInterfaceManager;
 	private final QobuzTokenTracker tokenTracker;
+	private final RequestCoalescer requestCoalescer = new RequestCoalescer();
 
 	public QobuzAudioSourceManager(String userOauthToken, String appId, String appSecret) {
 		this.httpInterfaceManager = HttpClientTools.createDefaultThreadLocalManager();
@@ -88,34 +90,30 @@ public class QobuzAudioSourceManager extends ExtendedAudioSourceManager implemen
 
 		try {
 			if (identifier.startsWith(SEARCH_PREFIX)) {
-				return this.getSearch(identifier.substring(SEARCH_PREFIX.length()));
+				return this.loadItemCached(manager, identifier, () -> this.getSearch(identifier.substring(SEARCH_PREFIX.length())));
 			}
 			if (identifier.startsWith(ISRC_PREFIX)) {
-				return this.getTrackByISRC(identifier.substring(ISRC_PREFIX.length()));
+				return this.loadItemCached(manager, identifier, () -> this.getTrackByISRC(identifier.substring(ISRC_PREFIX.length())));
 			}
 			if (identifier.startsWith(RECOMMENDATIONS_PREFIX)) {
-				return this.getRecommendations(identifier.substring(RECOMMENDATIONS_PREFIX.length()));
+				return this.loadItemCached(manager, identifier, () -> this.getRecommendations(identifier.substring(RECOMMENDATIONS_PREFIX.length())));
 			}
 			var matcher = URL_PATTERN.matcher(identifier);
 			if (!matcher.find()) {
 				return null;
 			}
-			var type = matcher.group("type");
-			var id = matcher.group("id");
-			if (type == null) {
-				type = matcher.group("type2");
-				id = matcher.group("id2");
-			}
+			var type = matcher.group("type") != null ? matcher.group("type") : matcher.group("type2");
+			var id = matcher.group("type") != null ? matcher.group("id") : matcher.group("id2");
 
 			switch (type) {
 				case "playlist":
-					return this.getPlaylist(id);
+					return this.loadItemCached(manager, identifier, () -> this.getPlaylist(id));
 				case "album":
-					return this.getAlbum(id);
+					return this.loadItemCached(manager, identifier, () -> this.getAlbum(id));
 				case "track":
-					return this.getTrack(id);
+					return this.loadItemCached(manager, identifier, () -> this.getTrack(id));
 				case "artist":
-					return this.getArtist(id);
+					return this.loadItemCached(manager, identifier, () -> this.getArtist(id));
 			}
 		} catch (IOException e) {
 			throw new RuntimeException(e);
@@ -124,11 +122,11 @@ public class QobuzAudioSourceManager extends ExtendedAudioSourceManager implemen
 	}
 
 	public JsonBrowser getJson(String uri) throws IOException {
-		var request = new HttpGet(uri);
+		var request = new HttpGet(this.resolveUrl(uri));
 		request.setHeader("Accept", "application/json");
 		request.setHeader("x-app-id", this.tokenTracker.getAppId());
 		request.setHeader("x-user-auth-token", this.tokenTracker.getUserOauthToken());
-		return LavaSrcTools.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
+		return this.requestCoalescer.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
 	}
 
 	private List<AudioTrack> parseTracks(JsonBrowser json) {
@@ -223,7 +221,7 @@ public class QobuzAudioSourceManager extends ExtendedAudioSourceManager implemen
 			+ "    }"
 			+ "]"
 			+ "}";
-		var request = new HttpPost(API_URL + "dynamic/suggest");
+		var request = new HttpPost(this.resolveUrl(API_URL + "dynamic/suggest"));
 		request.setHeader("Accept", "application/json");
 		request.setHeader("x-app-id", this.tokenTracker.getAppId());
 		request.setHeader("x-user-auth-token", this.tokenTracker.getUserOauthToken());
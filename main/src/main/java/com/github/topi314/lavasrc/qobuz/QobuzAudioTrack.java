@@ -43,7 +43,7 @@ public class QobuzAudioTrack extends ExtendedAudioTrack {
 		var rSig = String.format("trackgetFileUrlformat_id%dintentstream" + "track_id%d%d%s", 5, Integer.parseInt(this.getIdentifier()), unixTs, this.sourceManager.getAppSecret());
 		var rSigHashed = getMd5Hash(rSig);
 
-		var builder = new URIBuilder("https://www.qobuz.com/api.json/0.2/track/getFileUrl");
+		var builder = new URIBuilder(this.sourceManager.resolveUrl(QobuzAudioSourceManager.API_URL + "track/getFileUrl"));
 		builder.addParameter("request_ts", String.valueOf(unixTs));
 		builder.addParameter("request_sig", rSigHashed);
 		builder.addParameter("track_id", this.getIdentifier());
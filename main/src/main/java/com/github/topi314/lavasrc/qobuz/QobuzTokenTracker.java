@@ -1,5 +1,6 @@
 package com.github.topi314.lavasrc.qobuz;
 
+import com.github.topi314.lavasrc.LavaSrcMetrics;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
@@ -73,7 +74,7 @@ public class QobuzTokenTracker {
 
 	public String fetchBundleString() throws IOException {
 		try (var httpInterface = this.sourceManager.getHttpInterface()) {
-			var request = new HttpGet(WEB_PLAYER_BASE_URL + "/login");
+			var request = new HttpGet(this.sourceManager.resolveUrl(WEB_PLAYER_BASE_URL + "/login"));
 			String bundleUrl;
 			try (var response = httpInterface.execute(request)) {
 				var bundleMatcher = BUNDLE_PATTERN.matcher(EntityUtils.toString(response.getEntity()));
@@ -82,7 +83,7 @@ public class QobuzTokenTracker {
 				}
 				bundleUrl = WEB_PLAYER_BASE_URL + bundleMatcher.group("bundleJS");
 			}
-			var bundleRequest = new HttpGet(bundleUrl);
+			var bundleRequest = new HttpGet(this.sourceManager.resolveUrl(bundleUrl));
 			try (var response = httpInterface.execute(bundleRequest)) {
 				return EntityUtils.toString(response.getEntity());
 			}
@@ -116,13 +117,18 @@ public class QobuzTokenTracker {
 	}
 
 	private void fetchAppInfo() {
+		var start = System.nanoTime();
+		var success = false;
 		try {
 			var bundleJsContent = this.fetchBundleString();
 			this.appId = this.getWebPlayerAppId(bundleJsContent);
 			this.appSecret = this.getWebPlayerAppSecret(bundleJsContent);
+			success = true;
 			log.info("Fetched Qobuz App ID :{} and App Secret :{}", this.appId, this.appSecret);
 		} catch (IOException e) {
 			throw new IllegalStateException("Failed to extract app_id from bundle.js", e);
+		} finally {
+			LavaSrcMetrics.tokenRefresh("qobuz", "app-info", success, start);
 		}
 	}
 
@@ -7,6 +7,7 @@ import com.sedmelluq.discord.lavaplayer.tools.io.SeekableInputStream;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
 import com.sedmelluq.discord.lavaplayer.track.InternalAudioTrack;
+import org.jetbrains.annotations.Nullable;
 
 public class SpotifyAudioTrack extends MirroringAudioTrack {
 
@@ -24,6 +25,34 @@ public class SpotifyAudioTrack extends MirroringAudioTrack {
 		return new Mp3AudioTrack(trackInfo, stream);
 	}
 
+	@Override
+	@Nullable
+	public String getIsrc() {
+		var isrc = super.getIsrc();
+		if (isrc != null && !isrc.trim().isEmpty() || this.isLocal()) {
+			return isrc;
+		}
+		var sourceManager = (SpotifySourceManager) this.sourceManager;
+		if (sourceManager.isPreferPartnerApi() && sourceManager.getIsrcBackfill().getMode() == SpotifyIsrcBackfill.Mode.LAZY) {
+			return sourceManager.getIsrcBackfill().getIsrc(this.trackInfo.identifier);
+		}
+		return isrc;
+	}
+
+	public SpotifyAudioTrack withIsrc(String isrc) {
+		var info = this.trackInfo;
+		return new SpotifyAudioTrack(
+			new AudioTrackInfo(info.title, info.author, info.length, info.identifier, info.isStream, info.uri, info.artworkUrl, isrc),
+			this.albumName,
+			this.albumUrl,
+			this.artistUrl,
+			this.artistArtworkUrl,
+			this.previewUrl,
+			this.isPreview,
+			this.sourceManager
+		);
+	}
+
 	@Override
 	protected AudioTrack makeShallowClone() {
 		return new SpotifyAudioTrack(this.trackInfo, (SpotifySourceManager) this.sourceManager);
@@ -0,0 +1,215 @@
+package com.github.topi314.lavasrc.spotify;
+
+import com.github.topi314.lavasrc.LavaSrcExecutors;
+import com.sedmelluq.discord.lavaplayer.tools.ExecutorTools;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fills in missing ISRCs of Spotify tracks using the spclient metadata endpoint.
+ * Spotify has no JSON batch endpoint for track metadata, so lookups of a whole playlist are fanned out with bounded parallelism instead.
+ * Found ISRCs are cached by track id across loads, misses are remembered for a short time so tracks without an ISRC are not looked up on every access.
+ */
+public class SpotifyIsrcBackfill {
+
+	public static final int DEFAULT_PARALLELISM = 8;
+	private static final int MAX_CACHED_ISRCS = 100000;
+	private static final int MAX_CACHED_MISSES = 10000;
+	// misses are usually caused by transient token or network errors, so they are only remembered briefly
+	private static final long MISS_TTL = TimeUnit.MINUTES.toMillis(1);
+
+	private static final Logger log = LoggerFactory.getLogger(SpotifyIsrcBackfill.class);
+
+	private final SpotifySourceManager sourceManager;
+	private final SpotifyPartnerApiClient partnerApiClient;
+	private final ThreadPoolExecutor executor;
+	private final Map<String, String> isrcs = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			return size() > MAX_CACHED_ISRCS;
+		}
+	};
+	private final Map<String, Long> misses = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+			return size() > MAX_CACHED_MISSES;
+		}
+	};
+	private final ReentrantLock isrcsLock = new ReentrantLock();
+	private volatile Mode mode = Mode.BATCHED;
+
+	public SpotifyIsrcBackfill(SpotifySourceManager sourceManager, SpotifyPartnerApiClient partnerApiClient) {
+		this.sourceManager = sourceManager;
+		this.partnerApiClient = partnerApiClient;
+		this.executor = new ThreadPoolExecutor(DEFAULT_PARALLELISM, DEFAULT_PARALLELISM, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+			LavaSrcExecutors.newThreadFactory("lavasrc-spotify-isrc"));
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	public Mode getMode() {
+		return this.mode;
+	}
+
+	public void setMode(Mode mode) {
+		this.mode = mode;
+	}
+
+	public void setParallelism(int parallelism) {
+		parallelism = Math.max(1, parallelism);
+		if (parallelism > this.executor.getMaximumPoolSize()) {
+			this.executor.setMaximumPoolSize(parallelism);
+			this.executor.setCorePoolSize(parallelism);
+		} else {
+			this.executor.setCorePoolSize(parallelism);
+			this.executor.setMaximumPoolSize(parallelism);
+		}
+	}
+
+	/**
+	 * Returns the given tracks with missing ISRCs filled in. In {@link Mode#LAZY} the tracks are returned as is,
+	 * the ISRC is looked up once a mirror has to be resolved instead.
+	 */
+	public List<AudioTrack> backfill(List<AudioTrack> tracks) {
+		if (this.mode == Mode.LAZY) {
+			return tracks;
+		}
+
+		var missing = new LinkedHashSet<String>();
+		for (var track : tracks) {
+			if (needsIsrc(track)) {
+				missing.add(track.getIdentifier());
+			}
+		}
+		if (missing.isEmpty()) {
+			return tracks;
+		}
+
+		var found = this.fetchAll(missing);
+		if (found.isEmpty()) {
+			return tracks;
+		}
+
+		var backfilled = new ArrayList<AudioTrack>(tracks.size());
+		for (var track : tracks) {
+			var isrc = needsIsrc(track) ? found.get(track.getIdentifier()) : null;
+			backfilled.add(isrc == null ? track : ((SpotifyAudioTrack) track).withIsrc(isrc));
+		}
+		return backfilled;
+	}
+
+	@Nullable
+	public String getIsrc(String trackId) {
+		var cached = this.getCached(trackId);
+		if (cached != null || this.isMissCached(trackId)) {
+			return cached;
+		}
+		var isrc = this.partnerApiClient.fetchIsrcViaSpClientMetadata(this.sourceManager.getHttpInterface(), trackId);
+		this.putCached(trackId, isrc);
+		return isrc;
+	}
+
+	public Map<String, String> fetchAll(Collection<String> trackIds) {
+		var result = new HashMap<String, String>();
+		var futures = new HashMap<String, CompletableFuture<String>>();
+		for (var trackId : trackIds) {
+			var cached = this.getCached(trackId);
+			if (cached != null) {
+				result.put(trackId, cached);
+				continue;
+			}
+			if (this.isMissCached(trackId)) {
+				continue;
+			}
+			futures.put(trackId, CompletableFuture.supplyAsync(() ->
+				this.partnerApiClient.fetchIsrcViaSpClientMetadata(this.sourceManager.getHttpInterface(), trackId), this.executor));
+		}
+
+		for (var entry : futures.entrySet()) {
+			try {
+				var isrc = entry.getValue().join();
+				this.putCached(entry.getKey(), isrc);
+				if (isrc != null) {
+					result.put(entry.getKey(), isrc);
+				}
+			} catch (Exception e) {
+				log.debug("Failed to backfill ISRC for track {}", entry.getKey(), e);
+			}
+		}
+		log.debug("Backfilled {} of {} missing ISRCs ({} cached)", result.size(), trackIds.size(), trackIds.size() - futures.size());
+		return result;
+	}
+
+	public void shutdown() {
+		ExecutorTools.shutdownExecutor(this.executor, "spotify isrc backfill");
+	}
+
+	@Nullable
+	private String getCached(String trackId) {
+		this.isrcsLock.lock();
+		try {
+			return this.isrcs.get(trackId);
+		} finally {
+			this.isrcsLock.unlock();
+		}
+	}
+
+	private boolean isMissCached(String trackId) {
+		this.isrcsLock.lock();
+		try {
+			var expiresAt = this.misses.get(trackId);
+			if (expiresAt == null) {
+				return false;
+			}
+			if (expiresAt < System.currentTimeMillis()) {
+				this.misses.remove(trackId);
+				return false;
+			}
+			return true;
+		} finally {
+			this.isrcsLock.unlock();
+		}
+	}
+
+	private void putCached(String trackId, @Nullable String isrc) {
+		this.isrcsLock.lock();
+		try {
+			if (isrc == null) {
+				this.misses.put(trackId, System.currentTimeMillis() + MISS_TTL);
+			} else {
+				this.misses.remove(trackId);
+				this.isrcs.put(trackId, isrc);
+			}
+		} finally {
+			this.isrcsLock.unlock();
+		}
+	}
+
+	private static boolean needsIsrc(AudioTrack track) {
+		if (!(track instanceof SpotifyAudioTrack) || ((SpotifyAudioTrack) track).isLocal()) {
+			return false;
+		}
+		var isrc = track.getInfo().isrc;
+		return isrc == null || isrc.trim().isEmpty();
+	}
+
+	public enum Mode {
+		/**
+		 * Missing ISRCs are fetched concurrently right after a track list has been parsed
+		 */
+		BATCHED,
+		/**
+		 * Missing ISRCs are only fetched once the mirror of a track is resolved
+		 */
+		LAZY
+	}
+
+}
@@ -1,9 +1,11 @@
 package com.github.topi314.lavasrc.spotify;
 
+import com.github.topi314.lavasrc.BaseUrls;
 import com.github.topi314.lavasrc.ExtendedAudioPlaylist;
 import com.github.topi314.lavasrc.LavaSrcTools;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
 import com.sedmelluq.discord.lavaplayer.track.AudioItem;
 import com.sedmelluq.discord.lavaplayer.track.AudioReference;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
@@ -35,15 +37,21 @@ public class SpotifyPartnerApiClient {
 	private static final Logger log = LoggerFactory.getLogger(SpotifyPartnerApiClient.class);
 
 	private final SpotifyTokenTracker tokenTracker;
-	private final HttpInterface httpInterface;
+	private final HttpInterfaceManager httpInterfaceManager;
+	private final BaseUrls baseUrls;
 
-	public SpotifyPartnerApiClient(SpotifyTokenTracker tokenTracker, HttpInterface httpInterface) {
+	public SpotifyPartnerApiClient(SpotifyTokenTracker tokenTracker, HttpInterfaceManager httpInterfaceManager) {
+		this(tokenTracker, httpInterfaceManager, new BaseUrls());
+	}
+
+	public SpotifyPartnerApiClient(SpotifyTokenTracker tokenTracker, HttpInterfaceManager httpInterfaceManager, BaseUrls baseUrls) {
 		this.tokenTracker = tokenTracker;
-		this.httpInterface = httpInterface;
+		this.httpInterfaceManager = httpInterfaceManager;
+		this.baseUrls = baseUrls;
 	}
 
 	private HttpPost createBaseRequest(SpotifyRequestPayload payload) throws IOException {
-		var request = new HttpPost(PARTNER_API_BASE);
+		var request = new HttpPost(this.baseUrls.resolve(PARTNER_API_BASE));
 
 		request.setHeader("User-Agent", USER_AGENT);
 		request.setHeader("Content-Type", "application/json");
@@ -68,7 +76,7 @@ public class SpotifyPartnerApiClient {
 			includePreReleases,
 			includeAuthors,
 			numberOfTopResults));
-		return LavaSrcTools.fetchResponseAsJson(httpInterface, request);
+		return LavaSrcTools.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
 	}
 
 	public List<JsonBrowser> searchTrackItems(String query, int limit) throws IOException {
@@ -101,12 +109,12 @@ public class SpotifyPartnerApiClient {
 
 		return tracks.isEmpty()
 			? AudioReference.NO_TRACK
-			: new BasicAudioPlaylist("Spotify Search: " + query, tracks, null, true);
+			: new BasicAudioPlaylist("Spotify Search: " + query, sourceManager.backfillIsrcs(tracks), null, true);
 	}
 
 	public JsonBrowser getRecommendations(String uri) throws IOException {
 		var request = createBaseRequest(SpotifyRequestPayload.forRecommendations(uri));
-		return LavaSrcTools.fetchResponseAsJson(httpInterface, request);
+		return LavaSrcTools.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
 	}
 
 	public List<JsonBrowser> getRecommendationTrackItems(String seedTrackId) throws IOException {
@@ -156,7 +164,7 @@ public class SpotifyPartnerApiClient {
 
 		return new SpotifyAudioPlaylist(
 			"Spotify Recommendations",
-			tracks,
+			sourceManager.backfillIsrcs(tracks),
 			ExtendedAudioPlaylist.Type.RECOMMENDATIONS,
 			null,
 			null,
@@ -167,7 +175,7 @@ public class SpotifyPartnerApiClient {
 
 	public JsonBrowser getTrack(String uri) throws IOException {
 		var request = createBaseRequest(SpotifyRequestPayload.forTrack(uri));
-		return LavaSrcTools.fetchResponseAsJson(httpInterface, request);
+		return LavaSrcTools.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
 	}
 
 	@Nullable
@@ -187,12 +195,12 @@ public class SpotifyPartnerApiClient {
 			return AudioReference.NO_TRACK;
 		}
 
-		return this.parsePartnerTrack(trackData, preview, null, sourceManager);
+		return sourceManager.backfillIsrcs(List.of(this.parsePartnerTrack(trackData, preview, null, sourceManager))).get(0);
 	}
 
 	public JsonBrowser getPlaylist(String uri, int offset, int limit) throws IOException {
 		var request = createBaseRequest(SpotifyRequestPayload.forPlaylist(uri, offset, limit));
-		return LavaSrcTools.fetchResponseAsJson(httpInterface, request);
+		return LavaSrcTools.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
 	}
 
 	@Nullable
@@ -245,12 +253,12 @@ public class SpotifyPartnerApiClient {
 			tracks.add(this.parseTrackV2(item, preview, null, sourceManager));
 		}
 
-		return new SpotifyAudioPlaylist(playlistName, tracks, ExtendedAudioPlaylist.Type.PLAYLIST, playlistUrl, playlistImage, playlistOwner, tracks.size());
+		return new SpotifyAudioPlaylist(playlistName, sourceManager.backfillIsrcs(tracks), ExtendedAudioPlaylist.Type.PLAYLIST, playlistUrl, playlistImage, playlistOwner, tracks.size());
 	}
 
 	public JsonBrowser getAlbum(String id, int offset, int limit) throws IOException {
 		HttpPost request = createBaseRequest(SpotifyRequestPayload.forAlbum(id, offset, limit));
-		return LavaSrcTools.fetchResponseAsJson(httpInterface, request);
+		return LavaSrcTools.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
 	}
 
 	@Nullable
@@ -328,12 +336,12 @@ public class SpotifyPartnerApiClient {
 			}
 		}
 
-		return new SpotifyAudioPlaylist(albumName, tracks, ExtendedAudioPlaylist.Type.ALBUM, albumUrl, albumImage, albumArtist, tracks.size());
+		return new SpotifyAudioPlaylist(albumName, sourceManager.backfillIsrcs(tracks), ExtendedAudioPlaylist.Type.ALBUM, albumUrl, albumImage, albumArtist, tracks.size());
 	}
 
 	public JsonBrowser getArtist(String id) throws IOException {
 		var request = createBaseRequest(SpotifyRequestPayload.forArtist(id));
-		return LavaSrcTools.fetchResponseAsJson(httpInterface, request);
+		return LavaSrcTools.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
 	}
 
 	@Nullable
@@ -410,7 +418,7 @@ public class SpotifyPartnerApiClient {
 
 		return new SpotifyAudioPlaylist(
 			artistName + "'s Top Tracks",
-			tracks,
+			sourceManager.backfillIsrcs(tracks),
 			ExtendedAudioPlaylist.Type.ARTIST,
 			"https://open.spotify.com/artist/" + id,
 			artistArtworkUrl,
@@ -483,9 +491,6 @@ public class SpotifyPartnerApiClient {
 		if (track.get("externalIds") != null && track.get("externalIds").get("isrc") != null) {
 			isrc = track.get("externalIds").get("isrc").text();
 		}
-		if (isNullOrBlank(isrc) && !isNullOrBlank(identifier)) {
-			isrc = this.fetchIsrcViaSpClientMetadata(identifier);
-		}
 
 		String previewUrl = null;
 		if (track.get("previews") != null && track.get("previews").get("audioPreviews") != null && track.get("previews").get("audioPreviews").get("items") != null && !track.get("previews").get("audioPreviews").get("items").values().isEmpty()) {
@@ -567,9 +572,6 @@ public class SpotifyPartnerApiClient {
 		if (track.get("externalIds") != null && track.get("externalIds").get("isrc") != null) {
 			isrc = track.get("externalIds").get("isrc").text();
 		}
-		if (isNullOrBlank(isrc) && !isNullOrBlank(identifier)) {
-			isrc = this.fetchIsrcViaSpClientMetadata(identifier);
-		}
 
 		return new SpotifyAudioTrack(
 			new AudioTrackInfo(title, author, preview ? PREVIEW_LENGTH : length, identifier, false, uri, artworkUrl, isrc),
@@ -624,9 +626,6 @@ public class SpotifyPartnerApiClient {
 		if (isNullOrBlank(isrc)) {
 			isrc = trackData.get("external_ids").get("isrc").text();
 		}
-		if (isNullOrBlank(isrc) && !isNullOrBlank(identifier)) {
-			isrc = this.fetchIsrcViaSpClientMetadata(identifier);
-		}
 
 		return new SpotifyAudioTrack(
 			new AudioTrackInfo(title, author, length, identifier, false, uri, artworkUrl, isrc),
@@ -655,6 +654,11 @@ public class SpotifyPartnerApiClient {
 
 	@Nullable
 	public String fetchIsrcViaSpClientMetadata(@NotNull String trackId) {
+		return this.fetchIsrcViaSpClientMetadata(this.httpInterfaceManager.getInterface(), trackId);
+	}
+
+	@Nullable
+	public String fetchIsrcViaSpClientMetadata(HttpInterface httpInterface, @NotNull String trackId) {
 		if (isNullOrBlank(trackId)) {
 			return null;
 		}
@@ -668,7 +672,7 @@ public class SpotifyPartnerApiClient {
 		}
 
 		var url = TRACK_METADATA_ENDPOINT_PREFIX + gid + "?market=from_token";
-		var request = new HttpGet(url);
+		var request = new HttpGet(this.baseUrls.resolve(url));
 		request.setHeader("User-Agent", USER_AGENT);
 		request.setHeader("Accept", "application/json");
 		request.setHeader("Content-Type", "application/json");
@@ -680,7 +684,7 @@ public class SpotifyPartnerApiClient {
 		}
 
 		try {
-			var json = LavaSrcTools.fetchResponseAsJson(this.httpInterface, request);
+			var json = LavaSrcTools.fetchResponseAsJson(httpInterface, request);
 			return parseIsrcFromSpClientMetadata(json);
 		} catch (Exception e) {
 			log.debug("Failed to fetch ISRC via spclient metadata: {}", e.getMessage());
@@ -717,7 +721,7 @@ public class SpotifyPartnerApiClient {
 	/**
 	 * Converts Spotify base62 id to 16-byte hex gid used by Spotify internal APIs.
 	 */
-	private static String spotifyIdToHex(@NotNull String base62Id) {
+	static String spotifyIdToHex(@NotNull String base62Id) {
 		final String alphabet = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
 		BigInteger value = BigInteger.ZERO;
 		BigInteger base = BigInteger.valueOf(62);
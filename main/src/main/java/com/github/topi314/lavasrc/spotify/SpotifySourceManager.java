@@ -6,22 +6,22 @@ import com.github.topi314.lavalyrics.lyrics.BasicAudioLyrics;
 import com.github.topi314.lavasearch.AudioSearchManager;
 import com.github.topi314.lavasearch.result.AudioSearchResult;
 import com.github.topi314.lavasearch.result.BasicAudioSearchResult;
+import com.github.topi314.lavasrc.CircuitBreaker;
+import com.github.topi314.lavasrc.ConcurrentPageFetcher;
 import com.github.topi314.lavasrc.ExtendedAudioPlaylist;
 import com.github.topi314.lavasrc.LavaSrcTools;
+import com.github.topi314.lavasrc.RequestCoalescer;
 import com.github.topi314.lavasrc.mirror.DefaultMirroringAudioTrackResolver;
 import com.github.topi314.lavasrc.mirror.MirroringAudioSourceManager;
 import com.github.topi314.lavasrc.mirror.MirroringAudioTrackResolver;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
-import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpConfigurable;
-import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
 import com.sedmelluq.discord.lavaplayer.track.*;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpHead;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -31,9 +31,9 @@ import java.io.DataInput;
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.*;
-import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -55,9 +55,11 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 	public static final Set<AudioSearchResult.Type> SEARCH_TYPES = Set.of(AudioSearchResult.Type.ALBUM, AudioSearchResult.Type.ARTIST, AudioSearchResult.Type.PLAYLIST, AudioSearchResult.Type.TRACK);
 	private static final Logger log = LoggerFactory.getLogger(SpotifySourceManager.class);
 
-	private final HttpInterfaceManager httpInterfaceManager = HttpClientTools.createDefaultThreadLocalManager();
 	private final SpotifyTokenTracker tokenTracker;
 	private final SpotifyPartnerApiClient partnerApiClient;
+	private final SpotifyIsrcBackfill isrcBackfill;
+	private final ConcurrentPageFetcher pageFetcher = new ConcurrentPageFetcher("spotify");
+	private final RequestCoalescer requestCoalescer = new RequestCoalescer();
 	private final String countryCode;
 	private int playlistPageLimit = 6;
 	private int albumPageLimit = 6;
@@ -65,6 +67,13 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 	private boolean resolveArtistsInSearch = true;
 	private boolean preferPartnerApi = false;
 	private boolean preferV1SearchApi = false;
+	// the partner api fails per endpoint, e.g. when Spotify rotates the persisted query hash of one of them
+	private final CircuitBreaker partnerSearchBreaker = new CircuitBreaker("spotify-partner-search");
+	private final CircuitBreaker partnerRecommendationsBreaker = new CircuitBreaker("spotify-partner-recommendations");
+	private final CircuitBreaker partnerAlbumBreaker = new CircuitBreaker("spotify-partner-album");
+	private final CircuitBreaker partnerPlaylistBreaker = new CircuitBreaker("spotify-partner-playlist");
+	private final CircuitBreaker partnerArtistBreaker = new CircuitBreaker("spotify-partner-artist");
+	private final CircuitBreaker partnerTrackBreaker = new CircuitBreaker("spotify-partner-track");
 
 	public SpotifySourceManager(String[] providers, String clientId, String clientSecret, String countryCode, AudioPlayerManager audioPlayerManager) {
 		this(clientId, clientSecret, null, countryCode, unused -> audioPlayerManager, new DefaultMirroringAudioTrackResolver(providers));
@@ -94,7 +103,8 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 		super(audioPlayerManager, mirroringAudioTrackResolver);
 
 		this.tokenTracker = new SpotifyTokenTracker(this, clientId, clientSecret, spDc, customTokenEndpoint);
-		this.partnerApiClient = new SpotifyPartnerApiClient(tokenTracker, httpInterfaceManager.getInterface());
+		this.partnerApiClient = new SpotifyPartnerApiClient(tokenTracker, this.httpInterfaceManager, this.baseUrls);
+		this.isrcBackfill = new SpotifyIsrcBackfill(this, this.partnerApiClient);
 
 		if (countryCode == null || countryCode.isEmpty()) {
 			countryCode = "US";
@@ -103,10 +113,6 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 		this.preferPartnerApi = preferPartnerApi;
 	}
 
-	private static boolean isNullOrBlank(@Nullable String value) {
-		return value == null || value.trim().isEmpty();
-	}
-
 	public void setPlaylistPageLimit(int playlistPageLimit) {
 		this.playlistPageLimit = playlistPageLimit;
 	}
@@ -143,6 +149,65 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 		this.tokenTracker.setCustomTokenEndpoint(customTokenEndpoint);
 	}
 
+	public void setSecretTtl(Duration secretTtl) {
+		this.tokenTracker.setSecretTtl(secretTtl);
+	}
+
+	public void setSecretFile(@Nullable Path secretFile) {
+		this.tokenTracker.setSecretFile(secretFile);
+	}
+
+	public void setPageConcurrency(int pageConcurrency) {
+		this.pageFetcher.setConcurrency(pageConcurrency);
+	}
+
+	public void setIsrcBackfillMode(SpotifyIsrcBackfill.Mode mode) {
+		this.isrcBackfill.setMode(mode);
+	}
+
+	public void setIsrcBackfillParallelism(int parallelism) {
+		this.isrcBackfill.setParallelism(parallelism);
+	}
+
+	/**
+	 * Sets after how many consecutive failures of a partner api endpoint its requests go straight to the v1 api.
+	 */
+	public void setPartnerApiFailureThreshold(int failureThreshold) {
+		for (var breaker : this.getPartnerApiCircuitBreakers()) {
+			breaker.setFailureThreshold(failureThreshold);
+		}
+	}
+
+	/**
+	 * Sets how often a failing partner api endpoint is retried.
+	 */
+	public void setPartnerApiRetryDelay(Duration retryDelay) {
+		for (var breaker : this.getPartnerApiCircuitBreakers()) {
+			breaker.setRetryDelay(retryDelay);
+		}
+	}
+
+	public List<CircuitBreaker> getPartnerApiCircuitBreakers() {
+		return List.of(this.partnerSearchBreaker, this.partnerRecommendationsBreaker, this.partnerAlbumBreaker, this.partnerPlaylistBreaker, this.partnerArtistBreaker, this.partnerTrackBreaker);
+	}
+
+	public boolean isPreferPartnerApi() {
+		return this.preferPartnerApi;
+	}
+
+	public SpotifyIsrcBackfill getIsrcBackfill() {
+		return this.isrcBackfill;
+	}
+
+	List<AudioTrack> backfillIsrcs(List<AudioTrack> tracks) {
+		return this.isrcBackfill.backfill(tracks);
+	}
+
+	private List<AudioTrack> backfillV1Isrcs(List<AudioTrack> tracks) {
+		// The v1 API only lacks ISRCs in rare cases, only look them up when the partner API is in use anyway
+		return this.preferPartnerApi ? this.backfillIsrcs(tracks) : tracks;
+	}
+
 	@NotNull
 	@Override
 	public String getSourceName() {
@@ -195,7 +260,7 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 			throw new IllegalArgumentException("Spotify spDc must be set");
 		}
 
-		var request = new HttpGet(CLIENT_API_BASE + "color-lyrics/v2/track/" + id + "?format=json&vocalRemoval=false");
+		var request = new HttpGet(this.resolveUrl(CLIENT_API_BASE + "color-lyrics/v2/track/" + id + "?format=json&vocalRemoval=false"));
 		request.setHeader("User-Agent", USER_AGENT);
 		request.setHeader("App-Platform", "WebPlayer");
 		request.setHeader("Authorization", "Bearer " + this.tokenTracker.getAccountAccessToken());
@@ -247,17 +312,22 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 	public AudioItem loadItem(AudioPlayerManager manager, AudioReference reference) {
 		var identifier = reference.identifier;
 		var preview = reference.identifier.startsWith(PREVIEW_PREFIX);
-		return this.loadItem(preview ? identifier.substring(PREVIEW_PREFIX.length()) : identifier, preview);
+		return this.loadItem(manager, preview ? identifier.substring(PREVIEW_PREFIX.length()) : identifier, preview);
 	}
 
 	public AudioItem loadItem(String identifier, boolean preview) {
+		return this.loadItem(null, identifier, preview);
+	}
+
+	private AudioItem loadItem(@Nullable AudioPlayerManager manager, String identifier, boolean preview) {
+		var key = preview ? PREVIEW_PREFIX + identifier : identifier;
 		try {
 			if (identifier.startsWith(SEARCH_PREFIX)) {
-				return this.getSearch(identifier.substring(SEARCH_PREFIX.length()).trim(), preview);
+				return this.loadItemCached(manager, key, () -> this.getSearch(identifier.substring(SEARCH_PREFIX.length()).trim(), preview));
 			}
 
 			if (identifier.startsWith(RECOMMENDATIONS_PREFIX)) {
-				return this.getRecommendations(identifier.substring(RECOMMENDATIONS_PREFIX.length()).trim(), preview);
+				return this.loadItemCached(manager, key, () -> this.getRecommendations(identifier.substring(RECOMMENDATIONS_PREFIX.length()).trim(), preview));
 			}
 
 			// If the identifier is a share URL, we need to follow the redirect to find out the real url behind it
@@ -268,7 +338,7 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 					if (response.getStatusLine().getStatusCode() == 307) {
 						var location = response.getFirstHeader("Location").getValue();
 						if (location.startsWith("https://open.spotify.com/")) {
-							return this.loadItem(location, preview);
+							return this.loadItem(manager, location, preview);
 						}
 					}
 					return null;
@@ -283,16 +353,16 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 			var id = matcher.group("identifier");
 			switch (matcher.group("type")) {
 				case "album":
-					return this.getAlbum(id, preview);
+					return this.loadItemCached(manager, key, () -> this.getAlbum(id, preview));
 
 				case "track":
-					return this.getTrack(id, preview);
+					return this.loadItemCached(manager, key, () -> this.getTrack(id, preview));
 
 				case "playlist":
-					return this.getPlaylist(id, preview);
+					return this.loadItemCached(manager, key, () -> this.getPlaylist(id, preview));
 
 				case "artist":
-					return this.getArtist(id, preview);
+					return this.loadItemCached(manager, key, () -> this.getArtist(id, preview));
 			}
 		} catch (IOException e) {
 			throw new RuntimeException(e);
@@ -301,9 +371,9 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 	}
 
 	public JsonBrowser getJson(String uri) throws IOException {
-		var request = new HttpGet(uri);
+		var request = new HttpGet(this.resolveUrl(uri));
 		request.addHeader("Authorization", "Bearer " + this.tokenTracker.getAccessToken(false));
-		return LavaSrcTools.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
+		return this.requestCoalescer.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
 	}
 
 	private AudioSearchResult getAutocomplete(String query, Set<AudioSearchResult.Type> types) throws IOException {
@@ -361,15 +431,18 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 	}
 
 	public AudioItem getSearch(String query, boolean preview) throws IOException {
-		if (this.preferPartnerApi && !this.preferV1SearchApi) {
+		if (this.preferPartnerApi && !this.preferV1SearchApi && this.partnerSearchBreaker.tryAcquire()) {
 			try {
 				var partnerSearch = this.partnerApiClient.loadPartnerSearch(query, preview, this);
+				this.partnerSearchBreaker.onSuccess();
 				if (partnerSearch != AudioReference.NO_TRACK) {
 					return partnerSearch;
 				}
 				log.warn("Partner API search returned no results for '{}', falling back to v1 search", query);
 			} catch (IOException | FriendlyException e) {
-				log.warn("Partner API search failed for '{}', falling back to v1 search", query, e);
+				if (this.partnerSearchBreaker.onFailure()) {
+					log.warn("Partner API search failed for '{}', falling back to v1 search", query, e);
+				}
 			}
 		}
 
@@ -435,14 +508,17 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 		}
 
 		var seedTrackId = query;
-		if (this.preferPartnerApi) {
+		if (this.preferPartnerApi && this.partnerRecommendationsBreaker.tryAcquire()) {
 			try {
 				var partnerRecommendations = this.partnerApiClient.loadPartnerRecommendations(seedTrackId, preview, this);
+				this.partnerRecommendationsBreaker.onSuccess();
 				if (partnerRecommendations != AudioReference.NO_TRACK) {
 					return partnerRecommendations;
 				}
-			} catch (IOException e) {
-				log.warn("Partner API recommendations failed for '{}', falling back to Spotify v1 API", seedTrackId, e);
+			} catch (IOException | FriendlyException e) {
+				if (this.partnerRecommendationsBreaker.onFailure()) {
+					log.warn("Partner API recommendations failed for '{}', falling back to Spotify v1 API", seedTrackId, e);
+				}
 			}
 		}
 
@@ -469,20 +545,23 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 	}
 
 	public AudioItem getAlbum(String id, boolean preview) throws IOException {
-		if (this.preferPartnerApi) {
+		if (this.preferPartnerApi && this.partnerAlbumBreaker.tryAcquire()) {
 			try {
 				var partnerAlbum = this.partnerApiClient.loadPartnerAlbum(id, preview, Math.max(1, this.albumPageLimit) * ALBUM_MAX_PAGE_ITEMS, this);
+				this.partnerAlbumBreaker.onSuccess();
 				if (partnerAlbum != AudioReference.NO_TRACK) {
 					return partnerAlbum;
 				}
-			} catch (IOException e) {
-				log.warn("Partner API failed for album {}, falling back to Spotify v1 API", id, e);
+			} catch (IOException | FriendlyException e) {
+				if (this.partnerAlbumBreaker.onFailure()) {
+					log.warn("Partner API failed for album {}, falling back to Spotify v1 API", id, e);
+				}
 			}
 		}
 
 		var json = this.getJson(API_BASE + "albums/" + id);
 		if (json == null) {
-			if (this.preferPartnerApi) {
+			if (this.preferPartnerApi && this.partnerAlbumBreaker.getState() == CircuitBreaker.State.CLOSED) {
 				log.warn("Main API failed for album {}, trying partner API as fallback", id);
 				return this.partnerApiClient.loadPartnerAlbum(id, preview, Math.max(1, this.albumPageLimit) * ALBUM_MAX_PAGE_ITEMS, this);
 			}
@@ -494,17 +573,23 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 			artistJson = JsonBrowser.newMap();
 		}
 
-		var tracks = new ArrayList<AudioTrack>();
-		JsonBrowser page;
-		var offset = 0;
-		var pages = 0;
-		do {
-			page = this.getJson(API_BASE + "albums/" + id + "/tracks?limit=" + ALBUM_MAX_PAGE_ITEMS + "&offset=" + offset);
-			offset += ALBUM_MAX_PAGE_ITEMS;
+		var albumArtistJson = artistJson;
+		var offsets = new ArrayList<Integer>();
+		offsets.add(0);
+		offsets.addAll(ConcurrentPageFetcher.remainingOffsets(json.get("total_tracks").asLong(0), ALBUM_MAX_PAGE_ITEMS, this.albumPageLimit));
+		// Each page needs a second request for the full track objects, both are done by the same task so the pages are pipelined
+		var pages = this.pageFetcher.fetch(offsets, offset -> {
+			var page = this.getJson(API_BASE + "albums/" + id + "/tracks?limit=" + ALBUM_MAX_PAGE_ITEMS + "&offset=" + offset);
+			if (page == null) {
+				return List.<AudioTrack>of();
+			}
 
 			var trackIs = page.get("items").values().stream().map(track -> track.get("id").text()).collect(Collectors.joining(","));
 
 			JsonBrowser tracksPage = this.getJson(API_BASE + "tracks/?ids=" + trackIs);
+			if (tracksPage == null) {
+				return List.<AudioTrack>of();
+			}
 
 			for (var track : tracksPage.get("tracks").values()) {
 				var albumJson = JsonBrowser.newMap();
@@ -513,11 +598,16 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 				albumJson.put("images", json.get("images"));
 				track.put("album", albumJson);
 
-				track.get("artists").index(0).put("images", artistJson.get("images"));
+				track.get("artists").index(0).put("images", albumArtistJson.get("images"));
 			}
 
-			tracks.addAll(this.parseTracks(tracksPage, preview));
-		} while (page.get("next").text() != null && ++pages < this.albumPageLimit);
+			return this.parseTracks(tracksPage, preview);
+		});
+
+		var tracks = new ArrayList<AudioTrack>();
+		for (var page : pages) {
+			tracks.addAll(page);
+		}
 
 		if (tracks.isEmpty()) {
 			return AudioReference.NO_TRACK;
@@ -529,14 +619,20 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 	}
 
 	public AudioItem getPlaylist(String id, boolean preview) throws IOException {
-		if (this.preferPartnerApi) {
+		if (this.preferPartnerApi && this.partnerPlaylistBreaker.tryAcquire()) {
 			try {
 				var playlist = this.partnerApiClient.loadPartnerPlaylist(id, preview, Math.max(1, this.playlistPageLimit) * PLAYLIST_MAX_PAGE_ITEMS, this);
+				this.partnerPlaylistBreaker.onSuccess();
 				if (playlist != AudioReference.NO_TRACK) {
+					if (playlist instanceof AudioPlaylist) {
+						this.preResolve(((AudioPlaylist) playlist).getTracks());
+					}
 					return playlist;
 				}
-			} catch (IOException e) {
-				log.warn("Partner API failed for playlist {}, falling back to Spotify v1 API", id, e);
+			} catch (IOException | FriendlyException e) {
+				if (this.partnerPlaylistBreaker.onFailure()) {
+					log.warn("Partner API failed for playlist {}, falling back to Spotify v1 API", id, e);
+				}
 			}
 		}
 
@@ -550,14 +646,22 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 			return AudioReference.NO_TRACK;
 		}
 
-		var tracks = new ArrayList<AudioTrack>();
-		JsonBrowser page;
-		var offset = 0;
-		var pages = 0;
-		do {
-			page = this.getJson(API_BASE + "playlists/" + id + "/items?limit=" + PLAYLIST_MAX_PAGE_ITEMS + "&offset=" + offset);
-			offset += PLAYLIST_MAX_PAGE_ITEMS;
+		var pages = new ArrayList<JsonBrowser>();
+		var firstPage = this.getJson(API_BASE + "playlists/" + id + "/items?limit=" + PLAYLIST_MAX_PAGE_ITEMS + "&offset=0");
+		if (firstPage != null) {
+			pages.add(firstPage);
+			if (firstPage.get("next").text() != null) {
+				// The first page tells us the total, so the remaining pages can be fetched concurrently
+				var offsets = ConcurrentPageFetcher.remainingOffsets(firstPage.get("total").asLong(0), PLAYLIST_MAX_PAGE_ITEMS, this.playlistPageLimit);
+				pages.addAll(this.pageFetcher.fetch(offsets, offset -> this.getJson(API_BASE + "playlists/" + id + "/items?limit=" + PLAYLIST_MAX_PAGE_ITEMS + "&offset=" + offset)));
+			}
+		}
 
+		var tracks = new ArrayList<AudioTrack>();
+		for (var page : pages) {
+			if (page == null) {
+				continue;
+			}
 			for (var value : page.get("items").values()) {
 				var track = value.get("track");
 				if (track.isNull() || track.get("type").text().equals("episode") || (!this.localFiles && track.get("is_local").asBoolean(false))) {
@@ -566,23 +670,27 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 
 				tracks.add(this.parseTrack(track, preview));
 			}
+		}
 
-		} while (page.get("next").text() != null && ++pages < this.playlistPageLimit);
-
-		return new SpotifyAudioPlaylist(json.get("name").safeText(), tracks, ExtendedAudioPlaylist.Type.PLAYLIST,
+		var playlistTracks = this.backfillV1Isrcs(tracks);
+		this.preResolve(playlistTracks);
+		return new SpotifyAudioPlaylist(json.get("name").safeText(), playlistTracks, ExtendedAudioPlaylist.Type.PLAYLIST,
 			json.get("external_urls").get("spotify").text(), json.get("images").index(0).get("url").text(),
 			json.get("owner").get("display_name").text(), (int) json.get("tracks").get("total").asLong(0));
 	}
 
 	public AudioItem getArtist(String id, boolean preview) throws IOException {
-		if (this.preferPartnerApi) {
+		if (this.preferPartnerApi && this.partnerArtistBreaker.tryAcquire()) {
 			try {
 				var partnerArtist = this.partnerApiClient.loadPartnerArtist(id, preview, this);
+				this.partnerArtistBreaker.onSuccess();
 				if (partnerArtist != AudioReference.NO_TRACK) {
 					return partnerArtist;
 				}
-			} catch (IOException e) {
-				log.warn("Partner API failed for artist {}, falling back to Spotify v1 API", id, e);
+			} catch (IOException | FriendlyException e) {
+				if (this.partnerArtistBreaker.onFailure()) {
+					log.warn("Partner API failed for artist {}, falling back to Spotify v1 API", id, e);
+				}
 			}
 		}
 
@@ -608,14 +716,17 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 	}
 
 	public AudioItem getTrack(String id, boolean preview) throws IOException {
-		if (this.preferPartnerApi) {
+		if (this.preferPartnerApi && this.partnerTrackBreaker.tryAcquire()) {
 			try {
 				var partnerTrack = this.partnerApiClient.loadPartnerTrack(id, preview, this);
+				this.partnerTrackBreaker.onSuccess();
 				if (partnerTrack != AudioReference.NO_TRACK) {
 					return partnerTrack;
 				}
-			} catch (IOException e) {
-				log.warn("Partner API failed for track {}, falling back to Spotify v1 API", id, e);
+			} catch (IOException | FriendlyException e) {
+				if (this.partnerTrackBreaker.onFailure()) {
+					log.warn("Partner API failed for track {}, falling back to Spotify v1 API", id, e);
+				}
 			}
 		}
 
@@ -625,18 +736,18 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 			if (artistJson != null) {
 				json.get("artists").index(0).put("images", artistJson.get("images"));
 			}
-			return this.parseTrack(json, preview);
+			return this.backfillV1Isrcs(List.of(this.parseTrack(json, preview))).get(0);
 		}
 		return AudioReference.NO_TRACK;
 	}
 
 
-	private List<AudioTrack> parseTracks(JsonBrowser json, boolean preview) {
+	List<AudioTrack> parseTracks(JsonBrowser json, boolean preview) {
 		var tracks = new ArrayList<AudioTrack>();
 		for (var value : json.get("tracks").values()) {
 			tracks.add(this.parseTrack(value, preview));
 		}
-		return tracks;
+		return this.backfillV1Isrcs(tracks);
 	}
 
 	private List<AudioTrack> parseTrackItems(JsonBrowser json, boolean preview) {
@@ -647,18 +758,12 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 			}
 			tracks.add(this.parseTrack(value, preview));
 		}
-		return tracks;
+		return this.backfillV1Isrcs(tracks);
 	}
 
 	private AudioTrack parseTrack(JsonBrowser json, boolean preview) {
 		var isrc = json.get("external_ids").get("isrc").text();
 		var id = json.get("id").text() != null ? json.get("id").text() : "local";
-		if (this.preferPartnerApi && isNullOrBlank(isrc) && !id.equals("local")) {
-			var fallbackIsrc = this.partnerApiClient.fetchIsrcViaSpClientMetadata(id);
-			if (!isNullOrBlank(fallbackIsrc)) {
-				isrc = fallbackIsrc;
-			}
-		}
 		return new SpotifyAudioTrack(
 			new AudioTrackInfo(
 				json.get("name").safeText(),
@@ -682,20 +787,9 @@ public class SpotifySourceManager extends MirroringAudioSourceManager implements
 
 	@Override
 	public void shutdown() {
-		try {
-			this.httpInterfaceManager.close();
-		} catch (IOException e) {
-			log.error("Failed to close HTTP interface manager", e);
-		}
-	}
-
-	@Override
-	public void configureRequests(Function<RequestConfig, RequestConfig> configurator) {
-		this.httpInterfaceManager.configureRequests(configurator);
-	}
-
-	@Override
-	public void configureBuilder(Consumer<HttpClientBuilder> configurator) {
-		this.httpInterfaceManager.configureBuilder(configurator);
+		this.tokenTracker.shutdown();
+		this.isrcBackfill.shutdown();
+		this.pageFetcher.shutdown();
+		super.shutdown();
 	}
 }
@@ -1,14 +1,20 @@
 package com.github.topi314.lavasrc.spotify;
 
+import com.github.topi314.lavasrc.HttpErrorException;
+import com.github.topi314.lavasrc.LavaSrcExecutors;
+import com.github.topi314.lavasrc.LavaSrcMetrics;
 import com.github.topi314.lavasrc.LavaSrcTools;
+import com.sedmelluq.discord.lavaplayer.tools.ExecutorTools;
+import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
+import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.util.EntityUtils;
+import org.jetbrains.annotations.Nullable;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -21,12 +27,21 @@ import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 
 public class SpotifyTokenTracker {
@@ -34,20 +49,31 @@ public class SpotifyTokenTracker {
 
 	private static final Pattern SECRET_PATTERN = Pattern.compile("\"secret\":\\[(\\d+(?:,\\d+)+)]");
 
+	// Tokens are refreshed in the background once they have less than this left
+	private static final long REFRESH_MARGIN_MS = TimeUnit.MINUTES.toMillis(5);
+	// Tokens which have not been used for this long are no longer refreshed in the background
+	private static final long IDLE_TIMEOUT_MS = TimeUnit.HOURS.toMillis(2);
+
+	public static final Duration DEFAULT_SECRET_TTL = Duration.ofHours(24);
+
 	private final SpotifySourceManager sourceManager;
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(LavaSrcExecutors.newThreadFactory("lavasrc-spotify-token"));
 
-	private String clientId;
-	private String clientSecret;
-	private String accessToken;
-	private Instant expires;
+	private volatile String clientId;
+	private volatile String clientSecret;
+	private final RefreshingToken accessToken = new RefreshingToken("access", this::fetchAccessToken);
 
-	private String customTokenEndpoint;
-	private String anonymousAccessToken;
-	private Instant anonymousExpires;
+	private volatile String customTokenEndpoint;
+	private final RefreshingToken anonymousAccessToken = new RefreshingToken("anonymous", this::fetchAnonymousAccessToken);
 
-	private String spDc;
-	private String accountAccessToken;
-	private Instant accountAccessTokenExpire;
+	private volatile String spDc;
+	private final RefreshingToken accountAccessToken = new RefreshingToken("account", this::fetchAccountAccessToken);
+
+	private final AtomicReference<Secret> secret = new AtomicReference<>();
+	private final ReentrantLock secretLock = new ReentrantLock();
+	private volatile Duration secretTtl = DEFAULT_SECRET_TTL;
+	@Nullable
+	private volatile Path secretFile;
 
 	public SpotifyTokenTracker(SpotifySourceManager source, String clientId, String clientSecret, String spDc) {
 		this(source, clientId, clientSecret, spDc, null);
@@ -73,16 +99,13 @@ public class SpotifyTokenTracker {
 	public void setClientIDS(String clientId, String clientSecret) {
 		this.clientId = clientId;
 		this.clientSecret = clientSecret;
-		this.accessToken = null;
-		this.expires = null;
+		this.accessToken.invalidate();
 	}
 
 	public void setCustomTokenEndpoint(String customTokenEndpoint) {
 		this.customTokenEndpoint = customTokenEndpoint;
-		this.anonymousAccessToken = null;
-		this.anonymousExpires = null;
-		this.accountAccessToken = null;
-		this.accountAccessTokenExpire = null;
+		this.anonymousAccessToken.invalidate();
+		this.accountAccessToken.invalidate();
 	}
 
 	private boolean hasValidCredentials() {
@@ -93,19 +116,11 @@ public class SpotifyTokenTracker {
 		if (useAnonymousToken || !hasValidCredentials()) {
 			return this.getAnonymousAccessToken();
 		}
-		if (this.accessToken == null || this.expires == null || this.expires.isBefore(Instant.now())) {
-			synchronized (this) {
-				if (accessToken == null || this.expires == null || this.expires.isBefore(Instant.now())) {
-					log.debug("Access token is invalid or expired, refreshing token...");
-					this.refreshAccessToken();
-				}
-			}
-		}
-		return this.accessToken;
+		return this.accessToken.get();
 	}
 
-	private void refreshAccessToken() throws IOException {
-		var request = new HttpPost("https://accounts.spotify.com/api/token");
+	private Token fetchAccessToken() throws IOException {
+		var request = new HttpPost(this.sourceManager.resolveUrl("https://accounts.spotify.com/api/token"));
 		request.addHeader("Authorization", "Basic " + Base64.getEncoder().encodeToString((this.clientId + ":" + this.clientSecret).getBytes(StandardCharsets.UTF_8)));
 		request.setEntity(new UrlEncodedFormEntity(List.of(new BasicNameValuePair("grant_type", "client_credentials")), StandardCharsets.UTF_8));
 
@@ -117,73 +132,71 @@ public class SpotifyTokenTracker {
 			var error = json.get("error").text();
 			throw new RuntimeException("Error while fetching access token: " + error);
 		}
-		accessToken = json.get("access_token").text();
-		expires = Instant.now().plusSeconds(json.get("expires_in").asLong(0));
+		return new Token(json.get("access_token").text(), Instant.now().plusSeconds(json.get("expires_in").asLong(0)));
 	}
 
 	public String getAnonymousAccessToken() throws IOException {
-		if (this.anonymousAccessToken == null || this.anonymousExpires == null || this.anonymousExpires.isBefore(Instant.now())) {
-			synchronized (this) {
-				if (this.anonymousAccessToken == null || this.anonymousExpires == null || this.anonymousExpires.isBefore(Instant.now())) {
-					log.debug("Anonymous access token is invalid or expired, refreshing token...");
-					this.refreshAnonymousAccessToken();
-				}
-			}
-		}
-		return this.anonymousAccessToken;
+		return this.anonymousAccessToken.get();
+	}
+
+	private Token fetchAnonymousAccessToken() throws IOException {
+		return this.withSecretRetry(this::requestAnonymousAccessToken);
 	}
 
-	private void refreshAnonymousAccessToken() throws IOException {
-		var request = new HttpGet(generateGetAccessTokenURL());
+	private Token requestAnonymousAccessToken() throws IOException {
+		var request = new HttpGet(this.sourceManager.resolveUrl(generateGetAccessTokenURL()));
 
-		var json = LavaSrcTools.fetchResponseAsJson(sourceManager.getHttpInterface(), request);
+		var json = this.fetchTokenJson(request);
 		if (json == null) {
 			throw new RuntimeException("No response from Spotify API while fetching anonymous access token.");
 		}
 		if (!json.get("error").isNull()) {
 			var error = json.get("error").text();
+			if (isSecretRejection(error)) {
+				throw new SecretRejectedException("Spotify rejected the secret while fetching anonymous access token: " + error, null);
+			}
 			throw new RuntimeException("Error while fetching anonymous access token: " + error);
 		}
 
-		anonymousAccessToken = json.get("accessToken").text();
-		anonymousExpires = Instant.ofEpochMilli(json.get("accessTokenExpirationTimestampMs").asLong(0));
+		return new Token(json.get("accessToken").text(), Instant.ofEpochMilli(json.get("accessTokenExpirationTimestampMs").asLong(0)));
 	}
 
 	public void setSpDc(String spDc) {
 		this.spDc = spDc;
-		this.accountAccessToken = null;
-		this.accountAccessTokenExpire = null;
+		this.accountAccessToken.invalidate();
 	}
 
 	public String getAccountAccessToken() throws IOException {
-		if (this.accountAccessToken == null || this.accountAccessTokenExpire == null || this.accountAccessTokenExpire.isBefore(Instant.now())) {
-			synchronized (this) {
-				if (this.accountAccessToken == null || this.accountAccessTokenExpire == null || this.accountAccessTokenExpire.isBefore(Instant.now())) {
-					log.debug("Account token is invalid or expired, refreshing token...");
-					this.refreshAccountAccessToken();
-				}
-			}
-		}
-		return this.accountAccessToken;
+		return this.accountAccessToken.get();
 	}
 
 	public void refreshAccountAccessToken() throws IOException {
-		var request = new HttpGet(generateGetAccessTokenURL());
+		this.accountAccessToken.refresh();
+	}
+
+	private Token fetchAccountAccessToken() throws IOException {
+		return this.withSecretRetry(this::requestAccountAccessToken);
+	}
+
+	private Token requestAccountAccessToken() throws IOException {
+		var request = new HttpGet(this.sourceManager.resolveUrl(generateGetAccessTokenURL()));
 		request.addHeader("App-Platform", "WebPlayer");
 		request.addHeader("Cookie", "sp_dc=" + this.spDc);
 
 		try {
-			var json = LavaSrcTools.fetchResponseAsJson(this.sourceManager.getHttpInterface(), request);
+			var json = this.fetchTokenJson(request);
 			if (json == null) {
 				throw new RuntimeException("No response from Spotify API while fetching account access token.");
 			}
 			if (!json.get("error").isNull()) {
 				var error = json.get("error").text();
+				if (isSecretRejection(error)) {
+					throw new SecretRejectedException("Spotify rejected the secret while fetching account access token: " + error, null);
+				}
 				log.error("Error while fetching account token: {}", error);
 				throw new RuntimeException("Error while fetching account access token: " + error);
 			}
-			this.accountAccessToken = json.get("accessToken").text();
-			this.accountAccessTokenExpire = Instant.ofEpochMilli(json.get("accessTokenExpirationTimestampMs").asLong(0));
+			return new Token(json.get("accessToken").text(), Instant.ofEpochMilli(json.get("accessTokenExpirationTimestampMs").asLong(0)));
 		} catch (IOException e) {
 			log.error("Account token refreshing failed.", e);
 			throw new RuntimeException("Account token refreshing failed", e);
@@ -194,15 +207,74 @@ public class SpotifyTokenTracker {
 		return this.spDc != null && !this.spDc.isEmpty();
 	}
 
+	/**
+	 * Sets how long the TOTP secret scraped from the Spotify web player is reused before it is scraped again.
+	 */
+	public void setSecretTtl(Duration secretTtl) {
+		this.secretTtl = secretTtl;
+	}
+
+	/**
+	 * Sets the file the scraped TOTP secret is persisted to, so it survives restarts. {@code null} disables persistence.
+	 */
+	public void setSecretFile(@Nullable Path secretFile) {
+		this.secretFile = secretFile;
+		this.secret.set(null);
+	}
+
+	/**
+	 * Fetches a token with the cached TOTP secret. If Spotify rejects the secret it might have been rotated,
+	 * so it is scraped again and the fetch is retried once.
+	 * Other errors like rate limits, network errors or an invalid sp_dc are rethrown and keep the cached secret.
+	 */
+	private Token withSecretRetry(TokenFetcher fetcher) throws IOException {
+		var start = System.currentTimeMillis();
+		try {
+			return fetcher.fetch();
+		} catch (SecretRejectedException e) {
+			var current = this.secret.get();
+			// only retry if the secret was not already scraped for this fetch
+			if (current == null || current.invalidated || current.fetchedAt >= start || this.customTokenEndpoint != null && !this.customTokenEndpoint.isBlank()) {
+				throw e;
+			}
+			log.warn("Fetching token with cached secret failed, scraping a new secret", e);
+			this.secret.compareAndSet(current, current.invalidate());
+			return fetcher.fetch();
+		}
+	}
+
+	/**
+	 * Fetches a token response, a 400 or 401 about the TOTP or secret is turned into a {@link SecretRejectedException}.
+	 */
+	private JsonBrowser fetchTokenJson(HttpUriRequest request) throws IOException {
+		try {
+			return LavaSrcTools.fetchResponseAsJson(this.sourceManager.getHttpInterface(), request);
+		} catch (HttpErrorException e) {
+			if ((e.getStatusCode() == 400 || e.getStatusCode() == 401) && isSecretRejection(e.getBody())) {
+				throw new SecretRejectedException("Spotify rejected the secret", e);
+			}
+			throw e;
+		}
+	}
+
+	private static boolean isSecretRejection(@Nullable String error) {
+		if (error == null) {
+			return false;
+		}
+		var lowerError = error.toLowerCase(Locale.ROOT);
+		return lowerError.contains("totp") || lowerError.contains("secret");
+	}
+
+	public void shutdown() {
+		ExecutorTools.shutdownExecutor(this.scheduler, "spotify token refresher");
+	}
+
 	private String generateGetAccessTokenURL() throws IOException {
 		if (this.customTokenEndpoint != null && !this.customTokenEndpoint.isBlank()) {
 			return this.customTokenEndpoint;
 		}
 
-		var secret = requestSecret();
-		if (secret == null) {
-			throw new IOException("Failed to retrieve secret from Spotify.");
-		}
+		var secret = this.getSecret();
 		var transformedSecret = convertArrayToTransformedByteArray(secret);
 		var hexSecret = toHexString(transformedSecret);
 		var totp = generateTOTP(hexSecret, 30, 6);
@@ -210,15 +282,99 @@ public class SpotifyTokenTracker {
 		return "https://open.spotify.com/api/token?reason=init&productType=web-player&totp=" + totp + "&totpVer=7&ts=" + ts;
 	}
 
+	private byte[] getSecret() throws IOException {
+		var current = this.secret.get();
+		if (current != null && current.isUsable(this.secretTtl)) {
+			return current.value;
+		}
+
+		this.secretLock.lock();
+		try {
+			current = this.secret.get();
+			if (current != null && current.isUsable(this.secretTtl)) {
+				return current.value;
+			}
+			// the persisted secret is only read on startup, an invalidated secret is always scraped again
+			if (current == null) {
+				current = this.readSecretFile();
+				if (current != null && current.isUsable(this.secretTtl)) {
+					this.secret.set(current);
+					return current.value;
+				}
+			}
+
+			var value = this.requestSecret();
+			if (value == null) {
+				throw new IOException("Failed to retrieve secret from Spotify.");
+			}
+			current = new Secret(value, System.currentTimeMillis(), false);
+			this.secret.set(current);
+			this.writeSecretFile(current);
+			return value;
+		} finally {
+			this.secretLock.unlock();
+		}
+	}
+
+	@Nullable
+	private Secret readSecretFile() {
+		var file = this.secretFile;
+		if (file == null || !Files.isRegularFile(file)) {
+			return null;
+		}
+		try {
+			var lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+			if (lines.size() < 2) {
+				return null;
+			}
+			var parts = lines.get(1).split(",");
+			var value = new byte[parts.length];
+			for (int i = 0; i < parts.length; i++) {
+				value[i] = (byte) Integer.parseInt(parts[i].trim());
+			}
+			log.debug("Loaded secret from {}", file);
+			return new Secret(value, Long.parseLong(lines.get(0).trim()), false);
+		} catch (IOException | RuntimeException e) {
+			log.warn("Failed to read secret from {}", file, e);
+			return null;
+		}
+	}
+
+	private void writeSecretFile(Secret secret) {
+		var file = this.secretFile;
+		if (file == null) {
+			return;
+		}
+		var value = new StringBuilder();
+		for (int i = 0; i < secret.value.length; i++) {
+			if (i > 0) {
+				value.append(',');
+			}
+			value.append(secret.value[i]);
+		}
+		try {
+			var parent = file.toAbsolutePath().getParent();
+			if (parent != null) {
+				Files.createDirectories(parent);
+			}
+			var tmp = file.resolveSibling(file.getFileName() + ".tmp");
+			Files.write(tmp, List.of(String.valueOf(secret.fetchedAt), value.toString()), StandardCharsets.UTF_8);
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.warn("Failed to persist secret to {}", file, e);
+		}
+	}
+
 	private byte[] requestSecret() throws IOException {
 		String homepageUrl = "https://open.spotify.com/";
 		String scriptPattern = "mobile-web-player";
 
 		log.debug("Requesting secret from Spotify homepage: {}", homepageUrl);
 
-		try (CloseableHttpClient client = HttpClients.createDefault()) {
+		try {
+			var httpInterface = this.sourceManager.getHttpInterface();
 			HttpGet request = new HttpGet(homepageUrl);
-			try (CloseableHttpResponse response = client.execute(request)) {
+			try (CloseableHttpResponse response = httpInterface.execute(request)) {
 				String html = EntityUtils.toString(response.getEntity());
 				Document doc = Jsoup.parse(html);
 				Elements scriptElements = doc.select("script[src]");
@@ -237,7 +393,7 @@ public class SpotifyTokenTracker {
 				}
 				for (String scriptUrl : scriptUrls) {
 					log.debug("Attempting to extract secret from script URL: {}", scriptUrl);
-					byte[] secret = extractSecret(client, scriptUrl);
+					byte[] secret = extractSecret(httpInterface, scriptUrl);
 					if (secret != null) {
 						log.debug("Successfully extracted secret.");
 						return secret;
@@ -252,7 +408,7 @@ public class SpotifyTokenTracker {
 		return null;
 	}
 
-	private static String generateTOTP(String secret, int period, int digits) {
+	static String generateTOTP(String secret, int period, int digits) {
 		var time = System.currentTimeMillis() / 1000 / period;
 		var buffer = ByteBuffer.allocate(8);
 		buffer.putLong(time);
@@ -273,9 +429,9 @@ public class SpotifyTokenTracker {
 		}
 	}
 
-	private static byte[] extractSecret(CloseableHttpClient client, String scriptUrl) throws IOException {
+	private static byte[] extractSecret(HttpInterface httpInterface, String scriptUrl) throws IOException {
 		var scriptRequest = new HttpGet(scriptUrl);
-		try (var scriptResponse = client.execute(scriptRequest)) {
+		try (var scriptResponse = httpInterface.execute(scriptRequest)) {
 			var scriptContent = EntityUtils.toString(scriptResponse.getEntity());
 
 			var matcher = SECRET_PATTERN.matcher(scriptContent);
@@ -327,4 +483,168 @@ public class SpotifyTokenTracker {
 		return data;
 	}
 
+	@FunctionalInterface
+	private interface TokenFetcher {
+		Token fetch() throws IOException;
+	}
+
+	/**
+	 * Thrown when the token endpoint rejected the TOTP, which means the secret was probably rotated.
+	 */
+	private static class SecretRejectedException extends RuntimeException {
+
+		private static final long serialVersionUID = -6164201389553927435L;
+
+		private SecretRejectedException(String message, Throwable cause) {
+			super(message, cause);
+		}
+	}
+
+	private static class Secret {
+		private final byte[] value;
+		private final long fetchedAt;
+		private final boolean invalidated;
+
+		private Secret(byte[] value, long fetchedAt, boolean invalidated) {
+			this.value = value;
+			this.fetchedAt = fetchedAt;
+			this.invalidated = invalidated;
+		}
+
+		private boolean isUsable(Duration ttl) {
+			return !this.invalidated && System.currentTimeMillis() - this.fetchedAt < ttl.toMillis();
+		}
+
+		private Secret invalidate() {
+			return new Secret(this.value, this.fetchedAt, true);
+		}
+	}
+
+	private static class Token {
+		private final String value;
+		private final long expiresAt;
+		private final long refreshAt;
+
+		private Token(String value, Instant expires) {
+			var now = System.currentTimeMillis();
+			this.value = value;
+			this.expiresAt = expires.toEpochMilli();
+			this.refreshAt = this.expiresAt - Math.min(REFRESH_MARGIN_MS, Math.max(0, this.expiresAt - now) / 4);
+		}
+
+		private boolean isExpired() {
+			return this.value == null || System.currentTimeMillis() >= this.expiresAt;
+		}
+
+		private boolean needsRefresh() {
+			return System.currentTimeMillis() >= this.refreshAt;
+		}
+	}
+
+	/**
+	 * A token which is refreshed ahead of its expiry on the scheduler. Readers get the published token without locking,
+	 * and only block if there is no valid token at all.
+	 */
+	private class RefreshingToken {
+		private final String name;
+		private final TokenFetcher fetcher;
+		private final ReentrantLock lock = new ReentrantLock();
+		private final AtomicBoolean refreshing = new AtomicBoolean();
+		private volatile Token token;
+		private volatile long lastAccess;
+		private ScheduledFuture<?> scheduledRefresh;
+
+		private RefreshingToken(String name, TokenFetcher fetcher) {
+			this.name = name;
+			this.fetcher = fetcher;
+		}
+
+		private String get() throws IOException {
+			this.lastAccess = System.currentTimeMillis();
+			var current = this.token;
+			if (current != null && !current.isExpired()) {
+				if (current.needsRefresh()) {
+					this.refreshInBackground();
+				}
+				return current.value;
+			}
+
+			this.lock.lock();
+			try {
+				current = this.token;
+				if (current != null && !current.isExpired()) {
+					return current.value;
+				}
+				log.debug("{} token is invalid or expired, refreshing token...", this.name);
+				return this.refresh().value;
+			} finally {
+				this.lock.unlock();
+			}
+		}
+
+		private Token refresh() throws IOException {
+			this.lock.lock();
+			var start = System.nanoTime();
+			var success = false;
+			try {
+				var newToken = this.fetcher.fetch();
+				success = true;
+				this.token = newToken;
+				this.schedule(newToken);
+				return newToken;
+			} finally {
+				this.lock.unlock();
+				LavaSrcMetrics.tokenRefresh("spotify", this.name, success, start);
+			}
+		}
+
+		private void refreshInBackground() {
+			if (!this.refreshing.compareAndSet(false, true)) {
+				return;
+			}
+			try {
+				scheduler.execute(() -> {
+					try {
+						if (System.currentTimeMillis() - this.lastAccess > IDLE_TIMEOUT_MS) {
+							log.debug("{} token has not been used recently, stopping background refresh", this.name);
+							return;
+						}
+						log.debug("Refreshing {} token ahead of expiry...", this.name);
+						this.refresh();
+					} catch (Exception e) {
+						log.warn("Failed to refresh {} token in the background", this.name, e);
+					} finally {
+						this.refreshing.set(false);
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				this.refreshing.set(false);
+			}
+		}
+
+		private void schedule(Token token) {
+			if (this.scheduledRefresh != null) {
+				this.scheduledRefresh.cancel(false);
+			}
+			var delay = token.refreshAt - System.currentTimeMillis();
+			if (delay <= 0 || scheduler.isShutdown()) {
+				return;
+			}
+			this.scheduledRefresh = scheduler.schedule(this::refreshInBackground, delay, TimeUnit.MILLISECONDS);
+		}
+
+		private void invalidate() {
+			this.lock.lock();
+			try {
+				this.token = null;
+				if (this.scheduledRefresh != null) {
+					this.scheduledRefresh.cancel(false);
+					this.scheduledRefresh = null;
+				}
+			} finally {
+				this.lock.unlock();
+			}
+		}
+	}
+
 }
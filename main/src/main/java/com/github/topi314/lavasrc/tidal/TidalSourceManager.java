@@ -1,7 +1,7 @@
 package com.github.topi314.lavasrc.tidal;
 
 import com.github.topi314.lavasrc.ExtendedAudioPlaylist;
-import com.github.topi314.lavasrc.LavaSrcTools;
+import com.github.topi314.lavasrc.RequestCoalescer;
 import com.github.topi314.lavasrc.mirror.DefaultMirroringAudioTrackResolver;
 import com.github.topi314.lavasrc.mirror.MirroringAudioSourceManager;
 import com.github.topi314.lavasrc.mirror.MirroringAudioTrackResolver;
@@ -9,12 +9,8 @@ import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpConfigurable;
-import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
-import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
 import com.sedmelluq.discord.lavaplayer.track.*;
-import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,7 +20,6 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -42,8 +37,8 @@ public class TidalSourceManager extends MirroringAudioSourceManager implements H
 	private static final Logger log = LoggerFactory.getLogger(TidalSourceManager.class);
 
 	private final String tidalToken;
-	private final HttpInterfaceManager httpInterfaceManager;
 	private final String countryCode;
+	private final RequestCoalescer requestCoalescer = new RequestCoalescer();
 	private int searchLimit = 6;
 
 	public TidalSourceManager(String[] providers, String countryCode, Function<Void, AudioPlayerManager> audioPlayerManager, String tidalToken) {
@@ -51,13 +46,12 @@ public class TidalSourceManager extends MirroringAudioSourceManager implements H
 	}
 
 	public TidalSourceManager(String countryCode, Function<Void, AudioPlayerManager> audioPlayerManager, MirroringAudioTrackResolver mirroringAudioTrackResolver, String tidalToken) {
-		super(audioPlayerManager, mirroringAudioTrackResolver);
+		super(audioPlayerManager, mirroringAudioTrackResolver, HttpClientTools.createCookielessThreadLocalManager());
 		this.countryCode = (countryCode == null || countryCode.isEmpty()) ? "US" : countryCode;
 		if (tidalToken == null || tidalToken.isEmpty()) {
 			throw new IllegalArgumentException("Tidal token must be provided");
 		}
 		this.tidalToken = tidalToken;
-		this.httpInterfaceManager = HttpClientTools.createCookielessThreadLocalManager();
 	}
 
 	public void setSearchLimit(int searchLimit) {
@@ -77,40 +71,41 @@ public class TidalSourceManager extends MirroringAudioSourceManager implements H
 
 	@Override
 	public AudioItem loadItem(AudioPlayerManager manager, AudioReference reference) {
+		var identifier = reference.identifier;
 		try {
-			var matcher = URL_PATTERN.matcher(reference.identifier);
+			var matcher = URL_PATTERN.matcher(identifier);
 			if (matcher.matches()) {
 				var type = matcher.group("type");
 				var id = matcher.group("id");
 
 				switch (type) {
 					case "album":
-						return this.getAlbumOrPlaylist(id, "album", ALBUM_MAX_PAGE_ITEMS);
+						return this.loadItemCached(manager, identifier, () -> this.getAlbumOrPlaylist(id, "album", ALBUM_MAX_PAGE_ITEMS));
 					case "mix":
-						return this.getMix(id);
+						return this.loadItemCached(manager, identifier, () -> this.getMix(id));
 					case "track":
-						return this.getTrack(id);
+						return this.loadItemCached(manager, identifier, () -> this.getTrack(id));
 					case "playlist":
-						return this.getAlbumOrPlaylist(id, "playlist", PLAYLIST_MAX_PAGE_ITEMS);
+						return this.loadItemCached(manager, identifier, () -> this.getAlbumOrPlaylist(id, "playlist", PLAYLIST_MAX_PAGE_ITEMS));
 					default:
 						return null;
 				}
 			}
 
-			if (reference.identifier.startsWith(SEARCH_PREFIX)) {
-				var query = reference.identifier.substring(SEARCH_PREFIX.length());
+			if (identifier.startsWith(SEARCH_PREFIX)) {
+				var query = identifier.substring(SEARCH_PREFIX.length());
 				if (query.isEmpty()) {
 					throw new IllegalArgumentException("No query provided for search");
 				}
-				return this.getSearch(query);
+				return this.loadItemCached(manager, identifier, () -> this.getSearch(query));
 			}
 
-			if (reference.identifier.startsWith(RECOMMENDATIONS_PREFIX)) {
-				var trackId = reference.identifier.substring(RECOMMENDATIONS_PREFIX.length());
+			if (identifier.startsWith(RECOMMENDATIONS_PREFIX)) {
+				var trackId = identifier.substring(RECOMMENDATIONS_PREFIX.length());
 				if (trackId.isEmpty()) {
 					throw new IllegalArgumentException("No track ID provided for recommendations");
 				}
-				return this.getRecommendations(trackId);
+				return this.loadItemCached(manager, identifier, () -> this.getRecommendations(trackId));
 			}
 		} catch (IOException e) {
 			throw new RuntimeException(e);
@@ -119,10 +114,10 @@ public class TidalSourceManager extends MirroringAudioSourceManager implements H
 	}
 
 	private JsonBrowser getJson(String uri) throws IOException {
-		var request = new HttpGet(uri);
+		var request = new HttpGet(this.resolveUrl(uri));
 		request.setHeader("user-agent", USER_AGENT);
 		request.setHeader("x-tidal-token", this.tidalToken);
-		return LavaSrcTools.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
+		return this.requestCoalescer.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
 	}
 
 	private List<AudioTrack> parseTracks(JsonBrowser json) {
@@ -232,6 +227,7 @@ public class TidalSourceManager extends MirroringAudioSourceManager implements H
 			return AudioReference.NO_TRACK;
 		}
 		var artworkUrl = "https://resources.tidal.com/images/" + coverUrl.replaceAll("-", "/") + "/1080x1080.jpg";
+		this.preResolve(items);
 		return new TidalAudioPlaylist(title, items, type.equalsIgnoreCase("playlist") ? ExtendedAudioPlaylist.Type.PLAYLIST : ExtendedAudioPlaylist.Type.ALBUM, url, artworkUrl, artistName, (int) totalTracks);
 	}
 
@@ -274,26 +270,4 @@ public class TidalSourceManager extends MirroringAudioSourceManager implements H
 		return tracks;
 	}
 
-	@Override
-	public void configureRequests(Function<RequestConfig, RequestConfig> configurator) {
-		httpInterfaceManager.configureRequests(configurator);
-	}
-
-	@Override
-	public void configureBuilder(Consumer<HttpClientBuilder> configurator) {
-		httpInterfaceManager.configureBuilder(configurator);
-	}
-
-	@Override
-	public void shutdown() {
-		try {
-			httpInterfaceManager.close();
-		} catch (IOException e) {
-			log.error("Failed to close HTTP interface manager", e);
-		}
-	}
-
-	public HttpInterface getHttpInterface() {
-		return httpInterfaceManager.getInterface();
-	}
 }
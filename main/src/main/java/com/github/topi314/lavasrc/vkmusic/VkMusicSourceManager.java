@@ -8,7 +8,7 @@ import com.github.topi314.lavasearch.result.AudioSearchResult;
 import com.github.topi314.lavasearch.result.BasicAudioSearchResult;
 import com.github.topi314.lavasrc.ExtendedAudioPlaylist;
 import com.github.topi314.lavasrc.ExtendedAudioSourceManager;
-import com.github.topi314.lavasrc.LavaSrcTools;
+import com.github.topi314.lavasrc.RequestCoalescer;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
@@ -50,6 +50,7 @@ public class VkMusicSourceManager extends ExtendedAudioSourceManager implements
 	private static final Logger log = LoggerFactory.getLogger(VkMusicSourceManager.class);
 
 	private final HttpInterfaceManager httpInterfaceManager;
+	private final RequestCoalescer requestCoalescer = new RequestCoalescer();
 
 	private String userToken;
 	private int artistLoadLimit;
@@ -246,45 +247,45 @@ public class VkMusicSourceManager extends ExtendedAudioSourceManager implements
 
 	@Override
 	public AudioItem loadItem(AudioPlayerManager manager, AudioReference reference) {
+		var identifier = reference.identifier;
 		try {
-			if (reference.identifier.startsWith(SEARCH_PREFIX)) {
-				return this.getSearch(reference.identifier.substring(SEARCH_PREFIX.length()));
+			if (identifier.startsWith(SEARCH_PREFIX)) {
+				return this.loadItemCached(manager, identifier, () -> this.getSearch(identifier.substring(SEARCH_PREFIX.length())));
 			}
-			if (reference.identifier.startsWith(RECOMMENDATIONS_PREFIX)) {
-				return this.getRecommendations(reference.identifier.substring(RECOMMENDATIONS_PREFIX.length()));
+			if (identifier.startsWith(RECOMMENDATIONS_PREFIX)) {
+				return this.loadItemCached(manager, identifier, () -> this.getRecommendations(identifier.substring(RECOMMENDATIONS_PREFIX.length())));
 			}
-			var uri = reference.identifier;
 
-			var playlistFromHeader = VK_PLAYLIST_HEADER_REGEX.matcher(uri);
+			var playlistFromHeader = VK_PLAYLIST_HEADER_REGEX.matcher(identifier);
 			if (playlistFromHeader.find()) {
 				if (playlistFromHeader.group("owner") != null && playlistFromHeader.group("id") != null) {
-					return this.getPlaylist(
+					return this.loadItemCached(manager, identifier, () -> this.getPlaylist(
 						playlistFromHeader.group("owner"),
 						playlistFromHeader.group("id"),
 						playlistFromHeader.group("accessKey")
-					);
+					));
 				}
 			}
 
-			var playlistMatcher = VK_PLAYLIST_TYPE_REGEX.matcher(uri);
+			var playlistMatcher = VK_PLAYLIST_TYPE_REGEX.matcher(identifier);
 			if (playlistMatcher.find()) {
 				if (playlistMatcher.group("owner") != null && playlistMatcher.group("id") != null) {
-					return this.getPlaylist(
+					return this.loadItemCached(manager, identifier, () -> this.getPlaylist(
 						playlistMatcher.group("owner"),
 						playlistMatcher.group("id"),
 						playlistMatcher.group("accessKey")
-					);
+					));
 				}
 			}
 
-			var trackMatcher = VK_TRACK_REGEX.matcher(uri);
+			var trackMatcher = VK_TRACK_REGEX.matcher(identifier);
 			if (trackMatcher.find() && trackMatcher.group("id") != null && trackMatcher.group("artistId") != null) {
-				return this.getTrack(trackMatcher.group("id") + "_" + trackMatcher.group("artistId"));
+				return this.loadItemCached(manager, identifier, () -> this.getTrack(trackMatcher.group("id") + "_" + trackMatcher.group("artistId")));
 			}
 
-			var artistMatcher = VK_ARTIST_REGEX.matcher(uri);
+			var artistMatcher = VK_ARTIST_REGEX.matcher(identifier);
 			if (artistMatcher.find()) {
-				return this.getArtist(artistMatcher.group("artistId"));
+				return this.loadItemCached(manager, identifier, () -> this.getArtist(artistMatcher.group("artistId")));
 			}
 		} catch (IOException e) {
 			throw new RuntimeException(e);
@@ -440,9 +441,9 @@ public class VkMusicSourceManager extends ExtendedAudioSourceManager implements
 
 	public JsonBrowser getJson(String method, String headers) throws IOException {
 		var uri = PUBLIC_API_BASE + method + "?v=" + API_VERSION + headers + "&access_token=" + this.userToken;
-		var request = new HttpGet(uri);
+		var request = new HttpGet(this.resolveUrl(uri));
 		request.setHeader("Content-Type", "application/json");
-		return LavaSrcTools.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
+		return this.requestCoalescer.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
 	}
 
 	private List<AudioTrack> parseTracks(JsonBrowser json) {
@@ -8,7 +8,7 @@ import com.github.topi314.lavasearch.result.AudioSearchResult;
 import com.github.topi314.lavasearch.result.BasicAudioSearchResult;
 import com.github.topi314.lavasrc.ExtendedAudioPlaylist;
 import com.github.topi314.lavasrc.ExtendedAudioSourceManager;
-import com.github.topi314.lavasrc.LavaSrcTools;
+import com.github.topi314.lavasrc.RequestCoalescer;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
@@ -54,6 +54,7 @@ public class YandexMusicSourceManager extends ExtendedAudioSourceManager impleme
 	private static final Logger log = LoggerFactory.getLogger(YandexMusicSourceManager.class);
 
 	private final HttpInterfaceManager httpInterfaceManager;
+	private final RequestCoalescer requestCoalescer = new RequestCoalescer();
 
 	private String accessToken;
 	private int artistLoadLimit;
@@ -285,45 +286,48 @@ public class YandexMusicSourceManager extends ExtendedAudioSourceManager impleme
 
 	@Override
 	public AudioItem loadItem(AudioPlayerManager manager, AudioReference reference) {
+		var identifier = reference.identifier;
 		try {
-			if (reference.identifier.startsWith(SEARCH_PREFIX)) {
-				return this.getSearch(reference.identifier.substring(SEARCH_PREFIX.length()));
+			if (identifier.startsWith(SEARCH_PREFIX)) {
+				return this.loadItemCached(manager, identifier, () -> this.getSearch(identifier.substring(SEARCH_PREFIX.length())));
 			}
 
-			if (reference.identifier.startsWith(RECOMMENDATIONS_PREFIX)) {
-				return this.getRecommendations(reference.identifier.substring(RECOMMENDATIONS_PREFIX.length()));
+			if (identifier.startsWith(RECOMMENDATIONS_PREFIX)) {
+				return this.loadItemCached(manager, identifier, () -> this.getRecommendations(identifier.substring(RECOMMENDATIONS_PREFIX.length())));
 			}
 
-			var matcher = URL_PATTERN.matcher(reference.identifier);
+			var matcher = URL_PATTERN.matcher(identifier);
 			if (matcher.find()) {
 				var domainEnd = matcher.group("domain");
 				switch (matcher.group("type1")) {
 					case "album":
 						if (matcher.group("type2") != null) {
 							var trackId = matcher.group("identifier2");
-							return this.getTrack(trackId, domainEnd);
+							return this.loadItemCached(manager, identifier, () -> this.getTrack(trackId, domainEnd));
 						}
 						var albumId = matcher.group("identifier");
-						return this.getAlbum(albumId, domainEnd);
+						return this.loadItemCached(manager, identifier, () -> this.getAlbum(albumId, domainEnd));
 					case "artist":
 						var artistId = matcher.group("identifier");
-						return this.getArtist(artistId, domainEnd);
+						return this.loadItemCached(manager, identifier, () -> this.getArtist(artistId, domainEnd));
 					case "track":
 						var trackId = matcher.group("identifier");
-						return this.getTrack(trackId, domainEnd);
+						return this.loadItemCached(manager, identifier, () -> this.getTrack(trackId, domainEnd));
 				}
 				return null;
 			}
-			matcher = URL_PLAYLIST_PATTERN.matcher(reference.identifier);
-			if (matcher.find()) {
-				var userId = matcher.group("identifier");
-				var playlistId = matcher.group("identifier2");
-				return this.getPlaylist(userId, playlistId, matcher.group("domain"));
+			var playlistMatcher = URL_PLAYLIST_PATTERN.matcher(identifier);
+			if (playlistMatcher.find()) {
+				var userId = playlistMatcher.group("identifier");
+				var playlistId = playlistMatcher.group("identifier2");
+				var domain = playlistMatcher.group("domain");
+				return this.loadItemCached(manager, identifier, () -> this.getPlaylist(userId, playlistId, domain));
 			}
-			matcher = URL_PLAYLIST_UUID_PATTERN.matcher(reference.identifier);
-			if (matcher.find()) {
-				var uuid = matcher.group("identifier");
-				return this.getPlaylist(uuid, matcher.group("domain"));
+			var uuidMatcher = URL_PLAYLIST_UUID_PATTERN.matcher(identifier);
+			if (uuidMatcher.find()) {
+				var uuid = uuidMatcher.group("identifier");
+				var domain = uuidMatcher.group("domain");
+				return this.loadItemCached(manager, identifier, () -> this.getPlaylist(uuid, domain));
 			}
 		} catch (IOException e) {
 			throw new RuntimeException(e);
@@ -491,16 +495,16 @@ public class YandexMusicSourceManager extends ExtendedAudioSourceManager impleme
 	}
 
 	public JsonBrowser getJson(String uri) throws IOException {
-		var request = new HttpGet(uri);
+		var request = new HttpGet(this.resolveUrl(uri));
 		request.setHeader("Accept", "application/json");
 		request.setHeader("Authorization", "OAuth " + this.accessToken);
 		request.setHeader("User-Agent", "Yandex-Music-API");
 		request.setHeader("X-Yandex-Music-Client", "YandexMusicAndroid/24023621");
-		return LavaSrcTools.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
+		return this.requestCoalescer.fetchResponseAsJson(this.httpInterfaceManager.getInterface(), request);
 	}
 
 	public String[] getDownloadStrings(String uri, String name) throws IOException {
-		var request = new HttpGet(uri);
+		var request = new HttpGet(this.resolveUrl(uri));
 		request.setHeader("Accept", "application/json");
 		request.setHeader("Authorization", "OAuth " + this.accessToken);
 		return HttpClientTools.fetchResponseLines(this.httpInterfaceManager.getInterface(), request, name);
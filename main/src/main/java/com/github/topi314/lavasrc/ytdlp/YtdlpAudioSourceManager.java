@@ -2,6 +2,7 @@ package com.github.topi314.lavasrc.ytdlp;
 
 import com.github.topi314.lavasrc.ExtendedAudioPlaylist;
 import com.github.topi314.lavasrc.ExtendedAudioSourceManager;
+import com.github.topi314.lavasrc.LavaSrcExecutors;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.tools.JsonBrowser;
 import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
@@ -258,7 +259,7 @@ public class YtdlpAudioSourceManager extends ExtendedAudioSourceManager implemen
 			log.debug("yt-dlp process output: {}", data);
 			int exitCode;
 			try {
-				exitCode = process.waitFor();
+				exitCode = LavaSrcExecutors.waitFor(process);
 			} catch (InterruptedException e) {
 				Thread.currentThread().interrupt();
 				throw new IOException("yt-dlp process was interrupted", e);
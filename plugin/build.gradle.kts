@@ -22,6 +22,8 @@ dependencies {
 	compileOnly("com.github.topi314.lavasearch:lavasearch:1.0.0")
 	implementation("com.github.topi314.lavasearch:lavasearch-plugin-api:1.0.0")
 	implementation("com.github.topi314.lavalyrics:lavalyrics-plugin-api:1.0.0")
+	// provided by Lavalink, which serves its default registry on the prometheus endpoint
+	compileOnly("io.prometheus:simpleclient:0.16.0")
 
 	// Copy lyrics.kt from main
 	project.project(":main").configurations["implementation"].dependencies.forEach {
@@ -4,13 +4,23 @@ import com.github.topi314.lavalyrics.LyricsManager;
 import com.github.topi314.lavalyrics.api.LyricsManagerConfiguration;
 import com.github.topi314.lavasearch.SearchManager;
 import com.github.topi314.lavasearch.api.SearchManagerConfiguration;
+import com.github.topi314.lavasrc.AdaptiveRateLimiter;
+import com.github.topi314.lavasrc.ExtendedAudioSourceManager;
+import com.github.topi314.lavasrc.HttpPoolSettings;
+import com.github.topi314.lavasrc.LavaSrcExecutors;
 import com.github.topi314.lavasrc.applemusic.AppleMusicSourceManager;
+import com.github.topi314.lavasrc.cache.DiskAudioItemCache;
+import com.github.topi314.lavasrc.cache.MemoryAudioItemCache;
 import com.github.topi314.lavasrc.deezer.DeezerAudioSourceManager;
 import com.github.topi314.lavasrc.deezer.DeezerAudioTrack;
 import com.github.topi314.lavasrc.flowerytts.FloweryTTSSourceManager;
 import com.github.topi314.lavasrc.jiosaavn.JioSaavnAudioSourceManager;
 import com.github.topi314.lavasrc.lrclib.LrcLibLyricsManager;
+import com.github.topi314.lavasrc.mirror.CachingMirroringAudioTrackResolver;
 import com.github.topi314.lavasrc.mirror.DefaultMirroringAudioTrackResolver;
+import com.github.topi314.lavasrc.mirror.MirroringAudioTrackCache;
+import com.github.topi314.lavasrc.mirror.MirroringAudioTrackPreResolver;
+import com.github.topi314.lavasrc.mirror.MirroringAudioTrackResolver;
 import com.github.topi314.lavasrc.plugin.config.*;
 import com.github.topi314.lavasrc.plugin.service.ProxyConfigurationService;
 import com.github.topi314.lavasrc.protocol.Config;
@@ -22,24 +32,38 @@ import com.github.topi314.lavasrc.yandexmusic.YandexMusicSourceManager;
 import com.github.topi314.lavasrc.youtube.YoutubeSearchManager;
 import com.github.topi314.lavasrc.ytdlp.YtdlpAudioSourceManager;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpConfigurable;
 import dev.arbjerg.lavalink.api.AudioPlayerManagerConfiguration;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
 @Service
 @RestController
-public class LavaSrcPlugin implements AudioPlayerManagerConfiguration, SearchManagerConfiguration, LyricsManagerConfiguration {
+public class LavaSrcPlugin implements AudioPlayerManagerConfiguration, SearchManagerConfiguration, LyricsManagerConfiguration, DisposableBean {
 
 	private static final Logger log = LoggerFactory.getLogger(LavaSrcPlugin.class);
 
 	private final SourcesConfig sourcesConfig;
 	private final LyricsSourcesConfig lyricsSourcesConfig;
+	private final HttpPoolSettings httpPoolSettings;
 	private AudioPlayerManager manager;
+	private MirroringAudioTrackCache mirrorCache;
+	private MemoryAudioItemCache itemCache;
+	private DiskAudioItemCache diskCache;
+	private MirroringAudioTrackPreResolver mirrorPreResolver;
 	private SpotifySourceManager spotify;
 	private AppleMusicSourceManager appleMusic;
 	private DeezerAudioSourceManager deezer;
@@ -55,6 +79,11 @@ public class LavaSrcPlugin implements AudioPlayerManagerConfiguration, SearchMan
 
 	public LavaSrcPlugin(
 		LavaSrcConfig pluginConfig,
+		MirrorConfig mirrorConfig,
+		HttpPoolConfig httpPoolConfig,
+		RateLimitConfig rateLimitConfig,
+		ItemCacheConfig itemCacheConfig,
+		DiskCacheConfig diskCacheConfig,
 		SourcesConfig sourcesConfig,
 		LyricsSourcesConfig lyricsSourcesConfig,
 		SpotifyConfig spotifyConfig,
@@ -73,16 +102,87 @@ public class LavaSrcPlugin implements AudioPlayerManagerConfiguration, SearchMan
 		log.info("Loading LavaSrc plugin...");
 		this.sourcesConfig = sourcesConfig;
 		this.lyricsSourcesConfig = lyricsSourcesConfig;
+		this.httpPoolSettings = httpPoolConfig.buildSettings();
+
+		// needs to be set before the sources create their executors
+		if (pluginConfig.isVirtualThreads() && LavaSrcExecutors.setVirtualThreads(true)) {
+			log.info("Running blocking LavaSrc work on virtual threads");
+		}
+
+		AdaptiveRateLimiter.setEnabled(rateLimitConfig.isEnabled());
+		if (rateLimitConfig.getMaxRequestsPerSecond() > 0) {
+			AdaptiveRateLimiter.setMaxRequestsPerSecond(rateLimitConfig.getMaxRequestsPerSecond());
+		}
+		if (rateLimitConfig.getMinRequestsPerSecond() > 0) {
+			AdaptiveRateLimiter.setMinRequestsPerSecond(rateLimitConfig.getMinRequestsPerSecond());
+		}
+		if (rateLimitConfig.getMaxWait() != null) {
+			AdaptiveRateLimiter.setMaxWait(rateLimitConfig.getMaxWait().toMillis());
+		}
+
+		if (diskCacheConfig.getPath() != null) {
+			try {
+				this.diskCache = new DiskAudioItemCache(Path.of(diskCacheConfig.getPath()), diskCacheConfig.getMaxSize().toBytes(), diskCacheConfig.getTrackTtl(), diskCacheConfig.getPlaylistTtl(), diskCacheConfig.getSearchTtl());
+			} catch (IOException e) {
+				log.error("Failed to open disk cache at {}, continuing without it", diskCacheConfig.getPath(), e);
+			}
+		}
+		if (itemCacheConfig.isEnabled()) {
+			this.itemCache = new MemoryAudioItemCache(itemCacheConfig.getMaxMemory().toBytes(), itemCacheConfig.getTrackTtl(), itemCacheConfig.getPlaylistTtl(), itemCacheConfig.getSearchTtl(), this.diskCache);
+		}
+
+		var defaultMirrorResolver = new DefaultMirroringAudioTrackResolver(pluginConfig.getProviders());
+		if (mirrorConfig.getHedgeDelay() != null) {
+			defaultMirrorResolver.setHedgeDelay(mirrorConfig.getHedgeDelay().toMillis());
+		}
+		if (mirrorConfig.getProviderTimeout() != null) {
+			defaultMirrorResolver.setProviderTimeout(mirrorConfig.getProviderTimeout().toMillis());
+		}
+		MirroringAudioTrackResolver mirrorResolver = defaultMirrorResolver;
+		if (mirrorConfig.isCacheEnabled()) {
+			this.mirrorCache = new MirroringAudioTrackCache(mirrorConfig.getCacheMaxSize(), mirrorConfig.getCacheTtl(), mirrorConfig.getCacheNegativeTtl());
+			this.mirrorCache.setSecondTier(this.diskCache);
+			var cachingMirrorResolver = new CachingMirroringAudioTrackResolver(mirrorResolver, this.mirrorCache);
+			if (mirrorConfig.isPreResolveEnabled()) {
+				this.mirrorPreResolver = new MirroringAudioTrackPreResolver(cachingMirrorResolver, mirrorConfig.getPreResolveInitialTracks(), mirrorConfig.getPreResolveWindowSize(), mirrorConfig.getPreResolveThreads(), MirroringAudioTrackPreResolver.DEFAULT_QUEUE_SIZE, mirrorConfig.getPreResolveRequestsPerSecond());
+			}
+			mirrorResolver = cachingMirrorResolver;
+		} else if (mirrorConfig.isPreResolveEnabled()) {
+			log.warn("Mirror pre-resolution requires the mirror cache to be enabled, ignoring it.");
+		}
+		if (this.diskCache != null && this.itemCache == null && this.mirrorCache == null) {
+			log.warn("The disk cache requires the item cache or the mirror cache to be enabled, it won't be used.");
+		}
 
 		if (sourcesConfig.isSpotify() || lyricsSourcesConfig.isSpotify()) {
-			this.spotify = new SpotifySourceManager(spotifyConfig.getClientId(), spotifyConfig.getClientSecret(), spotifyConfig.isPreferPartnerApi(), spotifyConfig.getCustomTokenEndpoint(), spotifyConfig.getSpDc(), spotifyConfig.getCountryCode(), unused -> manager, new DefaultMirroringAudioTrackResolver(pluginConfig.getProviders()));
+			this.spotify = new SpotifySourceManager(spotifyConfig.getClientId(), spotifyConfig.getClientSecret(), spotifyConfig.isPreferPartnerApi(), spotifyConfig.getCustomTokenEndpoint(), spotifyConfig.getSpDc(), spotifyConfig.getCountryCode(), unused -> manager, mirrorResolver);
 			this.spotify.setPreferV1SearchApi(spotifyConfig.isPreferV1SearchApi());
+			this.spotify.setPreResolver(this.mirrorPreResolver);
+			this.spotify.setIsrcBackfillMode(spotifyConfig.getIsrcBackfillMode());
+			if (spotifyConfig.getIsrcBackfillParallelism() > 0) {
+				this.spotify.setIsrcBackfillParallelism(spotifyConfig.getIsrcBackfillParallelism());
+			}
+			if (spotifyConfig.getPartnerApiFailureThreshold() > 0) {
+				this.spotify.setPartnerApiFailureThreshold(spotifyConfig.getPartnerApiFailureThreshold());
+			}
+			if (spotifyConfig.getPartnerApiRetryDelay() != null) {
+				this.spotify.setPartnerApiRetryDelay(spotifyConfig.getPartnerApiRetryDelay());
+			}
 			if (spotifyConfig.getPlaylistLoadLimit() > 0) {
 				this.spotify.setPlaylistPageLimit(spotifyConfig.getPlaylistLoadLimit());
 			}
 			if (spotifyConfig.getAlbumLoadLimit() > 0) {
 				this.spotify.setAlbumPageLimit(spotifyConfig.getAlbumLoadLimit());
 			}
+			if (spotifyConfig.getPageConcurrency() > 0) {
+				this.spotify.setPageConcurrency(spotifyConfig.getPageConcurrency());
+			}
+			if (spotifyConfig.getSecretTtl() != null) {
+				this.spotify.setSecretTtl(spotifyConfig.getSecretTtl());
+			}
+			if (spotifyConfig.getSecretFile() != null && !spotifyConfig.getSecretFile().isBlank()) {
+				this.spotify.setSecretFile(Path.of(spotifyConfig.getSecretFile()));
+			}
 			if (!spotifyConfig.isResolveArtistsInSearch()) {
 				this.spotify.setResolveArtistsInSearch(spotifyConfig.isResolveArtistsInSearch());
 			}
@@ -91,7 +191,8 @@ public class LavaSrcPlugin implements AudioPlayerManagerConfiguration, SearchMan
 			}
 		}
 		if (sourcesConfig.isAppleMusic()) {
-			this.appleMusic = new AppleMusicSourceManager(pluginConfig.getProviders(), appleMusicConfig.getMediaAPIToken(), appleMusicConfig.getCountryCode(), unused -> manager);
+			this.appleMusic = new AppleMusicSourceManager(appleMusicConfig.getMediaAPIToken(), appleMusicConfig.getCountryCode(), unused -> manager, mirrorResolver);
+			this.appleMusic.setPreResolver(this.mirrorPreResolver);
 			if (appleMusicConfig.getPlaylistLoadLimit() > 0) {
 				appleMusic.setPlaylistPageLimit(appleMusicConfig.getPlaylistLoadLimit());
 			}
@@ -160,7 +261,8 @@ public class LavaSrcPlugin implements AudioPlayerManagerConfiguration, SearchMan
 			}
 		}
 		if (sourcesConfig.isTidal()) {
-			this.tidal = new TidalSourceManager(pluginConfig.getProviders(), tidalConfig.getCountryCode(), unused -> this.manager, tidalConfig.getToken());
+			this.tidal = new TidalSourceManager(tidalConfig.getCountryCode(), unused -> this.manager, mirrorResolver, tidalConfig.getToken());
+			this.tidal.setPreResolver(this.mirrorPreResolver);
 			if (tidalConfig.getSearchLimit() > 0) {
 				this.tidal.setSearchLimit(tidalConfig.getSearchLimit());
 			}
@@ -181,6 +283,30 @@ public class LavaSrcPlugin implements AudioPlayerManagerConfiguration, SearchMan
 
 			proxyConfigurationService.configure(this.jioSaavn, jioSaavnConfig.getProxy());
 		}
+
+		this.configureHttpPool("spotify", this.spotify);
+		this.configureHttpPool("applemusic", this.appleMusic);
+		this.configureHttpPool("deezer", this.deezer);
+		this.configureHttpPool("yandexmusic", this.yandexMusic);
+		this.configureHttpPool("flowerytts", this.flowerytts);
+		this.configureHttpPool("vkmusic", this.vkMusic);
+		this.configureHttpPool("tidal", this.tidal);
+		this.configureHttpPool("qobuz", this.qobuz);
+		this.configureHttpPool("ytdlp", this.ytdlp);
+		this.configureHttpPool("jiosaavn", this.jioSaavn);
+		this.configureHttpPool("lrclib", this.lrcLib);
+
+		for (var source : new ExtendedAudioSourceManager[]{this.spotify, this.appleMusic, this.deezer, this.yandexMusic, this.vkMusic, this.tidal, this.qobuz, this.jioSaavn}) {
+			if (source != null) {
+				source.setItemCache(this.itemCache);
+			}
+		}
+	}
+
+	private void configureHttpPool(String name, @Nullable Object source) {
+		if (source instanceof HttpConfigurable) {
+			this.httpPoolSettings.configure(name, (HttpConfigurable) source);
+		}
 	}
 
 	private boolean hasNewYoutubeSource() {
@@ -303,6 +429,85 @@ public class LavaSrcPlugin implements AudioPlayerManagerConfiguration, SearchMan
 		return manager;
 	}
 
+	@Override
+	public void destroy() {
+		// the pre-resolver writes to the caches, so it is stopped first
+		if (this.mirrorPreResolver != null) {
+			this.mirrorPreResolver.shutdown();
+		}
+		if (this.diskCache != null) {
+			try {
+				this.diskCache.close();
+			} catch (IOException e) {
+				log.warn("Failed to close disk cache", e);
+			}
+		}
+	}
+
+	@GetMapping("/v4/lavasrc/mirror/cache")
+	public Map<String, Object> getMirrorCacheStats() {
+		if (this.mirrorCache == null) {
+			return Map.of("enabled", false);
+		}
+		return Map.of(
+			"enabled", true,
+			"size", this.mirrorCache.size(),
+			"hits", this.mirrorCache.getHits(),
+			"negativeHits", this.mirrorCache.getNegativeHits(),
+			"diskHits", this.mirrorCache.getSecondTierHits(),
+			"misses", this.mirrorCache.getMisses(),
+			"evictions", this.mirrorCache.getEvictions(),
+			"preResolveQueued", this.mirrorPreResolver == null ? 0 : this.mirrorPreResolver.getQueuedTasks()
+		);
+	}
+
+	@GetMapping("/v4/lavasrc/items/cache")
+	public Map<String, Object> getItemCacheStats() {
+		if (this.itemCache == null) {
+			return Map.of("enabled", false);
+		}
+		return Map.of(
+			"enabled", true,
+			"size", this.itemCache.size(),
+			"memory", this.itemCache.getMemory(),
+			"hits", this.itemCache.getHits(),
+			"diskHits", this.itemCache.getSecondTierHits(),
+			"misses", this.itemCache.getMisses(),
+			"evictions", this.itemCache.getEvictions()
+		);
+	}
+
+	@GetMapping("/v4/lavasrc/http/stats")
+	public Map<String, Object> getHttpPoolStats() {
+		var stats = new TreeMap<String, Object>();
+		for (var entry : this.httpPoolSettings.getStats().entrySet()) {
+			var poolStats = entry.getValue();
+			stats.put(entry.getKey(), Map.of(
+				"requests", poolStats.getRequests(),
+				"reusedConnections", poolStats.getReusedConnections(),
+				"leasedConnections", poolStats.getLeasedConnections(),
+				"availableConnections", poolStats.getAvailableConnections(),
+				"pendingConnections", poolStats.getPendingConnections(),
+				"maxConnections", poolStats.getMaxConnections()
+			));
+		}
+		return stats;
+	}
+
+	@GetMapping("/v4/lavasrc/ratelimits")
+	public Map<String, Object> getRateLimits() {
+		var rateLimits = new TreeMap<String, Object>();
+		for (var entry : AdaptiveRateLimiter.getLimiters().entrySet()) {
+			var limiter = entry.getValue();
+			rateLimits.put(entry.getKey(), Map.of(
+				"rate", limiter.getRate(),
+				"blockedFor", limiter.getBlockedFor(),
+				"rateLimited", limiter.getRateLimited()
+			));
+		}
+		return rateLimits;
+	}
+
 	@PatchMapping("/v4/lavasrc/config")
 	public void updateConfig(@RequestBody Config config) {
 		var spotifyConfig = config.getSpotify();
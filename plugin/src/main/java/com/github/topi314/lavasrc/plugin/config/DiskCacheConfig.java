@@ -0,0 +1,62 @@
+package com.github.topi314.lavasrc.plugin.config;
+
+import com.github.topi314.lavasrc.cache.DiskAudioItemCache;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "plugins.lavasrc.disk-cache")
+@Component
+public class DiskCacheConfig {
+
+	@Nullable
+	private String path;
+	private DataSize maxSize = DataSize.ofBytes(DiskAudioItemCache.DEFAULT_MAX_SIZE);
+	private Duration trackTtl = DiskAudioItemCache.DEFAULT_TRACK_TTL;
+	private Duration playlistTtl = DiskAudioItemCache.DEFAULT_PLAYLIST_TTL;
+	private Duration searchTtl = DiskAudioItemCache.DEFAULT_SEARCH_TTL;
+
+	@Nullable
+	public String getPath() {
+		return this.path;
+	}
+
+	public void setPath(@Nullable String path) {
+		this.path = path;
+	}
+
+	public DataSize getMaxSize() {
+		return this.maxSize;
+	}
+
+	public void setMaxSize(DataSize maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public Duration getTrackTtl() {
+		return this.trackTtl;
+	}
+
+	public void setTrackTtl(Duration trackTtl) {
+		this.trackTtl = trackTtl;
+	}
+
+	public Duration getPlaylistTtl() {
+		return this.playlistTtl;
+	}
+
+	public void setPlaylistTtl(Duration playlistTtl) {
+		this.playlistTtl = playlistTtl;
+	}
+
+	public Duration getSearchTtl() {
+		return this.searchTtl;
+	}
+
+	public void setSearchTtl(Duration searchTtl) {
+		this.searchTtl = searchTtl;
+	}
+}
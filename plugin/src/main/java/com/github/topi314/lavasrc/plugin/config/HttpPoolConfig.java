@@ -0,0 +1,79 @@
+package com.github.topi314.lavasrc.plugin.config;
+
+import com.github.topi314.lavasrc.HttpPoolSettings;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "plugins.lavasrc.http")
+@Component
+public class HttpPoolConfig {
+
+	private int maxConnectionsTotal = HttpPoolSettings.DEFAULT_MAX_CONNECTIONS_TOTAL;
+	private int maxConnectionsPerRoute = HttpPoolSettings.DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+	@Nullable
+	private Duration keepAlive;
+	@Nullable
+	private Duration idleTimeout = Duration.ofMinutes(1);
+	@Nullable
+	private Duration connectionTimeToLive;
+
+	public int getMaxConnectionsTotal() {
+		return this.maxConnectionsTotal;
+	}
+
+	public void setMaxConnectionsTotal(int maxConnectionsTotal) {
+		this.maxConnectionsTotal = maxConnectionsTotal;
+	}
+
+	public int getMaxConnectionsPerRoute() {
+		return this.maxConnectionsPerRoute;
+	}
+
+	public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+		this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+	}
+
+	@Nullable
+	public Duration getKeepAlive() {
+		return this.keepAlive;
+	}
+
+	public void setKeepAlive(@Nullable Duration keepAlive) {
+		this.keepAlive = keepAlive;
+	}
+
+	@Nullable
+	public Duration getIdleTimeout() {
+		return this.idleTimeout;
+	}
+
+	public void setIdleTimeout(@Nullable Duration idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	@Nullable
+	public Duration getConnectionTimeToLive() {
+		return this.connectionTimeToLive;
+	}
+
+	public void setConnectionTimeToLive(@Nullable Duration connectionTimeToLive) {
+		this.connectionTimeToLive = connectionTimeToLive;
+	}
+
+	public HttpPoolSettings buildSettings() {
+		var settings = new HttpPoolSettings();
+		if (this.maxConnectionsTotal > 0) {
+			settings.setMaxConnectionsTotal(this.maxConnectionsTotal);
+		}
+		if (this.maxConnectionsPerRoute > 0) {
+			settings.setMaxConnectionsPerRoute(this.maxConnectionsPerRoute);
+		}
+		settings.setKeepAlive(this.keepAlive);
+		settings.setIdleTimeout(this.idleTimeout);
+		settings.setConnectionTimeToLive(this.connectionTimeToLive);
+		return settings;
+	}
+}
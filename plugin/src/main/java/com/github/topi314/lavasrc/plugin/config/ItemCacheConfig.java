@@ -0,0 +1,59 @@
+package com.github.topi314.lavasrc.plugin.config;
+
+import com.github.topi314.lavasrc.cache.MemoryAudioItemCache;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "plugins.lavasrc.item-cache")
+@Component
+public class ItemCacheConfig {
+
+	private boolean enabled = false;
+	private DataSize maxMemory = DataSize.ofBytes(MemoryAudioItemCache.DEFAULT_MAX_MEMORY);
+	private Duration trackTtl = MemoryAudioItemCache.DEFAULT_TRACK_TTL;
+	private Duration playlistTtl = MemoryAudioItemCache.DEFAULT_PLAYLIST_TTL;
+	private Duration searchTtl = MemoryAudioItemCache.DEFAULT_SEARCH_TTL;
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public DataSize getMaxMemory() {
+		return this.maxMemory;
+	}
+
+	public void setMaxMemory(DataSize maxMemory) {
+		this.maxMemory = maxMemory;
+	}
+
+	public Duration getTrackTtl() {
+		return this.trackTtl;
+	}
+
+	public void setTrackTtl(Duration trackTtl) {
+		this.trackTtl = trackTtl;
+	}
+
+	public Duration getPlaylistTtl() {
+		return this.playlistTtl;
+	}
+
+	public void setPlaylistTtl(Duration playlistTtl) {
+		this.playlistTtl = playlistTtl;
+	}
+
+	public Duration getSearchTtl() {
+		return this.searchTtl;
+	}
+
+	public void setSearchTtl(Duration searchTtl) {
+		this.searchTtl = searchTtl;
+	}
+}
@@ -0,0 +1,118 @@
+package com.github.topi314.lavasrc.plugin.config;
+
+import com.github.topi314.lavasrc.mirror.MirroringAudioTrackCache;
+import com.github.topi314.lavasrc.mirror.MirroringAudioTrackPreResolver;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "plugins.lavasrc.mirror")
+@Component
+public class MirrorConfig {
+
+	private boolean cacheEnabled = false;
+	private int cacheMaxSize = MirroringAudioTrackCache.DEFAULT_MAX_SIZE;
+	private Duration cacheTtl = MirroringAudioTrackCache.DEFAULT_TTL;
+	private Duration cacheNegativeTtl = MirroringAudioTrackCache.DEFAULT_NEGATIVE_TTL;
+	@Nullable
+	private Duration hedgeDelay;
+	@Nullable
+	private Duration providerTimeout;
+	private boolean preResolveEnabled = false;
+	private int preResolveInitialTracks = MirroringAudioTrackPreResolver.DEFAULT_INITIAL_TRACKS;
+	private int preResolveWindowSize = MirroringAudioTrackPreResolver.DEFAULT_WINDOW_SIZE;
+	private int preResolveThreads = MirroringAudioTrackPreResolver.DEFAULT_THREADS;
+	private double preResolveRequestsPerSecond = MirroringAudioTrackPreResolver.DEFAULT_REQUESTS_PER_SECOND;
+
+	public boolean isCacheEnabled() {
+		return this.cacheEnabled;
+	}
+
+	public void setCacheEnabled(boolean cacheEnabled) {
+		this.cacheEnabled = cacheEnabled;
+	}
+
+	public int getCacheMaxSize() {
+		return this.cacheMaxSize;
+	}
+
+	public void setCacheMaxSize(int cacheMaxSize) {
+		this.cacheMaxSize = cacheMaxSize;
+	}
+
+	public Duration getCacheTtl() {
+		return this.cacheTtl;
+	}
+
+	public void setCacheTtl(Duration cacheTtl) {
+		this.cacheTtl = cacheTtl;
+	}
+
+	public Duration getCacheNegativeTtl() {
+		return this.cacheNegativeTtl;
+	}
+
+	public void setCacheNegativeTtl(Duration cacheNegativeTtl) {
+		this.cacheNegativeTtl = cacheNegativeTtl;
+	}
+
+	@Nullable
+	public Duration getHedgeDelay() {
+		return this.hedgeDelay;
+	}
+
+	public void setHedgeDelay(@Nullable Duration hedgeDelay) {
+		this.hedgeDelay = hedgeDelay;
+	}
+
+	@Nullable
+	public Duration getProviderTimeout() {
+		return this.providerTimeout;
+	}
+
+	public void setProviderTimeout(@Nullable Duration providerTimeout) {
+		this.providerTimeout = providerTimeout;
+	}
+
+	public boolean isPreResolveEnabled() {
+		return this.preResolveEnabled;
+	}
+
+	public void setPreResolveEnabled(boolean preResolveEnabled) {
+		this.preResolveEnabled = preResolveEnabled;
+	}
+
+	public int getPreResolveInitialTracks() {
+		return this.preResolveInitialTracks;
+	}
+
+	public void setPreResolveInitialTracks(int preResolveInitialTracks) {
+		this.preResolveInitialTracks = preResolveInitialTracks;
+	}
+
+	public int getPreResolveWindowSize() {
+		return this.preResolveWindowSize;
+	}
+
+	public void setPreResolveWindowSize(int preResolveWindowSize) {
+		this.preResolveWindowSize = preResolveWindowSize;
+	}
+
+	public int getPreResolveThreads() {
+		return this.preResolveThreads;
+	}
+
+	public void setPreResolveThreads(int preResolveThreads) {
+		this.preResolveThreads = preResolveThreads;
+	}
+
+	public double getPreResolveRequestsPerSecond() {
+		return this.preResolveRequestsPerSecond;
+	}
+
+	public void setPreResolveRequestsPerSecond(double preResolveRequestsPerSecond) {
+		this.preResolveRequestsPerSecond = preResolveRequestsPerSecond;
+	}
+}
@@ -0,0 +1,49 @@
+package com.github.topi314.lavasrc.plugin.config;
+
+import com.github.topi314.lavasrc.AdaptiveRateLimiter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "plugins.lavasrc.rate-limit")
+@Component
+public class RateLimitConfig {
+
+	private boolean enabled = true;
+	private double maxRequestsPerSecond = AdaptiveRateLimiter.DEFAULT_MAX_REQUESTS_PER_SECOND;
+	private double minRequestsPerSecond = AdaptiveRateLimiter.DEFAULT_MIN_REQUESTS_PER_SECOND;
+	private Duration maxWait = Duration.ofMillis(AdaptiveRateLimiter.DEFAULT_MAX_WAIT_MS);
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public double getMaxRequestsPerSecond() {
+		return this.maxRequestsPerSecond;
+	}
+
+	public void setMaxRequestsPerSecond(double maxRequestsPerSecond) {
+		this.maxRequestsPerSecond = maxRequestsPerSecond;
+	}
+
+	public double getMinRequestsPerSecond() {
+		return this.minRequestsPerSecond;
+	}
+
+	public void setMinRequestsPerSecond(double minRequestsPerSecond) {
+		this.minRequestsPerSecond = minRequestsPerSecond;
+	}
+
+	public Duration getMaxWait() {
+		return this.maxWait;
+	}
+
+	public void setMaxWait(Duration maxWait) {
+		this.maxWait = maxWait;
+	}
+}
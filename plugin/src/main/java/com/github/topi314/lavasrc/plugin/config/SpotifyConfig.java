@@ -1,8 +1,14 @@
 package com.github.topi314.lavasrc.plugin.config;
 
+import com.github.topi314.lavasrc.CircuitBreaker;
+import com.github.topi314.lavasrc.ConcurrentPageFetcher;
+import com.github.topi314.lavasrc.spotify.SpotifyIsrcBackfill;
+import com.github.topi314.lavasrc.spotify.SpotifyTokenTracker;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @ConfigurationProperties(prefix = "plugins.lavasrc.spotify")
 @Component
 public class SpotifyConfig {
@@ -13,11 +19,18 @@ public class SpotifyConfig {
 	private String countryCode = "US";
 	private int playlistLoadLimit = 6;
 	private int albumLoadLimit = 6;
+	private int pageConcurrency = ConcurrentPageFetcher.DEFAULT_CONCURRENCY;
 	private boolean resolveArtistsInSearch = true;
 	private boolean localFiles = false;
 	private boolean preferPartnerApi = false;
 	private boolean preferV1SearchApi = false;
 	private String customTokenEndpoint;
+	private Duration secretTtl = SpotifyTokenTracker.DEFAULT_SECRET_TTL;
+	private String secretFile;
+	private SpotifyIsrcBackfill.Mode isrcBackfillMode = SpotifyIsrcBackfill.Mode.BATCHED;
+	private int isrcBackfillParallelism = SpotifyIsrcBackfill.DEFAULT_PARALLELISM;
+	private int partnerApiFailureThreshold = CircuitBreaker.DEFAULT_FAILURE_THRESHOLD;
+	private Duration partnerApiRetryDelay = CircuitBreaker.DEFAULT_RETRY_DELAY;
 
 	public String getClientId() {
 		return this.clientId;
@@ -67,6 +80,14 @@ public class SpotifyConfig {
 		this.albumLoadLimit = albumLoadLimit;
 	}
 
+	public int getPageConcurrency() {
+		return this.pageConcurrency;
+	}
+
+	public void setPageConcurrency(int pageConcurrency) {
+		this.pageConcurrency = pageConcurrency;
+	}
+
 	public boolean isResolveArtistsInSearch() {
 		return this.resolveArtistsInSearch;
 	}
@@ -107,4 +128,52 @@ public class SpotifyConfig {
 	public void setCustomTokenEndpoint(String customTokenEndpoint) {
 		this.customTokenEndpoint = customTokenEndpoint;
 	}
+
+	public Duration getSecretTtl() {
+		return this.secretTtl;
+	}
+
+	public void setSecretTtl(Duration secretTtl) {
+		this.secretTtl = secretTtl;
+	}
+
+	public String getSecretFile() {
+		return this.secretFile;
+	}
+
+	public void setSecretFile(String secretFile) {
+		this.secretFile = secretFile;
+	}
+
+	public SpotifyIsrcBackfill.Mode getIsrcBackfillMode() {
+		return this.isrcBackfillMode;
+	}
+
+	public void setIsrcBackfillMode(SpotifyIsrcBackfill.Mode isrcBackfillMode) {
+		this.isrcBackfillMode = isrcBackfillMode;
+	}
+
+	public int getIsrcBackfillParallelism() {
+		return this.isrcBackfillParallelism;
+	}
+
+	public void setIsrcBackfillParallelism(int isrcBackfillParallelism) {
+		this.isrcBackfillParallelism = isrcBackfillParallelism;
+	}
+
+	public int getPartnerApiFailureThreshold() {
+		return this.partnerApiFailureThreshold;
+	}
+
+	public void setPartnerApiFailureThreshold(int partnerApiFailureThreshold) {
+		this.partnerApiFailureThreshold = partnerApiFailureThreshold;
+	}
+
+	public Duration getPartnerApiRetryDelay() {
+		return this.partnerApiRetryDelay;
+	}
+
+	public void setPartnerApiRetryDelay(Duration partnerApiRetryDelay) {
+		this.partnerApiRetryDelay = partnerApiRetryDelay;
+	}
 }
@@ -0,0 +1,110 @@
+package com.github.topi314.lavasrc.plugin.service;
+
+import com.github.topi314.lavasrc.CircuitBreaker;
+import com.github.topi314.lavasrc.LavaSrcMetrics;
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports the {@link LavaSrcMetrics} of all sources through the prometheus endpoint of Lavalink, if it is enabled.
+ */
+@Service
+@ConditionalOnProperty(prefix = "metrics.prometheus", name = "enabled", havingValue = "true")
+public class PrometheusMetricsService implements LavaSrcMetrics.Listener, DisposableBean {
+
+	private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final Histogram requestDuration = Histogram.build()
+		.name("lavasrc_http_request_duration_seconds")
+		.help("Duration of the api requests of the sources per host & endpoint")
+		.labelNames("host", "endpoint")
+		.register();
+	private final Counter requests = Counter.build()
+		.name("lavasrc_http_requests_total")
+		.help("Api requests of the sources per host, endpoint & response status, failed requests without a response have the status error")
+		.labelNames("host", "endpoint", "status")
+		.register();
+	private final Histogram tokenRefreshDuration = Histogram.build()
+		.name("lavasrc_token_refresh_duration_seconds")
+		.help("Duration of token refreshes per source & token")
+		.labelNames("source", "token", "result")
+		.buckets(0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30)
+		.register();
+	private final Histogram mirrorResolveDuration = Histogram.build()
+		.name("lavasrc_mirror_resolve_duration_seconds")
+		.help("Duration of mirror resolutions per provider, the provider all covers whole resolutions")
+		.labelNames("provider", "result")
+		.register();
+	private final Histogram playbackSetupDuration = Histogram.build()
+		.name("lavasrc_playback_setup_duration_seconds")
+		.help("Time from the start of a track until its audio stream is handed to the decoder per source")
+		.labelNames("source")
+		.buckets(0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30)
+		.register();
+	private final Gauge circuitBreakerState = Gauge.build()
+		.name("lavasrc_circuit_breaker_state")
+		.help("The state of the circuit breakers, 1 for the current state & 0 for the others")
+		.labelNames("name", "state")
+		.register();
+	private final Counter circuitBreakerRejected = Counter.build()
+		.name("lavasrc_circuit_breaker_rejected_total")
+		.help("Calls which went straight to the fallback because their circuit breaker was open")
+		.labelNames("name")
+		.register();
+
+	public PrometheusMetricsService() {
+		LavaSrcMetrics.setListener(this);
+	}
+
+	@Override
+	public void onRequest(String host, String endpoint, int status, long durationNanos) {
+		this.requestDuration.labels(host, endpoint).observe(durationNanos / NANOS_PER_SECOND);
+		this.requests.labels(host, endpoint, status < 0 ? "error" : String.valueOf(status)).inc();
+	}
+
+	@Override
+	public void onTokenRefresh(String source, String token, boolean success, long durationNanos) {
+		this.tokenRefreshDuration.labels(source, token, success ? "success" : "failure").observe(durationNanos / NANOS_PER_SECOND);
+	}
+
+	@Override
+	public void onMirrorResolve(String provider, boolean found, long durationNanos) {
+		this.mirrorResolveDuration.labels(provider, found ? "found" : "not_found").observe(durationNanos / NANOS_PER_SECOND);
+	}
+
+	@Override
+	public void onPlaybackSetup(String source, long durationNanos) {
+		this.playbackSetupDuration.labels(source).observe(durationNanos / NANOS_PER_SECOND);
+	}
+
+	@Override
+	public void onCircuitBreakerState(String name, CircuitBreaker.State state) {
+		for (var value : CircuitBreaker.State.values()) {
+			this.circuitBreakerState.labels(name, value.name().toLowerCase()).set(value == state ? 1 : 0);
+		}
+	}
+
+	@Override
+	public void onCircuitBreakerRejected(String name) {
+		this.circuitBreakerRejected.labels(name).inc();
+	}
+
+	@Override
+	public void destroy() {
+		if (LavaSrcMetrics.getListener() == this) {
+			LavaSrcMetrics.setListener(null);
+		}
+		for (var collector : new Collector[]{this.requestDuration, this.requests, this.tokenRefreshDuration, this.mirrorResolveDuration, this.playbackSetupDuration, this.circuitBreakerState, this.circuitBreakerRejected}) {
+			CollectorRegistry.defaultRegistry.unregister(collector);
+		}
+	}
+
+}